@@ -0,0 +1,81 @@
+package com.sauljohnson.huff.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Represents a kind of locally generated data to benchmark against.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public enum Corpus {
+
+    /** English-like text, drawn from words with roughly natural letter and word frequencies. */
+    TEXT {
+        @Override
+        void fill(byte[] data, Random random) {
+            final String[] words = {"the", "of", "and", "to", "a", "in", "that", "is", "was", "he", "for", "it",
+                    "with", "as", "his", "on", "be", "at", "by", "had", "compression", "huffman", "frequency", "tree"};
+            int i = 0;
+            while (i < data.length) {
+                // Favour early words, as natural text does.
+                final String word = words[(int) (words.length * Math.pow(random.nextDouble(), 2))];
+                for (int j = 0; j < word.length() && i < data.length; j++) {
+                    data[i++] = (byte) word.charAt(j);
+                }
+                if (i < data.length) {
+                    data[i++] = (byte) (random.nextInt(12) == 0 ? '\n' : ' ');
+                }
+            }
+        }
+    },
+
+    /** Heavily skewed bytes, following a geometric distribution. */
+    SKEWED {
+        @Override
+        void fill(byte[] data, Random random) {
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) Integer.numberOfLeadingZeros(random.nextInt() | 1);
+            }
+        }
+    },
+
+    /** Uniformly random bytes, which do not compress. */
+    UNIFORM {
+        @Override
+        void fill(byte[] data, Random random) {
+            random.nextBytes(data);
+        }
+    },
+
+    /** A single byte repeated throughout. */
+    SINGLE {
+        @Override
+        void fill(byte[] data, Random random) {
+            for (int i = 0; i < data.length; i++) {
+                data[i] = 'x';
+            }
+        }
+    };
+
+    /** The seed for generating data, fixed so every run benchmarks the same data. */
+    private static final long SEED = 42;
+
+    /**
+     * Fills an array with data of this kind.
+     * @param data      the array to fill
+     * @param random    the source of randomness to use
+     */
+    abstract void fill(byte[] data, Random random);
+
+    /**
+     * Generates data of this kind.
+     * @param size  the number of bytes of data to generate
+     * @return      the data generated
+     */
+    public byte[] generate(int size) {
+        final byte[] data = new byte[size];
+        fill(data, new Random(SEED));
+        return data;
+    }
+}
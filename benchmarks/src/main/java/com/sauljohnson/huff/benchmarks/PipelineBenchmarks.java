@@ -0,0 +1,107 @@
+package com.sauljohnson.huff.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.sauljohnson.huff.ByteFrequencySet;
+import com.sauljohnson.huff.FrequencyTree;
+import com.sauljohnson.huff.HuffmanCompressionResult;
+import com.sauljohnson.huff.HuffmanCompressor;
+import com.sauljohnson.huff.PrefixCodeTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks each stage of the compression pipeline separately.
+ *
+ * Run with the GC profiler ({@code -prof gc}) to report allocation rate alongside throughput.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmarks {
+
+    /** The kind of data to benchmark against. */
+    @Param({"TEXT", "SKEWED", "UNIFORM", "SINGLE"})
+    public Corpus corpus;
+
+    /** The number of bytes of data to benchmark against. */
+    @Param({"1024", "65536", "4194304"})
+    public int size;
+
+    /** The data to compress. */
+    private byte[] data;
+
+    /** The frequency set for the data. */
+    private ByteFrequencySet frequencies;
+
+    /** The Huffman tree for the data. */
+    private FrequencyTree tree;
+
+    /** The compressor under test. */
+    private HuffmanCompressor compressor;
+
+    /** The result of compressing the data. */
+    private HuffmanCompressionResult result;
+
+    /** The data compressed into interleaved streams. */
+    private byte[] interleaved;
+
+    /**
+     * Generates the data and the output of each stage, so every stage can be benchmarked in isolation.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = corpus.generate(size);
+        frequencies = new ByteFrequencySet(data);
+        tree = FrequencyTree.fromFrequencySet(frequencies);
+        compressor = new HuffmanCompressor();
+        result = compressor.compress(data);
+        interleaved = compressor.compressInterleaved(data);
+    }
+
+    @Benchmark
+    public ByteFrequencySet frequencySet() {
+        return new ByteFrequencySet(data);
+    }
+
+    @Benchmark
+    public FrequencyTree frequencyTree() {
+        return FrequencyTree.fromFrequencySet(frequencies);
+    }
+
+    @Benchmark
+    public PrefixCodeTable prefixCodeTable() {
+        return new PrefixCodeTable(tree);
+    }
+
+    @Benchmark
+    public HuffmanCompressionResult compress() {
+        return compressor.compress(data);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return compressor.decompress(result);
+    }
+
+    @Benchmark
+    public byte[] decompressInterleaved() {
+        return compressor.decompressInterleaved(interleaved);
+    }
+}
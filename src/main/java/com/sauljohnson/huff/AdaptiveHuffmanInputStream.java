@@ -0,0 +1,139 @@
+package com.sauljohnson.huff;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Represents an input stream that decompresses data written by an {@link AdaptiveHuffmanOutputStream}.
+ *
+ * Each byte is decoded as soon as the bits that code it have been read, updating a tree in step with the one that
+ * wrote it.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AdaptiveHuffmanInputStream extends InputStream {
+
+    /** The stream that compressed data is read from. */
+    private final InputStream in;
+
+    /** The tree that decodes each byte. */
+    private final AdaptiveHuffmanTree tree;
+
+    /** Holds bits that have been read but not yet used, in its low-order bits. */
+    private int bits;
+
+    /** The number of bits held. */
+    private int count;
+
+    /** Whether or not the end of stream marker has been read. */
+    private boolean ended;
+
+    /** Whether or not the stream has been closed. */
+    private boolean closed;
+
+    /**
+     * Initialises a new instance of an adaptive Huffman input stream.
+     * @param in    the stream to read compressed data from
+     */
+    public AdaptiveHuffmanInputStream(InputStream in) {
+        this.in = in;
+        this.tree = new AdaptiveHuffmanTree();
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        while (!ended) {
+            // Follow the bits down the tree to a leaf.
+            Node node = tree.getRoot();
+            while (node.hasChildren()) {
+                node = node.getChild(readBits(1));
+            }
+            int symbol = node.getData();
+
+            // The NYT leaf is followed by a new byte or a marker.
+            if (tree.isNyt(node)) {
+                symbol = readBits(AdaptiveHuffmanTree.ESCAPE_BITS);
+                if (symbol == AdaptiveHuffmanTree.END_OF_STREAM) {
+                    ended = true;
+                    break;
+                }
+                if (symbol == AdaptiveHuffmanTree.FLUSH) {
+                    count -= count % 8;
+                    bits &= (1 << count) - 1;
+                    continue;
+                }
+                if (symbol > AdaptiveHuffmanTree.FLUSH) {
+                    throw new IOException("Invalid adaptive Huffman marker.");
+                }
+            }
+            tree.update(symbol);
+            return symbol;
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        final int first = read();
+        if (first < 0) {
+            return -1;
+        }
+        b[off] = (byte) first;
+
+        // Carry on only while more input is at hand, so as not to hold up data that has already arrived.
+        int read = 1;
+        while (read < len && in.available() > 0) {
+            final int next = read();
+            if (next < 0) {
+                break;
+            }
+            b[off + read++] = (byte) next;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            in.close();
+        }
+    }
+
+    /**
+     * Reads bits from the underlying stream, a byte at a time as needed.
+     * @param length        the number of bits to read, at most 16
+     * @return              the bits read, right-aligned
+     * @throws IOException  if an I/O error occurs or the stream ends before the end of stream marker
+     */
+    private int readBits(int length) throws IOException {
+        while (count < length) {
+            final int next = in.read();
+            if (next < 0) {
+                throw new EOFException("Compressed stream ended before the end of stream marker.");
+            }
+            bits = (bits << 8) | next;
+            count += 8;
+        }
+        count -= length;
+        final int value = (bits >>> count) & ((1 << length) - 1);
+        bits &= (1 << count) - 1;
+        return value;
+    }
+
+    /**
+     * Checks that the stream has not been closed.
+     * @throws IOException  if the stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
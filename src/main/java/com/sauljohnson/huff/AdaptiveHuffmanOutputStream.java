@@ -0,0 +1,140 @@
+package com.sauljohnson.huff;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Represents an output stream that compresses data written to it using adaptive Huffman coding.
+ *
+ * Unlike a {@link HuffmanOutputStream}, nothing is buffered: each byte is coded as soon as it is written with a tree
+ * that adapts to the data seen so far, and every whole byte of output is passed straight to the underlying stream.
+ * No prefix code table is written. Calling {@link #flush()} writes a marker padding out the last byte, so everything
+ * written so far can be decoded at once. Output can be read back with an {@link AdaptiveHuffmanInputStream}.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AdaptiveHuffmanOutputStream extends OutputStream {
+
+    /** The stream that compressed data is written to. */
+    private final OutputStream out;
+
+    /** The tree that codes each byte. */
+    private final AdaptiveHuffmanTree tree;
+
+    /** Holds the path to the leaf for each byte as it is written. */
+    private final int[] path;
+
+    /** Holds bits that don't yet make up a whole byte, in its low-order bits. */
+    private int bits;
+
+    /** The number of bits held. */
+    private int count;
+
+    /** Whether or not the stream has been closed. */
+    private boolean closed;
+
+    /**
+     * Initialises a new instance of an adaptive Huffman output stream.
+     * @param out   the stream to write compressed data to
+     */
+    public AdaptiveHuffmanOutputStream(OutputStream out) {
+        this.out = out;
+        this.tree = new AdaptiveHuffmanTree();
+        this.path = new int[2 * 256 + 1];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        final int symbol = b & 0xFF;
+        final Node leaf = tree.getLeaf(symbol);
+        writePath(leaf);
+
+        // A byte not seen before follows the NYT code in full.
+        if (tree.isNyt(leaf)) {
+            writeBits(symbol, AdaptiveHuffmanTree.ESCAPE_BITS);
+        }
+        tree.update(symbol);
+    }
+
+    /**
+     * Pads out the last byte behind a flush marker if it is incomplete, then flushes the underlying stream.
+     * @throws IOException  if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            writeMarker(AdaptiveHuffmanTree.FLUSH);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes an end of stream marker and pads out the last byte, then closes the underlying stream.
+     * @throws IOException  if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            writeMarker(AdaptiveHuffmanTree.END_OF_STREAM);
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the NYT code followed by a marker, then pads out the last byte with zeroes.
+     * @param marker        the marker to write
+     * @throws IOException  if an I/O error occurs
+     */
+    private void writeMarker(int marker) throws IOException {
+        writePath(tree.getNyt());
+        writeBits(marker, AdaptiveHuffmanTree.ESCAPE_BITS);
+        if (count > 0) {
+            writeBits(0, 8 - count);
+        }
+    }
+
+    /**
+     * Writes the code for a node, which is its path from the root.
+     * @param node          the node to write the code for
+     * @throws IOException  if an I/O error occurs
+     */
+    private void writePath(Node node) throws IOException {
+        for (int i = AdaptiveHuffmanTree.getPath(node, path) - 1; i >= 0; i--) {
+            writeBits(path[i], 1);
+        }
+    }
+
+    /**
+     * Writes bits to the stream, passing on each byte as soon as it is complete.
+     * @param value         the bits to write, right-aligned
+     * @param length        the number of bits to write, at most 16
+     * @throws IOException  if an I/O error occurs
+     */
+    private void writeBits(int value, int length) throws IOException {
+        bits = (bits << length) | (value & ((1 << length) - 1));
+        count += length;
+        while (count >= 8) {
+            count -= 8;
+            out.write(bits >>> count);
+        }
+        bits &= (1 << count) - 1;
+    }
+
+    /**
+     * Checks that the stream has not been closed.
+     * @throws IOException  if the stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
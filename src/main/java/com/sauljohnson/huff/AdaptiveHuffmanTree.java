@@ -0,0 +1,211 @@
+package com.sauljohnson.huff;
+
+/**
+ * Represents a Huffman tree that adapts to the data as each symbol is coded, using the FGK algorithm.
+ *
+ * The tree starts out holding only a "not yet transmitted" (NYT) leaf. Symbols seen before are coded by their path
+ * from the root; new symbols are coded by the path to the NYT leaf followed by the symbol itself, after which the NYT
+ * leaf is split to give the symbol a leaf of its own. The encoder and decoder update identical trees after every
+ * symbol, so no prefix code table needs to be sent.
+ *
+ * Nodes are numbered from the root downwards such that weights never increase with number (the sibling property).
+ * Before a node's weight goes up, it is swapped with the lowest-numbered node of the same weight, which keeps the
+ * property and the tree optimal for the symbols seen so far.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class AdaptiveHuffmanTree {
+
+    /** The number of byte symbols. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** The number of bits that follow the NYT code to give a new symbol or a marker. */
+    static final int ESCAPE_BITS = 9;
+
+    /** The value following the NYT code that marks the end of the stream. */
+    static final int END_OF_STREAM = 256;
+
+    /** The value following the NYT code that marks a flush, after which the rest of the byte is padding. */
+    static final int FLUSH = 257;
+
+    /** Holds every node in order of number, root first. */
+    private final AdaptiveNode[] nodes = new AdaptiveNode[2 * SYMBOL_COUNT + 1];
+
+    /** Holds the leaf for each symbol seen so far, indexed by symbol. */
+    private final AdaptiveNode[] leaves = new AdaptiveNode[SYMBOL_COUNT];
+
+    /** The number of nodes in the tree. */
+    private int size;
+
+    /** The root of the tree. */
+    private AdaptiveNode root;
+
+    /** The NYT leaf. */
+    private AdaptiveNode nyt;
+
+    /**
+     * Initialises a new instance of an adaptive Huffman tree holding only the NYT leaf.
+     */
+    AdaptiveHuffmanTree() {
+        nyt = new AdaptiveNode(-1);
+        root = nyt;
+        nodes[size++] = nyt;
+    }
+
+    /**
+     * Gets the root of the tree.
+     * @return  the root of the tree
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the NYT leaf.
+     * @return  the NYT leaf
+     */
+    Node getNyt() {
+        return nyt;
+    }
+
+    /**
+     * Gets whether or not a node is the NYT leaf.
+     * @param node  the node to check
+     * @return      true if the node is the NYT leaf, otherwise false
+     */
+    boolean isNyt(Node node) {
+        return node == nyt;
+    }
+
+    /**
+     * Gets the leaf that codes a symbol, which is the NYT leaf if the symbol has not been seen yet.
+     * @param symbol    the symbol to look up
+     * @return          the leaf that codes the symbol
+     */
+    Node getLeaf(int symbol) {
+        return leaves[symbol] == null ? nyt : leaves[symbol];
+    }
+
+    /**
+     * Writes the path from the root to a node.
+     * @param node  the node to find the path to
+     * @param path  the array to write the path into, last bit first, with room for at least 513 bits
+     * @return      the length of the path
+     */
+    static int getPath(Node node, int[] path) {
+        int length = 0;
+        for (Node parent = node.getParent(); parent != null; parent = node.getParent()) {
+            path[length++] = parent.getChild(1) == node ? 1 : 0;
+            node = parent;
+        }
+        return length;
+    }
+
+    /**
+     * Counts a symbol, updating the tree to match.
+     * @param symbol    the symbol to count
+     */
+    void update(int symbol) {
+        AdaptiveNode node = leaves[symbol];
+        if (node == null) {
+            // Split the NYT leaf into a new NYT leaf and a leaf for the symbol, numbered after their parent.
+            final AdaptiveNode leaf = new AdaptiveNode(symbol);
+            final AdaptiveNode newNyt = new AdaptiveNode(-1);
+            final AdaptiveNode parent = new AdaptiveNode(newNyt, leaf);
+            if (nyt == root) {
+                root = parent;
+            } else {
+                nyt.getParent().replaceChild(nyt, parent);
+            }
+            parent.number = nyt.number;
+            nodes[parent.number] = parent;
+            leaf.number = size++;
+            nodes[leaf.number] = leaf;
+            newNyt.number = size++;
+            nodes[newNyt.number] = newNyt;
+            nyt = newNyt;
+            leaves[symbol] = leaf;
+            node = leaf;
+        }
+
+        // Walk up to the root, moving each node to the front of its block before adding to its weight.
+        while (node != null) {
+            int leader = node.number;
+            while (leader > 0 && nodes[leader - 1].getFrequency() == node.getFrequency()) {
+                leader--;
+            }
+            if (leader != node.number && nodes[leader] != node.getParent()) {
+                swap(node, nodes[leader]);
+            }
+            node.incrementFrequency();
+            node = (AdaptiveNode) node.getParent();
+        }
+    }
+
+    /**
+     * Swaps two nodes, along with their subtrees, in both the tree and the numbering. Neither node may be an ancestor
+     * of the other.
+     * @param a the first node
+     * @param b the second node
+     */
+    private void swap(AdaptiveNode a, AdaptiveNode b) {
+        final Node parentA = a.getParent();
+        final Node parentB = b.getParent();
+        if (parentA == parentB) {
+            parentA.swapChildren();
+        } else {
+            parentA.replaceChild(a, b);
+            parentB.replaceChild(b, a);
+        }
+        final int number = a.number;
+        a.number = b.number;
+        b.number = number;
+        nodes[a.number] = a;
+        nodes[b.number] = b;
+    }
+
+    /**
+     * Gets whether or not every node's weight is no greater than that of the node numbered before it, and every
+     * internal node's weight is the sum of its children's.
+     * @return  true if the tree has the sibling property, otherwise false
+     */
+    boolean hasSiblingProperty() {
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && nodes[i].getFrequency() > nodes[i - 1].getFrequency()) {
+                return false;
+            }
+            if (nodes[i].hasChildren() && nodes[i].getFrequency()
+                    != nodes[i].getChild(0).getFrequency() + nodes[i].getChild(1).getFrequency()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Represents a node in an adaptive Huffman tree, which knows its own number.
+     */
+    private static final class AdaptiveNode extends Node {
+
+        /** The number of the node, which is its index in the node array. */
+        private int number;
+
+        /**
+         * Initialises a new instance of an adaptive Huffman tree leaf with zero weight.
+         * @param data  the symbol held by the leaf, or -1 for the NYT leaf
+         */
+        AdaptiveNode(int data) {
+            super(0, data);
+        }
+
+        /**
+         * Initialises a new instance of an adaptive Huffman tree internal node with zero weight.
+         * @param zero  the node's zero child
+         * @param one   the node's one child
+         */
+        AdaptiveNode(Node zero, Node one) {
+            super(0, zero, one);
+        }
+    }
+}
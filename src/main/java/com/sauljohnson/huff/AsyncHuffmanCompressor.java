@@ -0,0 +1,114 @@
+package com.sauljohnson.huff;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Represents a facade over a {@link HuffmanCompressor} that compresses and decompresses on an executor, so that
+ * callers such as request threads are not held up by large payloads.
+ *
+ * Any executor may be supplied, including a virtual thread per task executor on runtimes that have one. Without one,
+ * work runs on the compressor's pool.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AsyncHuffmanCompressor {
+
+    /** The compressor that does the work. */
+    private final HuffmanCompressor compressor;
+
+    /** The executor that work is run on. */
+    private final Executor executor;
+
+    /**
+     * Initialises a new instance of an asynchronous Huffman compressor that runs work on the compressor's pool.
+     * @param compressor    the compressor that does the work
+     */
+    public AsyncHuffmanCompressor(HuffmanCompressor compressor) {
+        this(compressor, compressor.getPool());
+    }
+
+    /**
+     * Initialises a new instance of an asynchronous Huffman compressor.
+     * @param compressor    the compressor that does the work
+     * @param executor      the executor that work is run on
+     */
+    public AsyncHuffmanCompressor(HuffmanCompressor compressor, Executor executor) {
+        this.compressor = compressor;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the compressor that does the work.
+     * @return  the compressor that does the work
+     */
+    public HuffmanCompressor getCompressor() {
+        return compressor;
+    }
+
+    /**
+     * Gets the executor that work is run on.
+     * @return  the executor that work is run on
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Compresses a byte array using plain Huffman coding.
+     * @param data  the data to compress, which must not change until the future completes
+     * @return      a future completed with the result of data compression
+     */
+    public CompletableFuture<HuffmanCompressionResult> compress(final byte[] data) {
+        return CompletableFuture.supplyAsync(new Supplier<HuffmanCompressionResult>() {
+            @Override
+            public HuffmanCompressionResult get() {
+                return compressor.compress(data);
+            }
+        }, executor);
+    }
+
+    /**
+     * Decompresses the result of compressing a byte array using plain Huffman coding.
+     * @param result    the result of compression
+     * @return          a future completed with the decompressed data
+     */
+    public CompletableFuture<byte[]> decompress(final HuffmanCompressionResult result) {
+        return CompletableFuture.supplyAsync(new Supplier<byte[]>() {
+            @Override
+            public byte[] get() {
+                return compressor.decompress(result);
+            }
+        }, executor);
+    }
+
+    /**
+     * Compresses a byte array into a checksummed container, as by {@link HuffmanCompressor#compressToContainer}.
+     * @param data  the data to compress, which must not change until the future completes
+     * @return      a future completed with the container
+     */
+    public CompletableFuture<byte[]> compressToContainer(final byte[] data) {
+        return CompletableFuture.supplyAsync(new Supplier<byte[]>() {
+            @Override
+            public byte[] get() {
+                return compressor.compressToContainer(data);
+            }
+        }, executor);
+    }
+
+    /**
+     * Decompresses a checksummed container, as by {@link HuffmanCompressor#decompressContainer}.
+     * @param data  the container to decompress
+     * @return      a future completed with the decompressed data
+     */
+    public CompletableFuture<byte[]> decompressContainer(final byte[] data) {
+        return CompletableFuture.supplyAsync(new Supplier<byte[]>() {
+            @Override
+            public byte[] get() {
+                return compressor.decompressContainer(data);
+            }
+        }, executor);
+    }
+}
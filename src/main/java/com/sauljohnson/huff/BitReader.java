@@ -0,0 +1,116 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a reader that peeks and consumes bits from a buffer, most significant bit first.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class BitReader {
+
+    /** The buffer to read bits from. */
+    private ByteBuffer buffer;
+
+    /** The index one past the last byte in the buffer that may be read. */
+    private int end;
+
+    /** The index of the next byte to load into the accumulator. */
+    private int next;
+
+    /** The accumulator holding bits that have been loaded but not yet consumed, in its low-order bits. */
+    private long bits;
+
+    /** The number of valid bits held in the accumulator. */
+    private int count;
+
+    /** The number of bits consumed so far. */
+    private long position;
+
+    /** The number of bits that may be consumed in total. */
+    private long limit;
+
+    /**
+     * Initialises a new instance of a bit reader.
+     * @param buffer    the buffer to read bits from, starting at its current position
+     * @param offset    the offset in bits from the buffer's current position at which to begin reading
+     * @param limit     the number of bits that may be read after the offset
+     */
+    BitReader(ByteBuffer buffer, long offset, long limit) {
+        reset(buffer, buffer.position(), offset, limit);
+    }
+
+    /**
+     * Points the reader at a new run of bits, so that it can be reused.
+     * @param buffer    the buffer to read bits from
+     * @param index     the index in the buffer from which offsets are measured
+     * @param offset    the offset in bits from the index at which to begin reading
+     * @param limit     the number of bits that may be read after the offset
+     */
+    void reset(ByteBuffer buffer, int index, long offset, long limit) {
+        this.buffer = buffer;
+        this.end = buffer.limit();
+        this.next = index + (int) (offset >>> 3);
+        this.limit = limit;
+        this.position = 0;
+        this.bits = 0;
+        this.count = 0;
+
+        // Load the first byte and discard any bits before the offset.
+        final int skip = (int) (offset & 7);
+        if (skip != 0) {
+            bits = next < end ? buffer.get(next) & 0xFF : 0;
+            count = 8 - skip;
+            next++;
+        }
+    }
+
+    /**
+     * Returns the next bits in the buffer without consuming them, padding with zeroes past the end of the buffer.
+     * @param n the number of bits to peek, at most 32
+     * @return  the next bits in the buffer as an integer
+     */
+    int peek(int n) {
+        if (count < n) {
+            refill();
+        }
+        return (int) (bits >>> (count - n)) & (int) ((1L << n) - 1);
+    }
+
+    /**
+     * Consumes bits from the buffer.
+     * @param n the number of bits to consume, at most the number last peeked
+     */
+    void skip(int n) {
+        count -= n;
+        position += n;
+    }
+
+    /**
+     * Gets the number of bits consumed so far.
+     * @return  the number of bits consumed so far
+     */
+    long getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the number of bits that may still be consumed.
+     * @return  the number of bits that may still be consumed
+     */
+    long getRemaining() {
+        return limit - position;
+    }
+
+    /**
+     * Tops up the accumulator a byte at a time until it holds at least 57 bits.
+     */
+    private void refill() {
+        while (count <= 56) {
+            bits = (bits << 8) | (next < end ? buffer.get(next) & 0xFF : 0);
+            next++;
+            count += 8;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.sauljohnson.huff;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import com.sauljohnson.backspin.BitSequence;
+
+/**
+ * Represents a writer that packs bits into a buffer through a 64-bit accumulator, most significant bit first.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class BitWriter {
+
+    /** The buffer that bits are written to. */
+    private ByteBuffer buffer;
+
+    /** Whether or not the buffer is owned by the writer and may be grown. */
+    private boolean growable;
+
+    /** Whether or not whole words written to the buffer must have their bytes reversed to come out big-endian. */
+    private boolean reversed;
+
+    /** The index of the next byte to write in the buffer. */
+    private int index;
+
+    /** The accumulator holding bits that have not yet been written to the buffer, in its low-order bits. */
+    private long bits;
+
+    /** The number of valid bits held in the accumulator. */
+    private int count;
+
+    /** The number of bits written so far. */
+    private long length;
+
+    /**
+     * Initialises a new instance of a bit writer that writes to an array of its own.
+     * @param capacity  the expected number of bytes to be written, used to size the output array
+     */
+    BitWriter(int capacity) {
+        buffer = ByteBuffer.allocate(Math.max(capacity, 4));
+        growable = true;
+        reversed = false;
+    }
+
+    /**
+     * Initialises a new instance of a bit writer that writes to an existing buffer, which must be large enough to hold
+     * everything written.
+     * @param buffer    the buffer to write to, starting at its current position
+     */
+    BitWriter(ByteBuffer buffer) {
+        reset(buffer, buffer.position());
+    }
+
+    /**
+     * Points the writer at an existing buffer, which must be large enough to hold everything written, so that the
+     * writer can be reused.
+     * @param buffer    the buffer to write to
+     * @param index     the index in the buffer at which to begin writing
+     */
+    void reset(ByteBuffer buffer, int index) {
+        this.buffer = buffer;
+        this.index = index;
+        this.growable = false;
+        this.reversed = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        this.bits = 0;
+        this.count = 0;
+        this.length = 0;
+    }
+
+    /**
+     * Writes a code to the writer.
+     * @param code      the code to write, right-aligned with no bits set above its length
+     * @param length    the length of the code in bits, at most 32
+     */
+    void write(int code, int length) {
+        bits = (bits << length) | (code & 0xFFFFFFFFL);
+        count += length;
+        this.length += length;
+
+        // Write out a whole word once we have one.
+        if (count >= 32) {
+            count -= 32;
+            if (index + 4 > buffer.limit()) {
+                grow(index + 4);
+            }
+            final int word = (int) (bits >>> count);
+            buffer.putInt(index, reversed ? Integer.reverseBytes(word) : word);
+            index += 4;
+        }
+    }
+
+    /**
+     * Writes a {@link BitSequence} of any length to the writer.
+     * @param sequence  the {@link BitSequence} to write
+     */
+    void write(BitSequence sequence) {
+        final String bitString = sequence.toBitString();
+        for (int i = 0; i < bitString.length(); i++) {
+            write(bitString.charAt(i) == '1' ? 1 : 0, 1);
+        }
+    }
+
+    /**
+     * Gets the number of bits written so far.
+     * @return  the number of bits written so far
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Pads the final byte with zeroes and writes out everything left in the accumulator. No more bits may be written
+     * afterwards.
+     * @return  the index one past the last byte written to the buffer
+     */
+    int finish() {
+        final int end = index + (count + 7) / 8;
+        if (end > buffer.limit()) {
+            grow(end);
+        }
+
+        // Write out whatever remains in the accumulator.
+        final long padded = bits << (-count & 7);
+        for (int shift = ((count + 7) / 8 - 1) * 8; shift >= 0; shift -= 8) {
+            buffer.put(index++, (byte) (padded >>> shift));
+        }
+        count = 0;
+        return index;
+    }
+
+    /**
+     * Pads the final byte with zeroes and returns the written bytes from a writer with an array of its own. No more
+     * bits may be written afterwards.
+     * @return  the written bytes
+     */
+    byte[] toArray() {
+        final int end = finish();
+        final byte[] array = buffer.array();
+        return end == array.length ? array : Arrays.copyOf(array, end);
+    }
+
+    /**
+     * Grows the buffer so that it can hold at least the specified number of bytes.
+     * @param capacity  the number of bytes the buffer must be able to hold
+     */
+    private void grow(int capacity) {
+        if (!growable) {
+            throw new BufferOverflowException();
+        }
+        buffer = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), Math.max(buffer.capacity() * 2, capacity)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and checks the lengths that frame a block in the interleaved, context, int and LZ formats, each of which
+ * begins with the original length and gives the length of its coded data in bits before the data itself.
+ *
+ * Lengths are checked before anything is allocated for them, so that corrupt or hostile data is rejected rather than
+ * exhausting memory. Every coded symbol takes at least one bit, so an original length is bounded by the number of
+ * coded bits times the most symbols a single bit can stand for.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class BlockHeader {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private BlockHeader() { }
+
+    /**
+     * Reads the original length that begins a block.
+     * @param in    the buffer to read from
+     * @return      the original length
+     */
+    static int readOriginalLength(ByteBuffer in) {
+        if (in.remaining() < 4) {
+            throw invalid();
+        }
+        final int originalLength = in.getInt();
+        if (originalLength < 0) {
+            throw invalid();
+        }
+        return originalLength;
+    }
+
+    /**
+     * Reads the length in bits of the coded data that follows it, checking that the buffer holds that many bits.
+     * @param in    the buffer to read from
+     * @return      the length of the coded data in bits
+     */
+    static int readBitLength(ByteBuffer in) {
+        if (in.remaining() < 4) {
+            throw invalid();
+        }
+        final int bitLength = in.getInt();
+        if (bitLength < 0 || in.remaining() < (bitLength + 7L) / 8) {
+            throw invalid();
+        }
+        return bitLength;
+    }
+
+    /**
+     * Checks that an original length could have been coded into the number of bits given.
+     * @param originalLength    the original length
+     * @param bitLength         the length of the coded data in bits
+     * @param maxPerBit         the most symbols of original data a single coded bit can stand for
+     */
+    static void checkOriginalLength(int originalLength, long bitLength, int maxPerBit) {
+        if (originalLength > bitLength * maxPerBit) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Creates the exception thrown for a block whose header does not hold.
+     * @return  the exception to throw
+     */
+    private static RuntimeException invalid() {
+        return new RuntimeException("Invalid block header.");
+    }
+}
@@ -0,0 +1,59 @@
+package com.sauljohnson.huff;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Represents a fork/join task that processes a range of independent blocks, splitting the range in half until each
+ * task processes a single block.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class BlockTask extends RecursiveAction {
+
+    /** The version of the serialized form, which fork/join tasks inherit whether they use it or not. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Represents the work to carry out on each block.
+     */
+    interface BlockAction {
+
+        /**
+         * Processes a single block.
+         * @param index the index of the block to process
+         */
+        void process(int index);
+    }
+
+    /** The index of the first block in the range. */
+    private final int from;
+
+    /** The index one past the last block in the range. */
+    private final int to;
+
+    /** The work to carry out on each block. */
+    private final BlockAction action;
+
+    /**
+     * Initialises a new instance of a block task.
+     * @param from      the index of the first block in the range
+     * @param to        the index one past the last block in the range
+     * @param action    the work to carry out on each block
+     */
+    BlockTask(int from, int to, BlockAction action) {
+        this.from = from;
+        this.to = to;
+        this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            action.process(from);
+        } else if (to - from > 1) {
+            final int middle = (from + to) >>> 1;
+            invokeAll(new BlockTask(from, middle, action), new BlockTask(middle, to, action));
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.sauljohnson.huff;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Represents a set of byte occurrence frequencies.
  *
@@ -7,36 +12,314 @@ package com.sauljohnson.huff;
  * @author  Saul Johnson, Alex Mullen, Lee Oliver
  */
 public class ByteFrequencySet {
-   
-    /** The array of occurrence frequencies that underlies the set. */
-    private final double[] frequencies;
-        
+
+    /** The number of distinct byte values. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** The number of separate count arrays used when counting long runs of data. */
+    private static final int LANES = 4;
+
+    /** The amount of data below which counting goes straight into the set rather than through separate lanes. */
+    private static final int LANE_THRESHOLD = 256;
+
+    /** The number of bytes of data counted by each task when counting in parallel. */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+
+    /** The default number of bytes in each window of data counted when sampling. */
+    public static final int DEFAULT_SAMPLE_WINDOW_SIZE = 4096;
+
+    /** The array of occurrence counts that underlies the set. */
+    private final long[] counts;
+
+    /** The total number of bytes counted. */
+    private long total;
+
+    /** Holds the lanes long runs of data are counted into, kept between updates once needed. */
+    private int[] lanes;
+
+    /**
+     * Initialises a new instance of an empty byte frequency set.
+     */
+    public ByteFrequencySet() {
+        counts = new long[SYMBOL_COUNT];
+    }
+
     /**
      * Initialises a new instance of a byte frequency set.
      * @param data  the data from which to initialise the frequency set
      */
     public ByteFrequencySet(byte[] data) {
-        frequencies = new double[256];
-        final double unit = 1.00d / (double) data.length;
-        for (byte b : data) {
-            frequencies[b & 0xFF] += unit;
+        this(data, 0, data.length);
+    }
+
+    /**
+     * Initialises a new instance of a byte frequency set.
+     * @param data      the array holding the data from which to initialise the frequency set
+     * @param offset    the index of the first byte of the data
+     * @param length    the number of bytes of data
+     */
+    public ByteFrequencySet(byte[] data, int offset, int length) {
+        this();
+        update(data, offset, length);
+    }
+
+    /**
+     * Creates a byte frequency set, counting chunks of the data in parallel and merging the results.
+     * @param data  the data from which to initialise the frequency set
+     * @param pool  the pool to count chunks of data on
+     * @return      a byte frequency set for the data
+     */
+    public static ByteFrequencySet fromDataParallel(final byte[] data, ForkJoinPool pool) {
+        // Count each chunk separately.
+        final int chunkCount = (data.length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        final ByteFrequencySet[] chunks = new ByteFrequencySet[chunkCount];
+        pool.invoke(new BlockTask(0, chunkCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final int offset = index * PARALLEL_CHUNK_SIZE;
+                chunks[index] = new ByteFrequencySet(data, offset, Math.min(PARALLEL_CHUNK_SIZE, data.length - offset));
+            }
+        }));
+
+        // Merge the counts together.
+        final ByteFrequencySet frequencies = new ByteFrequencySet();
+        for (ByteFrequencySet chunk : chunks) {
+            frequencies.merge(chunk);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Estimates a byte frequency set by counting windows of data spread evenly across it, the first at the start and
+     * the last at the end. Every byte is counted once more than it occurs in the windows, so that bytes missed by the
+     * sample still get a code. If the windows would cover all the data, it is counted exactly instead.
+     * @param data          the array holding the data to sample
+     * @param offset        the index of the first byte of the data
+     * @param length        the number of bytes of data
+     * @param windowSize    the number of bytes in each window
+     * @param windowCount   the number of windows to count
+     * @return              an estimated byte frequency set for the data
+     */
+    public static ByteFrequencySet fromSample(byte[] data, int offset, int length, int windowSize, int windowCount) {
+        checkSampleWindows(windowSize, windowCount);
+        if ((long) windowSize * windowCount >= length) {
+            return new ByteFrequencySet(data, offset, length);
+        }
+
+        // Windows are spaced at least their own size apart, so never overlap.
+        final ByteFrequencySet frequencies = new ByteFrequencySet();
+        frequencies.addFloor();
+        for (int i = 0; i < windowCount; i++) {
+            final long start = windowCount == 1 ? 0 : (long) (length - windowSize) * i / (windowCount - 1);
+            frequencies.update(data, offset + (int) start, windowSize);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Estimates a byte frequency set by counting windows of data at random positions, which may overlap. Every byte is
+     * counted once more than it occurs in the windows, so that bytes missed by the sample still get a code. If the
+     * windows would cover all the data, it is counted exactly instead.
+     * @param data          the array holding the data to sample
+     * @param offset        the index of the first byte of the data
+     * @param length        the number of bytes of data
+     * @param windowSize    the number of bytes in each window
+     * @param windowCount   the number of windows to count
+     * @param random        the source of window positions
+     * @return              an estimated byte frequency set for the data
+     */
+    public static ByteFrequencySet fromRandomSample(byte[] data, int offset, int length, int windowSize,
+                                                    int windowCount, Random random) {
+        checkSampleWindows(windowSize, windowCount);
+        if ((long) windowSize * windowCount >= length) {
+            return new ByteFrequencySet(data, offset, length);
+        }
+        final ByteFrequencySet frequencies = new ByteFrequencySet();
+        frequencies.addFloor();
+        for (int i = 0; i < windowCount; i++) {
+            frequencies.update(data, offset + random.nextInt(length - windowSize + 1), windowSize);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Checks that sample windows have a positive size and count.
+     * @param windowSize    the number of bytes in each window
+     * @param windowCount   the number of windows
+     */
+    private static void checkSampleWindows(int windowSize, int windowCount) {
+        if (windowSize <= 0 || windowCount <= 0) {
+            throw new RuntimeException("Sample window size and count must be positive.");
+        }
+    }
+
+    /**
+     * Counts every byte once.
+     */
+    private void addFloor() {
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            counts[i]++;
         }
+        total += SYMBOL_COUNT;
     }
-    
+
+    /**
+     * Counts more data into the set.
+     * @param data      the array holding the data to count
+     * @param offset    the index of the first byte of the data
+     * @param length    the number of bytes of data
+     */
+    public void update(byte[] data, int offset, int length) {
+        final int end = offset + length;
+        if (length < LANE_THRESHOLD) {
+            for (int i = offset; i < end; i++) {
+                counts[data[i] & 0xFF]++;
+            }
+        } else {
+            // Count consecutive bytes into separate lanes, so runs of the same byte don't wait on the previous store.
+            final int[] lanes = clearLanes();
+            int i = offset;
+            for (; i + LANES <= end; i += LANES) {
+                lanes[data[i] & 0xFF]++;
+                lanes[SYMBOL_COUNT + (data[i + 1] & 0xFF)]++;
+                lanes[2 * SYMBOL_COUNT + (data[i + 2] & 0xFF)]++;
+                lanes[3 * SYMBOL_COUNT + (data[i + 3] & 0xFF)]++;
+            }
+            for (; i < end; i++) {
+                lanes[data[i] & 0xFF]++;
+            }
+
+            // Sum lanes into the set.
+            for (int j = 0; j < SYMBOL_COUNT; j++) {
+                counts[j] += (long) lanes[j] + lanes[SYMBOL_COUNT + j] + lanes[2 * SYMBOL_COUNT + j]
+                        + lanes[3 * SYMBOL_COUNT + j];
+            }
+        }
+        total += length;
+    }
+
+    /**
+     * Counts the data remaining in a buffer into the set, without changing the buffer's position.
+     * @param data  the buffer holding the data to count between its position and limit
+     */
+    public void update(ByteBuffer data) {
+        final int[] lanes = clearLanes();
+        count(data, data.position(), data.remaining(), lanes);
+
+        // Sum lanes into the set.
+        for (int j = 0; j < SYMBOL_COUNT; j++) {
+            counts[j] += (long) lanes[j] + lanes[SYMBOL_COUNT + j] + lanes[2 * SYMBOL_COUNT + j]
+                    + lanes[3 * SYMBOL_COUNT + j];
+        }
+        total += data.remaining();
+    }
+
+    /**
+     * Gets the lanes to count a long run of data into, emptied of any previous counts.
+     * @return  the lanes, 256 entries per lane, four lanes in all
+     */
+    private int[] clearLanes() {
+        if (lanes == null) {
+            lanes = new int[LANES * SYMBOL_COUNT];
+        } else {
+            Arrays.fill(lanes, 0);
+        }
+        return lanes;
+    }
+
+    /**
+     * Counts a run of bytes held in a buffer into separate lanes, so runs of the same byte don't wait on the previous
+     * store. Each byte is counted into the lane for its position modulo the number of lanes.
+     * @param data      the buffer holding the data to count
+     * @param offset    the index in the buffer of the first byte to count
+     * @param length    the number of bytes to count
+     * @param lanes     the lanes to count into, 256 entries per lane, four lanes in all
+     */
+    static void count(ByteBuffer data, int offset, int length, int[] lanes) {
+        final int end = offset + length;
+        int i = offset;
+        for (; i + LANES <= end; i += LANES) {
+            lanes[data.get(i) & 0xFF]++;
+            lanes[SYMBOL_COUNT + (data.get(i + 1) & 0xFF)]++;
+            lanes[2 * SYMBOL_COUNT + (data.get(i + 2) & 0xFF)]++;
+            lanes[3 * SYMBOL_COUNT + (data.get(i + 3) & 0xFF)]++;
+        }
+        for (; i < end; i++) {
+            lanes[data.get(i) & 0xFF]++;
+        }
+    }
+
+    /**
+     * Adds the counts from another set into this one.
+     * @param other the set to merge into this one
+     */
+    public void merge(ByteFrequencySet other) {
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
     /**
      * Gets the size of the frequency set.
      * @return  the size of the frequency set
      */
     public int getSize() {
-        return frequencies.length;
+        return counts.length;
+    }
+
+    /**
+     * Gets the number of times the specified byte has been counted.
+     * @param index the byte for which to get the occurrence count
+     * @return      the number of times the specified byte has been counted
+     */
+    public long getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Gets the total number of bytes counted.
+     * @return  the total number of bytes counted
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of distinct bytes counted.
+     * @return  the number of bytes counted at least once
+     */
+    public int getDistinctCount() {
+        int distinct = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+        return distinct;
     }
-    
+
+    /**
+     * Gets the Shannon entropy of the counted bytes, which no prefix code can beat on average.
+     * @return  the entropy in bits per byte, from 0 to 8, or zero if nothing has been counted
+     */
+    public double getEntropy() {
+        double entropy = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                final double p = (double) count / total;
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy / Math.log(2);
+    }
+
     /**
      * Gets the occurrence frequency of the specified byte.
      * @param index the byte for which to get the occurrence frequency
      * @return      the occurrence frequency of the specified byte
      */
     public double getUnsignedByteFrequency(int index) {
-        return frequencies[index];
+        return total == 0 ? 0 : (double) counts[index] / (double) total;
     }
 }
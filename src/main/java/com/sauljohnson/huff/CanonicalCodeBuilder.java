@@ -0,0 +1,161 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+
+/**
+ * Builds canonical Huffman codes for an alphabet of symbols numbered from zero, bytes by default, using primitive
+ * scratch arrays that are kept between builds, so that building codes over and over allocates nothing.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class CanonicalCodeBuilder {
+
+    /** The number of byte symbols codes are built for by default. */
+    private static final int BYTE_SYMBOL_COUNT = 256;
+
+    /** The longest code that can be built, so that every code fits in an integer. */
+    static final int MAX_CODE_LENGTH = PrefixCodeTable.MAX_PACKED_CODE_LENGTH;
+
+    /** The number of symbols codes are built for. */
+    private final int symbolCount;
+
+    /** The number of bits a symbol is packed into below its count while sorting. */
+    private final int symbolBits;
+
+    /** Holds the symbols to build codes for, each packed below its count, sorted by count and then symbol. */
+    private final long[] keys;
+
+    /** Holds the weight of each tree node, leaves first in sorted order and then internal nodes in creation order. */
+    private final long[] weights;
+
+    /** Holds the index of the parent of each tree node, then the depth of each tree node once the tree is built. */
+    private final int[] parents;
+
+    /** Holds the number of codes of each length while assigning codes. */
+    private final int[] lengthCounts = new int[MAX_CODE_LENGTH + 1];
+
+    /** Holds the next code to assign for each length while assigning codes. */
+    private final long[] nextCodes = new long[MAX_CODE_LENGTH + 1];
+
+    /**
+     * Initialises a new instance of a builder of canonical codes for byte symbols.
+     */
+    CanonicalCodeBuilder() {
+        this(BYTE_SYMBOL_COUNT);
+    }
+
+    /**
+     * Initialises a new instance of a builder of canonical codes for the specified number of symbols.
+     * @param symbolCount   the number of symbols codes are built for, at least two
+     */
+    CanonicalCodeBuilder(int symbolCount) {
+        if (symbolCount < 2) {
+            throw new RuntimeException("Codes must be built for at least two symbols.");
+        }
+        this.symbolCount = symbolCount;
+        symbolBits = 32 - Integer.numberOfLeadingZeros(symbolCount - 1);
+        keys = new long[symbolCount];
+        weights = new long[2 * symbolCount - 1];
+        parents = new int[2 * symbolCount - 1];
+    }
+
+    /**
+     * Computes the optimal code length of each symbol such that no code is longer than the specified maximum.
+     *
+     * Symbols that do not occur get no code, except that the lowest such symbols are given codes when needed to make
+     * up at least two. Lengths are found with a Huffman tree built by the two-queue method, falling back to the
+     * package-merge algorithm, which allocates, only when that tree turns out too deep.
+     *
+     * @param counts        the occurrence count of each symbol, indexed by symbol
+     * @param maxLength     the maximum code length in bits, at most {@link #MAX_CODE_LENGTH}
+     * @param codeLengths   the array to write the code length of each symbol into, indexed by symbol
+     */
+    void computeCodeLengths(long[] counts, int maxLength, int[] codeLengths) {
+        // Gather symbols that occur, padding with unused symbols so there are at least two.
+        int count = 0;
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            codeLengths[symbol] = 0;
+            if (counts[symbol] > 0) {
+                keys[count++] = (counts[symbol] << symbolBits) | symbol;
+            }
+        }
+        for (int symbol = 0; count < 2; symbol++) {
+            if (counts[symbol] == 0) {
+                keys[count++] = symbol;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        // Build the tree, always joining the two lightest nodes. Joined nodes come out in order of weight, so the
+        // leaves and the joined nodes each form a queue. Leaves win ties.
+        for (int i = 0; i < count; i++) {
+            weights[i] = keys[i] >>> symbolBits;
+        }
+        int leaf = 0;
+        int node = count;
+        for (int next = count; next < 2 * count - 1; next++) {
+            final int first = leaf < count && (node == next || weights[leaf] <= weights[node]) ? leaf++ : node++;
+            final int second = leaf < count && (node == next || weights[leaf] <= weights[node]) ? leaf++ : node++;
+            weights[next] = weights[first] + weights[second];
+            parents[first] = next;
+            parents[second] = next;
+        }
+
+        // Walk down from the root, which is the last node, replacing parents with depths.
+        final int root = 2 * count - 2;
+        parents[root] = 0;
+        int deepest = 0;
+        for (int i = root - 1; i >= 0; i--) {
+            parents[i] = parents[parents[i]] + 1;
+            if (i < count) {
+                codeLengths[(int) (keys[i] & ((1L << symbolBits) - 1))] = parents[i];
+                deepest = Math.max(deepest, parents[i]);
+            }
+        }
+
+        // Fall back to the slower length-limited algorithm if the tree is too deep.
+        if (deepest > maxLength) {
+            final double[] doubleWeights = new double[symbolCount];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                doubleWeights[symbol] = counts[symbol];
+            }
+            System.arraycopy(PackageMerge.computeCodeLengths(doubleWeights, maxLength), 0, codeLengths, 0,
+                    symbolCount);
+        }
+    }
+
+    /**
+     * Assigns canonical codes to symbols, in order of code length and then symbol, as
+     * {@link PrefixCodeTable#fromCodeLengths(int[])} does.
+     * @param codeLengths   the code length of each symbol, indexed by symbol, zero for symbols without a code
+     * @param codeWords     the array to write the right-aligned code of each symbol into, indexed by symbol
+     */
+    void assignCodes(int[] codeLengths, int[] codeWords) {
+        // Count codes of each length.
+        Arrays.fill(lengthCounts, 0);
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (codeLengths[symbol] < 0 || codeLengths[symbol] > MAX_CODE_LENGTH) {
+                throw new RuntimeException("Code lengths must be between 0 and 32 bits.");
+            }
+            lengthCounts[codeLengths[symbol]]++;
+        }
+        lengthCounts[0] = 0;
+
+        // Find the first code of each length, appending a zero to the code after the last one of the length before.
+        long code = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            code = (code + lengthCounts[length - 1]) << 1;
+            if (code + lengthCounts[length] > 1L << length) {
+                throw new RuntimeException("Code lengths do not describe a valid prefix code.");
+            }
+            nextCodes[length] = code;
+        }
+
+        // Hand out consecutive codes to symbols of each length.
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            final int length = codeLengths[symbol];
+            codeWords[symbol] = length == 0 ? 0 : (int) nextCodes[length]++;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sauljohnson.huff;
+
+/**
+ * Represents an index of checkpoints into Huffman coded data, which lets decoding start part way through rather than
+ * from the first bit.
+ *
+ * A checkpoint is recorded every fixed number of bytes of original data, starting with the first byte. Each holds the
+ * offset in bits of the code for the byte at its offset in the original data, so decoding a range of bytes need only
+ * start from the nearest checkpoint before it.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class CheckpointIndex {
+
+    /** The number of bytes of original data between checkpoints. */
+    private final int interval;
+
+    /** Holds the offset in bits of the code at each checkpoint. */
+    private final int[] bitOffsets;
+
+    /**
+     * Initialises a new instance of a checkpoint index.
+     * @param interval      the number of bytes of original data between checkpoints
+     * @param bitOffsets    the offset in bits of the code at each checkpoint
+     */
+    CheckpointIndex(int interval, int[] bitOffsets) {
+        this.interval = interval;
+        this.bitOffsets = bitOffsets;
+    }
+
+    /**
+     * Gets the number of bytes of original data between checkpoints.
+     * @return  the number of bytes of original data between checkpoints
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the number of checkpoints.
+     * @return  the number of checkpoints
+     */
+    public int getCount() {
+        return bitOffsets.length;
+    }
+
+    /**
+     * Gets the offset in bits of the code at a checkpoint.
+     * @param index the index of the checkpoint
+     * @return      the offset in bits into the compressed data
+     */
+    public int getBitOffset(int index) {
+        return bitOffsets[index];
+    }
+
+    /**
+     * Gets the offset in bytes of the original data at a checkpoint.
+     * @param index the index of the checkpoint
+     * @return      the offset in bytes into the original data
+     */
+    public int getOutputOffset(int index) {
+        if (index < 0 || index >= bitOffsets.length) {
+            throw new IndexOutOfBoundsException("No checkpoint at index " + index + ".");
+        }
+        return index * interval;
+    }
+
+    /**
+     * Finds the last checkpoint at or before an offset in the original data.
+     * @param outputOffset  the offset in bytes into the original data
+     * @return              the index of the checkpoint
+     */
+    int find(int outputOffset) {
+        return Math.min(outputOffset / interval, bitOffsets.length - 1);
+    }
+}
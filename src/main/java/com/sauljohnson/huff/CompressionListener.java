@@ -0,0 +1,26 @@
+package com.sauljohnson.huff;
+
+/**
+ * Represents a hook that receives metrics from a {@link HuffmanCompressor} for every block it compresses or
+ * decompresses.
+ *
+ * Blocks compressed in parallel report from the threads that compress them, so listeners must be thread-safe. They
+ * are called inline, and should return quickly.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public interface CompressionListener {
+
+    /**
+     * Called once a block has been compressed.
+     * @param metrics   the metrics of the compressed block
+     */
+    void compressed(CompressionMetrics metrics);
+
+    /**
+     * Called once a block has been decompressed.
+     * @param metrics   the metrics of the decompressed block
+     */
+    void decompressed(CompressionMetrics metrics);
+}
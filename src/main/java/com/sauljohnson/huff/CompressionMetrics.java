@@ -0,0 +1,175 @@
+package com.sauljohnson.huff;
+
+/**
+ * Represents the metrics of a {@link HuffmanCompressor} compressing or decompressing a single block, broken down by
+ * stage.
+ *
+ * Stages that did not run, such as building a table for a block that was stored, take zero nanoseconds.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class CompressionMetrics {
+
+    /** The way in which the block was compressed. */
+    CompressionMode mode = CompressionMode.HUFFMAN;
+
+    /** The time spent counting byte frequencies in nanoseconds. */
+    long histogramNanos;
+
+    /** The time spent building the frequency tree in nanoseconds. */
+    long treeNanos;
+
+    /** The time spent building the prefix code table from the tree in nanoseconds. */
+    long tableNanos;
+
+    /** The time spent encoding the data in nanoseconds. */
+    long encodeNanos;
+
+    /** The time spent decoding the data in nanoseconds. */
+    long decodeNanos;
+
+    /** The number of bytes read. */
+    long bytesIn;
+
+    /** The number of bytes written. */
+    long bytesOut;
+
+    /** The entropy of the data in bits per byte, or NaN if not known. */
+    double entropy = Double.NaN;
+
+    /** The average length of the code for each byte in bits. */
+    double averageCodeLength;
+
+    /** The length of the longest code in bits. */
+    int maxCodeDepth;
+
+    /**
+     * Initialises a new instance of a set of compression metrics with every stage taking zero time.
+     */
+    CompressionMetrics() { }
+
+    /**
+     * Records the mode, lengths and code statistics of a block.
+     * @param result    the result of compressing the block
+     */
+    void setResult(HuffmanCompressionResult result) {
+        setResult(result.getMode(), result.getTable(), result.getLength(), result.getOriginalLength());
+    }
+
+    /**
+     * Records the mode, lengths and code statistics of a block.
+     * @param mode              the way in which the block was compressed
+     * @param table             the prefix code table the block was coded with, or null if there is none
+     * @param length            the length of the compressed block in bits
+     * @param originalLength    the length of the block before compression in bytes
+     */
+    void setResult(CompressionMode mode, PrefixCodeTable table, long length, int originalLength) {
+        this.mode = mode;
+        averageCodeLength = originalLength <= 0 ? 0 : (double) length / originalLength;
+        maxCodeDepth = 0;
+        if (table != null) {
+            for (int codeLength : table.getCodeLengths()) {
+                maxCodeDepth = Math.max(maxCodeDepth, codeLength);
+            }
+        }
+    }
+
+    /**
+     * Gets the way in which the block was compressed.
+     * @return  the way in which the block was compressed
+     */
+    public CompressionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the time spent counting byte frequencies.
+     * @return  the time spent counting byte frequencies in nanoseconds
+     */
+    public long getHistogramNanos() {
+        return histogramNanos;
+    }
+
+    /**
+     * Gets the time spent building the frequency tree.
+     * @return  the time spent building the frequency tree in nanoseconds
+     */
+    public long getTreeNanos() {
+        return treeNanos;
+    }
+
+    /**
+     * Gets the time spent building the prefix code table from the tree.
+     * @return  the time spent building the prefix code table in nanoseconds
+     */
+    public long getTableNanos() {
+        return tableNanos;
+    }
+
+    /**
+     * Gets the time spent encoding the data.
+     * @return  the time spent encoding the data in nanoseconds
+     */
+    public long getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    /**
+     * Gets the time spent decoding the data.
+     * @return  the time spent decoding the data in nanoseconds
+     */
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    /**
+     * Gets the total time spent across every stage.
+     * @return  the total time spent in nanoseconds
+     */
+    public long getTotalNanos() {
+        return histogramNanos + treeNanos + tableNanos + encodeNanos + decodeNanos;
+    }
+
+    /**
+     * Gets the number of bytes read, which is the original data when compressing and the compressed data when
+     * decompressing.
+     * @return  the number of bytes read
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * Gets the number of bytes written, which is the compressed data when compressing and the original data when
+     * decompressing. Compressed data is counted without its header.
+     * @return  the number of bytes written
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * Gets the entropy of the data, which is only known when compressing.
+     * @return  the entropy of the data in bits per byte, or NaN if not known
+     */
+    public double getEntropy() {
+        return entropy;
+    }
+
+    /**
+     * Gets the average length of the code for each byte.
+     * @return  the average length of the code for each byte in bits
+     */
+    public double getAverageCodeLength() {
+        return averageCodeLength;
+    }
+
+    /**
+     * Gets the length of the longest code in the prefix code table, which is the depth of the frequency tree.
+     * @return  the length of the longest code in bits, or zero if the block has no table
+     */
+    public int getMaxCodeDepth() {
+        return maxCodeDepth;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sauljohnson.huff;
+
+/**
+ * Represents the ways in which a block of data can be compressed.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public enum CompressionMode {
+
+    /** The data is Huffman coded with a prefix code table of its own. */
+    HUFFMAN,
+
+    /** The data is stored as it is, because Huffman coding would not make it any smaller. */
+    STORED,
+
+    /** The data is a single byte repeated, so only the byte and the length are stored. */
+    SINGLE_SYMBOL
+}
@@ -0,0 +1,106 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Codes byte arrays with order-1 context-modelled Huffman coding, in which each byte is coded with a prefix code
+ * table chosen by the byte before it.
+ *
+ * The output begins with the original length, followed by the context model as written by {@link ContextModel}, the
+ * length of the coded data in bits and then the coded data.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class ContextCodec {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private ContextCodec() { }
+
+    /**
+     * Encodes a byte array with a context model built for it.
+     * @param data      the data to encode
+     * @param maxTables the largest number of prefix code tables to build
+     * @param maxLength the maximum code length in bits
+     * @return          the encoded data, complete with context model
+     */
+    static byte[] encode(byte[] data, int maxTables, int maxLength) {
+        // Build the model, then pick out the codes for each context so they can be looked up directly.
+        final ContextModel model = ContextModel.build(data, maxTables, maxLength);
+        final int[][] codeWords = new int[256][];
+        final int[][] codeLengths = new int[256][];
+        long bitLength = 0;
+        for (int context = 0; context < 256; context++) {
+            codeWords[context] = model.getTable(context).getCodeWords();
+            codeLengths[context] = model.getTable(context).getCodeLengths();
+        }
+        int previous = 0;
+        for (byte b : data) {
+            bitLength += codeLengths[previous][b & 0xFF];
+            previous = b & 0xFF;
+        }
+        if (bitLength > Integer.MAX_VALUE) {
+            throw new RuntimeException("Data is too large for the compressed length to be stored.");
+        }
+
+        // Code each byte with the table for the byte before it.
+        final BitWriter writer = new BitWriter((int) ((bitLength + 7) / 8));
+        previous = 0;
+        for (byte b : data) {
+            final int symbol = b & 0xFF;
+            writer.write(codeWords[previous][symbol], codeLengths[previous][symbol]);
+            previous = symbol;
+        }
+
+        // Write header and model, then the coded data.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        try {
+            dataOut.writeInt(data.length);
+            model.writeTo(dataOut);
+            dataOut.writeInt((int) bitLength);
+            dataOut.write(writer.toArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a byte array encoded by {@link #encode(byte[], int, int)}.
+     * @param data  the data to decode
+     * @return      the decoded data
+     */
+    static byte[] decode(byte[] data) {
+        // Read header and model.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        final int originalLength = BlockHeader.readOriginalLength(in);
+        final ContextModel model = ContextModel.readFrom(in);
+        final int bitLength = BlockHeader.readBitLength(in);
+        BlockHeader.checkOriginalLength(originalLength, bitLength, 1);
+        final DecodingTable[] tables = new DecodingTable[256];
+        for (int context = 0; context < 256; context++) {
+            tables[context] = model.getTable(context).getDecodingTable();
+        }
+
+        // Decode each byte with the table for the byte before it.
+        final BitReader reader = new BitReader(in, 0, bitLength);
+        final byte[] out = new byte[originalLength];
+        int previous = 0;
+        for (int i = 0; i < originalLength; i++) {
+            final int symbol = tables[previous].decodeSymbol(reader);
+            if (symbol < 0) {
+                throw new RuntimeException("Compressed data ended before the original length was reached.");
+            }
+            out[i] = (byte) symbol;
+            previous = symbol;
+        }
+        return out;
+    }
+}
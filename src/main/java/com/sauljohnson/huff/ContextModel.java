@@ -0,0 +1,195 @@
+package com.sauljohnson.huff;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Represents an order-1 context model, which codes each byte with a prefix code table chosen by the byte before it.
+ *
+ * Giving every one of the 256 contexts its own table would cost more in tables than it saves on small or uniform
+ * data, so contexts are grouped into clusters that share a table. Each context is scored by how many bits a table of
+ * its own would save over coding it with the order-0 distribution, less an estimate of the cost of storing the table.
+ * The best-scoring contexts get tables of their own, up to a limit, and every other context shares a single table
+ * built from their combined counts.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class ContextModel {
+
+    /** The number of byte symbols, which is also the number of contexts. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** Holds the cluster of each context, indexed by the preceding byte. */
+    private final int[] clusters;
+
+    /** Holds the prefix code table of each cluster. */
+    private final PrefixCodeTable[] tables;
+
+    /**
+     * Initialises a new instance of an order-1 context model.
+     * @param clusters  the cluster of each context, indexed by the preceding byte
+     * @param tables    the prefix code table of each cluster
+     */
+    private ContextModel(int[] clusters, PrefixCodeTable[] tables) {
+        this.clusters = clusters;
+        this.tables = tables;
+    }
+
+    /**
+     * Builds a context model for data, counting each byte under the byte before it. The first byte is counted under
+     * a zero byte.
+     * @param data          the data to build the model for
+     * @param maxTables     the largest number of prefix code tables to build, from 1 to 256
+     * @param maxLength     the maximum length of any prefix code in bits, at most 32
+     * @return              the context model
+     */
+    static ContextModel build(byte[] data, int maxTables, int maxLength) {
+        // Count each byte under its context, and overall.
+        final int[] counts = new int[SYMBOL_COUNT * SYMBOL_COUNT];
+        int previous = 0;
+        for (byte b : data) {
+            final int symbol = b & 0xFF;
+            counts[previous << 8 | symbol]++;
+            previous = symbol;
+        }
+        final long[] totals = new long[SYMBOL_COUNT];
+        final long[] overall = new long[SYMBOL_COUNT];
+        for (int context = 0; context < SYMBOL_COUNT; context++) {
+            for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+                totals[context] += counts[context << 8 | symbol];
+                overall[symbol] += counts[context << 8 | symbol];
+            }
+        }
+
+        // Score each context by the bits a table of its own would save, and give the best their own clusters. Every
+        // other context stays in cluster zero, which they share.
+        final double[] gains = new double[SYMBOL_COUNT];
+        final Integer[] order = new Integer[SYMBOL_COUNT];
+        for (int context = 0; context < SYMBOL_COUNT; context++) {
+            gains[context] = getGain(counts, context, totals[context], overall, data.length);
+            order[context] = context;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(gains[b], gains[a]);
+            }
+        });
+        final int[] clusters = new int[SYMBOL_COUNT];
+        int tableCount = 1;
+        for (int i = 0; i < SYMBOL_COUNT && tableCount < maxTables && gains[order[i]] > 0; i++) {
+            clusters[order[i]] = tableCount++;
+        }
+
+        // Build a table for each cluster from the combined counts of its contexts.
+        final long[][] clusterCounts = new long[tableCount][SYMBOL_COUNT];
+        for (int context = 0; context < SYMBOL_COUNT; context++) {
+            for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+                clusterCounts[clusters[context]][symbol] += counts[context << 8 | symbol];
+            }
+        }
+        final CanonicalCodeBuilder builder = new CanonicalCodeBuilder();
+        final PrefixCodeTable[] tables = new PrefixCodeTable[tableCount];
+        for (int cluster = 0; cluster < tableCount; cluster++) {
+            final int[] codeLengths = new int[SYMBOL_COUNT];
+            builder.computeCodeLengths(clusterCounts[cluster], maxLength, codeLengths);
+            tables[cluster] = PrefixCodeTable.fromCodeLengths(codeLengths);
+        }
+        return new ContextModel(clusters, tables);
+    }
+
+    /**
+     * Estimates the number of bits saved by coding a context with a table of its own rather than with the order-0
+     * distribution, less the cost of storing the table.
+     * @param counts    the count of each byte under each context, indexed by context then byte
+     * @param context   the context to score
+     * @param total     the number of bytes counted under the context
+     * @param overall   the count of each byte across all contexts
+     * @param length    the number of bytes counted across all contexts
+     * @return          the estimated number of bits saved, which is negative if a table of its own would cost more
+     */
+    private static double getGain(int[] counts, int context, long total, long[] overall, long length) {
+        if (total == 0) {
+            return 0;
+        }
+        double saving = 0;
+        int distinct = 0;
+        for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+            final int count = counts[context << 8 | symbol];
+            if (count > 0) {
+                // The saving is the difference between coding with the order-0 and the context's own probability.
+                saving += count * (Math.log((double) length / overall[symbol])
+                        - Math.log((double) total / count)) / Math.log(2);
+                distinct++;
+            }
+        }
+
+        // A stored table is a flags byte, a bitmap of which bytes have codes and a nibble per code length.
+        return saving - 8 * (1 + SYMBOL_COUNT / 8 + (distinct + 1) / 2);
+    }
+
+    /**
+     * Gets the number of prefix code tables in the model.
+     * @return  the number of prefix code tables
+     */
+    int getTableCount() {
+        return tables.length;
+    }
+
+    /**
+     * Gets the prefix code table used to code bytes following a context.
+     * @param context   the byte preceding the bytes to code
+     * @return          the prefix code table for the context
+     */
+    PrefixCodeTable getTable(int context) {
+        return tables[clusters[context]];
+    }
+
+    /**
+     * Writes the model to a stream as the number of tables less one, then the cluster of each context if there is
+     * more than one table, then each table as written by {@link PrefixCodeTable#writeTo}.
+     * @param out           the stream to write to
+     * @throws IOException  if an I/O error occurs
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(tables.length - 1);
+        if (tables.length > 1) {
+            for (int cluster : clusters) {
+                out.writeByte(cluster);
+            }
+        }
+        for (PrefixCodeTable table : tables) {
+            table.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a model from a buffer, as written by {@link #writeTo(DataOutputStream)}, advancing the position of the
+     * buffer past it.
+     * @param in    the buffer to read from
+     * @return      the model read from the buffer
+     */
+    static ContextModel readFrom(ByteBuffer in) {
+        final int tableCount = (in.get() & 0xFF) + 1;
+        final int[] clusters = new int[SYMBOL_COUNT];
+        if (tableCount > 1) {
+            for (int context = 0; context < SYMBOL_COUNT; context++) {
+                clusters[context] = in.get() & 0xFF;
+                if (clusters[context] >= tableCount) {
+                    throw new RuntimeException("Invalid context map.");
+                }
+            }
+        }
+        final PrefixCodeTable[] tables = new PrefixCodeTable[tableCount];
+        for (int cluster = 0; cluster < tableCount; cluster++) {
+            final int[] codeLengths = new int[SYMBOL_COUNT];
+            in.position(in.position() + PrefixCodeTable.readCodeLengths(in, in.position(), codeLengths));
+            tables[cluster] = PrefixCodeTable.fromCodeLengths(codeLengths);
+        }
+        return new ContextModel(clusters, tables);
+    }
+}
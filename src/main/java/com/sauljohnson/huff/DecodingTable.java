@@ -0,0 +1,277 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.sauljohnson.backspin.BitSequence;
+
+/**
+ * Represents a multi-level lookup table that resolves prefix codes to symbols several bits at a time.
+ *
+ * The root table is indexed by the next {@link #ROOT_BITS} bits of input. Codes no longer than that resolve with a
+ * single lookup; longer codes are resolved through chained subtables of {@link #SUBTABLE_BITS} bits each.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class DecodingTable {
+
+    /** The number of bits used to index the root table. */
+    static final int ROOT_BITS = 11;
+
+    /** The number of bits used to index each subtable. */
+    static final int SUBTABLE_BITS = 8;
+
+    /**
+     * Holds the root table followed by all subtables. A positive entry holds a symbol in its upper bits and the
+     * number of bits to consume in its lowest byte, a negative entry holds the negated offset of a subtable and zero
+     * marks a bit pattern that does not begin any code.
+     */
+    private int[] entries;
+
+    /** The number of entries in use. */
+    private int size;
+
+    /** Holds the bits of each code as '0' and '1' characters while rebuilding from code words. */
+    private final char[] scratch = new char[CanonicalCodeBuilder.MAX_CODE_LENGTH];
+
+    /**
+     * Initialises a new instance of an empty decoding table, for use with {@link #rebuild(int[], int[])}.
+     */
+    DecodingTable() {
+        entries = new int[1 << ROOT_BITS];
+        size = entries.length;
+    }
+
+    /**
+     * Initialises a new instance of a decoding table.
+     * @param table the prefix code table to build the decoding table from
+     */
+    DecodingTable(PrefixCodeTable table) {
+        this();
+
+        // Insert every code into the table.
+        final int[] symbols = table.getSymbols();
+        final BitSequence[] codes = table.getCodes();
+        for (int i = 0; i < symbols.length; i++) {
+            final String bits = codes[i].toBitString();
+            if (bits.length() > 0) {
+                insert(symbols[i], bits.toCharArray(), bits.length());
+            }
+        }
+    }
+
+    /**
+     * Clears the table and rebuilds it from byte symbol codes held as integers, reusing the space already allocated.
+     * @param codeLengths   the code length of each byte symbol, indexed by symbol, zero for symbols without a code
+     * @param codeWords     the right-aligned code of each byte symbol, indexed by symbol
+     */
+    void rebuild(int[] codeLengths, int[] codeWords) {
+        Arrays.fill(entries, 0, size, 0);
+        size = 1 << ROOT_BITS;
+        for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+            final int length = codeLengths[symbol];
+            for (int i = 0; i < length; i++) {
+                scratch[i] = ((codeWords[symbol] >>> (length - 1 - i)) & 1) == 0 ? '0' : '1';
+            }
+            if (length > 0) {
+                insert(symbol, scratch, length);
+            }
+        }
+    }
+
+    /**
+     * Inserts a prefix code into the table.
+     * @param symbol    the symbol the code translates to
+     * @param bits      the bits of the code as '0' and '1' characters
+     * @param length    the length of the code in bits
+     */
+    private void insert(int symbol, char[] bits, int length) {
+        int base = 0;
+        int width = ROOT_BITS;
+        int position = 0;
+        while (length - position > width) {
+            // Follow or create the subtable for the next chunk of the code.
+            final int index = base + chunk(bits, position, width);
+            if (entries[index] > 0) {
+                throw new RuntimeException("Prefix codes must not be prefixes of one another.");
+            }
+            if (entries[index] == 0) {
+                final int offset = allocate(1 << SUBTABLE_BITS);
+                entries[index] = -offset;
+            }
+            base = -entries[index];
+            position += width;
+            width = SUBTABLE_BITS;
+        }
+
+        // Fill every entry whose index begins with the rest of the code.
+        final int remaining = length - position;
+        final int first = base + (chunk(bits, position, remaining) << (width - remaining));
+        final int last = first + (1 << (width - remaining));
+        for (int i = first; i < last; i++) {
+            if (entries[i] != 0) {
+                throw new RuntimeException("Prefix codes must not be prefixes of one another.");
+            }
+            entries[i] = (symbol << 8) | remaining;
+        }
+    }
+
+    /**
+     * Reserves space for a new subtable at the end of the table.
+     * @param length    the number of entries in the subtable
+     * @return          the offset of the new subtable
+     */
+    private int allocate(int length) {
+        if (size + length > entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, size + length));
+        }
+        final int offset = size;
+        size += length;
+        return offset;
+    }
+
+    /**
+     * Reads a run of bits from a code as an integer.
+     * @param bits      the bits of the code as '0' and '1' characters
+     * @param position  the index of the first bit to read
+     * @param length    the number of bits to read
+     * @return          the bits read as an integer
+     */
+    private static int chunk(char[] bits, int position, int length) {
+        int value = 0;
+        for (int i = position; i < position + length; i++) {
+            value = (value << 1) | (bits[i] == '1' ? 1 : 0);
+        }
+        return value;
+    }
+
+    /**
+     * Decodes symbols into a byte array until it is full or the reader runs out of complete codes.
+     * @param in        the reader to decode from
+     * @param out       the array to decode into
+     * @param offset    the index in the array at which to begin writing
+     * @param count     the maximum number of symbols to decode
+     * @return          the number of symbols decoded
+     */
+    int decode(BitReader in, byte[] out, int offset, int count) {
+        final int[] entries = this.entries;
+        int written = 0;
+        while (written < count) {
+            final int symbol = decodeSymbol(in, entries);
+            if (symbol < 0) {
+                break;
+            }
+            out[offset + written++] = (byte) symbol;
+        }
+        return written;
+    }
+
+    /**
+     * Decodes symbols into a buffer until the count is reached or the reader runs out of complete codes.
+     * @param in        the reader to decode from
+     * @param out       the buffer to decode into
+     * @param offset    the index in the buffer at which to begin writing
+     * @param count     the maximum number of symbols to decode
+     * @return          the number of symbols decoded
+     */
+    int decode(BitReader in, ByteBuffer out, int offset, int count) {
+        final int[] entries = this.entries;
+        int written = 0;
+        while (written < count) {
+            final int symbol = decodeSymbol(in, entries);
+            if (symbol < 0) {
+                break;
+            }
+            out.put(offset + written++, (byte) symbol);
+        }
+        return written;
+    }
+
+    /**
+     * Fills an array by decoding equal segments of it from separate readers, one symbol from each reader in turn. The
+     * readers hold no state in common, so their work can overlap.
+     * @param in            the readers to decode from, one per segment
+     * @param out           the array to decode into, which is filled entirely
+     * @param segmentLength the number of symbols in each segment, except that the last may be shorter
+     */
+    void decodeInterleaved(BitReader[] in, byte[] out, int segmentLength) {
+        final int[] entries = this.entries;
+        final int streams = in.length;
+
+        // Decode from every reader until the shortest segment is done.
+        final int common = Math.max(0, Math.min(segmentLength, out.length - (streams - 1) * segmentLength));
+        if (streams == 4) {
+            final BitReader in0 = in[0];
+            final BitReader in1 = in[1];
+            final BitReader in2 = in[2];
+            final BitReader in3 = in[3];
+            final int offset1 = segmentLength;
+            final int offset2 = 2 * segmentLength;
+            final int offset3 = 3 * segmentLength;
+            for (int i = 0; i < common; i++) {
+                final int symbol0 = decodeSymbol(in0, entries);
+                final int symbol1 = decodeSymbol(in1, entries);
+                final int symbol2 = decodeSymbol(in2, entries);
+                final int symbol3 = decodeSymbol(in3, entries);
+                if ((symbol0 | symbol1 | symbol2 | symbol3) < 0) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                out[i] = (byte) symbol0;
+                out[offset1 + i] = (byte) symbol1;
+                out[offset2 + i] = (byte) symbol2;
+                out[offset3 + i] = (byte) symbol3;
+            }
+        }
+
+        // Finish off each segment on its own.
+        for (int stream = 0; stream < streams; stream++) {
+            final int start = streams == 4 ? common : 0;
+            final int offset = stream * segmentLength;
+            final int end = Math.min(segmentLength, out.length - offset);
+            for (int i = start; i < end; i++) {
+                final int symbol = decodeSymbol(in[stream], entries);
+                if (symbol < 0) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                out[offset + i] = (byte) symbol;
+            }
+        }
+    }
+
+    /**
+     * Decodes a single symbol.
+     * @param in    the reader to decode from
+     * @return      the symbol decoded, or -1 if the reader holds no further complete code
+     */
+    int decodeSymbol(BitReader in) {
+        return decodeSymbol(in, entries);
+    }
+
+    /**
+     * Decodes a single symbol.
+     * @param in        the reader to decode from
+     * @param entries   the table entries
+     * @return          the symbol decoded, or -1 if the reader holds no further complete code
+     */
+    private static int decodeSymbol(BitReader in, int[] entries) {
+        // Follow subtables until we reach a symbol.
+        int entry = entries[in.peek(ROOT_BITS)];
+        if (entry < 0) {
+            in.skip(ROOT_BITS);
+            entry = entries[-entry + in.peek(SUBTABLE_BITS)];
+            while (entry < 0) {
+                in.skip(SUBTABLE_BITS);
+                entry = entries[-entry + in.peek(SUBTABLE_BITS)];
+            }
+        }
+
+        // Stop on invalid input or a code running past the end of the data.
+        final int length = entry & 0xFF;
+        if (entry == 0 || in.getRemaining() < length) {
+            return -1;
+        }
+        in.skip(length);
+        return entry >>> 8;
+    }
+}
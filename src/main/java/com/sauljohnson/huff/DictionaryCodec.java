@@ -0,0 +1,86 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codes byte arrays with a prefix code table shared ahead of time in a {@link PrefixCodeDictionary}, so that no table
+ * needs to be built or stored.
+ *
+ * The output begins with the dictionary ID, followed by the original length as a variable-length integer of seven
+ * bits per byte, followed by the coded data.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class DictionaryCodec {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private DictionaryCodec() { }
+
+    /**
+     * Encodes a byte array with the table held in a dictionary.
+     * @param data          the data to encode
+     * @param dictionary    the dictionary holding the table to encode with
+     * @return              the encoded data, complete with dictionary ID
+     */
+    static byte[] encode(byte[] data, PrefixCodeDictionary dictionary) {
+        // Write the header.
+        final PrefixCodeTable table = dictionary.getTable();
+        final BitWriter out = new BitWriter(data.length + 9);
+        out.write(dictionary.getId(), 32);
+        int length = data.length;
+        while (length >= 0x80) {
+            out.write(0x80 | (length & 0x7F), 8);
+            length >>>= 7;
+        }
+        out.write(length, 8);
+
+        // Encode the data straight after it.
+        table.encode(data, 0, data.length, out);
+        return out.toArray();
+    }
+
+    /**
+     * Decodes a byte array encoded by {@link #encode(byte[], PrefixCodeDictionary)}.
+     * @param data          the data to decode
+     * @param dictionary    the dictionary holding the table the data was encoded with
+     * @return              the decoded data
+     */
+    static byte[] decode(byte[] data, PrefixCodeDictionary dictionary) {
+        // Read the header, checking that the data was encoded with this dictionary.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.remaining() < 5) {
+            throw new RuntimeException("Invalid dictionary compressed data.");
+        }
+        if (in.getInt() != dictionary.getId()) {
+            throw new RuntimeException("Compressed data was not compressed with this dictionary.");
+        }
+        int originalLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new RuntimeException("Invalid original length.");
+            }
+            final int next = in.get();
+            if (shift > 28 || (shift == 28 && (next & 0x78) != 0)) {
+                throw new RuntimeException("Invalid original length.");
+            }
+            originalLength |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                break;
+            }
+        }
+
+        // The coded data runs to the end, so reject a length it could not hold before allocating for it.
+        BlockHeader.checkOriginalLength(originalLength, (long) in.remaining() * 8, 1);
+
+        // Decode exactly as many bytes as there were to begin with.
+        final byte[] out = new byte[originalLength];
+        final BitReader reader = new BitReader(in, 0, (long) in.remaining() * 8);
+        if (dictionary.getTable().getDecodingTable().decode(reader, out, 0, out.length) != out.length) {
+            throw new RuntimeException("Compressed data ended before the original length was reached.");
+        }
+        return out;
+    }
+}
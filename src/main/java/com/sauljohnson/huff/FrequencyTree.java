@@ -18,8 +18,8 @@ public class FrequencyTree extends Node {
      * @param one       the tree's '1' child
      */
     private FrequencyTree(Node[] leaves, Node zero, Node one) {
-        // This node is the root, it has a frequency of 1.
-        super(1, zero, one);
+        // This node is the root, weighted by every count beneath it.
+        super(zero.getFrequency() + one.getFrequency(), zero, one);
         
         // Keep references to leaves for quick access.
         this.leaves = leaves;
@@ -35,24 +35,152 @@ public class FrequencyTree extends Node {
     
     /**
      * Generates a new Huffman tree from a set of frequencies.
+     *
+     * Nodes are weighted by exact byte counts rather than fractions of the total, so sums never round. Bytes that never
+     * occur are left out of the tree and have no parent. Ties between equally frequent nodes are broken in favour of
+     * leaves, then lower symbols, so the same frequencies always produce the same tree.
+     *
      * @param frequencies   the set of frequencies
      * @return              a Huffman tree optimally encoding the specified frequencies
      */
     public static FrequencyTree fromFrequencySet(ByteFrequencySet frequencies) {
-        // Initialise data nodes.
+        // Initialise data nodes, weighted by count.
         final Node[] leaves = new Node[frequencies.getSize()];
         for (int i = 0; i < leaves.length; i++) {
-            leaves[i] = new Node(frequencies.getUnsignedByteFrequency(i), i);
+            leaves[i] = new Node(frequencies.getCount(i), i);
         }
-        
-        // Combine most frequent until we only have two nodes left.
-        Node[] nodes = new Node[leaves.length];
-        System.arraycopy(leaves, 0, nodes, 0, nodes.length);
-        while (nodes.length > 2) { 
-            nodes = combineLeastFrequent(nodes);
+
+        // Sort leaves that occur, least frequent first, padding with unused leaves so there are at least two.
+        final Node[] queue = new Node[leaves.length];
+        int count = 0;
+        for (Node leaf : leaves) {
+            if (leaf.getFrequency() > 0) {
+                queue[count++] = leaf;
+            }
+        }
+        for (int i = 0; count < 2; i++) {
+            if (leaves[i].getFrequency() <= 0) {
+                queue[count++] = leaves[i];
+            }
+        }
+        final Node[] sorted = new Node[count];
+        System.arraycopy(queue, 0, sorted, 0, count);
+        sortByFrequency(sorted);
+
+        // Combine least frequent until we only have two nodes left.
+        final NodeQueue nodes = new NodeQueue(sorted);
+        for (int remaining = count; remaining > 2; remaining--) {
+            nodes.add(combine(nodes.poll(), nodes.poll()));
+        }
+
+        // Add those two nodes to root, least frequent first.
+        final Node zero = nodes.poll();
+        return new FrequencyTree(leaves, zero, nodes.poll());
+    }
+
+    /**
+     * Generates a new Huffman tree from a set of frequencies, with no leaf deeper than the specified maximum.
+     *
+     * If the unrestricted Huffman tree is shallow enough it is returned as-is, otherwise optimal code lengths under the
+     * limit are found with the package-merge algorithm and a tree is built to match them.
+     *
+     * @param frequencies   the set of frequencies
+     * @param maxCodeLength the maximum depth of any leaf, and so the maximum length of any prefix code
+     * @return              a Huffman tree optimally encoding the specified frequencies within the depth limit
+     */
+    public static FrequencyTree fromFrequencySet(ByteFrequencySet frequencies, int maxCodeLength) {
+        // Use the unrestricted tree if it is within the limit.
+        final FrequencyTree tree = fromFrequencySet(frequencies);
+        int depth = 0;
+        for (Node leaf : tree.getLeaves()) {
+            depth = Math.max(depth, leaf.getDepth());
+        }
+        if (depth <= maxCodeLength) {
+            return tree;
+        }
+
+        // Find limited code lengths, weighting by exact counts.
+        final Node[] leaves = new Node[frequencies.getSize()];
+        final double[] weights = new double[leaves.length];
+        for (int i = 0; i < leaves.length; i++) {
+            weights[i] = frequencies.getCount(i);
+            leaves[i] = new Node(frequencies.getCount(i), i);
+        }
+        final int[] lengths = PackageMerge.computeCodeLengths(weights, maxCodeLength);
+
+        // Build the tree from the bottom up. At each depth, leaves come first in symbol order, then nodes combined from
+        // the depth below, so the tree's codes are canonical. Pairs at each depth combine into nodes a level up.
+        Node[] level = new Node[0];
+        for (int length = maxCodeLength; length > 0; length--) {
+            final Node[] current = new Node[leaves.length + level.length];
+            int count = 0;
+            for (int i = 0; i < leaves.length; i++) {
+                if (lengths[i] == length) {
+                    current[count++] = leaves[i];
+                }
+            }
+            System.arraycopy(level, 0, current, count, level.length);
+            count += level.length;
+            if (length == 1) {
+                return new FrequencyTree(leaves, current[0], current[1]);
+            }
+            level = new Node[count / 2];
+            for (int i = 0; i < level.length; i++) {
+                level[i] = combine(current[2 * i], current[2 * i + 1]);
+            }
+        }
+        throw new RuntimeException("Maximum code length must be at least one bit.");
+    }
+
+    /**
+     * Represents a queue of nodes in order of frequency, made up of a sorted array of leaves and the combined nodes
+     * built from them. Combined nodes are created in order of frequency, so each poll only has to compare the heads of
+     * the two arrays.
+     */
+    private static class NodeQueue {
+
+        /** The leaves, least frequent first. */
+        private final Node[] leaves;
+
+        /** The combined nodes, least frequent first. */
+        private final Node[] combined;
+
+        /** The index of the next leaf to poll. */
+        private int leafHead;
+
+        /** The index of the next combined node to poll. */
+        private int combinedHead;
+
+        /** The index at which to add the next combined node. */
+        private int combinedTail;
+
+        /**
+         * Initialises a new instance of a node queue.
+         * @param leaves    the leaves, least frequent first
+         */
+        NodeQueue(Node[] leaves) {
+            this.leaves = leaves;
+            this.combined = new Node[leaves.length];
+        }
+
+        /**
+         * Adds a combined node to the queue, which must be no less frequent than any combined node before it.
+         * @param node  the combined node to add
+         */
+        void add(Node node) {
+            combined[combinedTail++] = node;
+        }
+
+        /**
+         * Removes and returns the least frequent node in the queue, preferring leaves on ties.
+         * @return  the least frequent node in the queue
+         */
+        Node poll() {
+            if (leafHead < leaves.length && (combinedHead == combinedTail
+                    || leaves[leafHead].getFrequency() <= combined[combinedHead].getFrequency())) {
+                return leaves[leafHead++];
+            }
+            return combined[combinedHead++];
         }
-        
-        // Add those two nodes to root.
-        return new FrequencyTree(leaves, nodes[0], nodes[1]);
     }
 }
@@ -0,0 +1,309 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Represents a processor that gathers a stream of byte buffer chunks into blocks and publishes the result of
+ * compressing each block, in order.
+ *
+ * Blocks are compressed on an executor while further chunks arrive, so compression overlaps with whatever produces
+ * the chunks. No more than a set number of blocks are compressed or waiting to be published at once; until one is
+ * published, no more of a chunk is taken and no more chunks are requested, which passes backpressure from subscribers
+ * upstream however large the chunks are. Each subscriber buffers no more than about that many published results,
+ * beyond which publishing waits for it to catch up. Each published result knows its original length, so can be
+ * written out with {@link HuffmanCompressionResult#writeTo}.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanCompressionProcessor extends SubmissionPublisher<HuffmanCompressionResult>
+        implements Flow.Processor<ByteBuffer, HuffmanCompressionResult> {
+
+    /** The default number of blocks that may be compressed or waiting to be published at once. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    /** The compressor used to compress each block. */
+    private final HuffmanCompressor compressor;
+
+    /** The executor that blocks are compressed on. */
+    private final Executor executor;
+
+    /** The number of blocks that may be compressed or waiting to be published at once. */
+    private final int maxInFlight;
+
+    /** Holds the blocks being compressed or waiting to be published, oldest first. */
+    private final ArrayDeque<CompletableFuture<HuffmanCompressionResult>> inFlight =
+            new ArrayDeque<CompletableFuture<HuffmanCompressionResult>>();
+
+    /** The subscription to the stream of chunks. */
+    private Flow.Subscription subscription;
+
+    /** The buffer holding the block being filled. */
+    private byte[] block;
+
+    /** The number of bytes in the block being filled. */
+    private int count;
+
+    /** The part of the last chunk not yet copied into blocks, held back while there is no room for another block. */
+    private ByteBuffer pending;
+
+    /** Whether or not a thread is copying chunks into blocks, which only one thread may do at a time. */
+    private boolean consuming;
+
+    /** Whether or not the stream of chunks has ended. */
+    private boolean completed;
+
+    /** Whether or not the last block has been sent off to be compressed since the stream of chunks ended. */
+    private boolean flushed;
+
+    /** Whether or not a thread is publishing compressed blocks, which keeps them in order. */
+    private boolean publishing;
+
+    /**
+     * Initialises a new instance of a Huffman compression processor that compresses blocks of the compressor's block
+     * size on its pool.
+     * @param compressor    the compressor used to compress each block
+     */
+    public HuffmanCompressionProcessor(HuffmanCompressor compressor) {
+        this(compressor, compressor.getPool(), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Initialises a new instance of a Huffman compression processor that compresses blocks of the compressor's block
+     * size.
+     * @param compressor    the compressor used to compress each block
+     * @param executor      the executor that blocks are compressed and published on
+     * @param maxInFlight   the number of blocks that may be compressed or waiting to be published at once
+     */
+    public HuffmanCompressionProcessor(HuffmanCompressor compressor, Executor executor, int maxInFlight) {
+        super(executor, checkMaxInFlight(maxInFlight));
+        this.compressor = compressor;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.block = new byte[compressor.getBlockSize()];
+    }
+
+    /**
+     * Checks that the number of blocks that may be in flight at once is positive, before it sizes the buffer of each
+     * subscriber.
+     * @param maxInFlight   the number of blocks that may be compressed or waiting to be published at once
+     * @return              the number of blocks that may be in flight at once
+     */
+    private static int checkMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new RuntimeException("Number of blocks in flight must be positive.");
+        }
+        return maxInFlight;
+    }
+
+    /**
+     * Gets the number of blocks that may be compressed or waiting to be published at once.
+     * @return  the number of blocks that may be in flight at once
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer chunk) {
+        synchronized (this) {
+            pending = chunk;
+        }
+        consume();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            completed = true;
+        }
+        consume();
+    }
+
+    /**
+     * Copies the pending chunk into blocks, sending each off to be compressed as it fills, for as long as there is
+     * room for another block. The rest of the chunk is held back until a block is published, and the next chunk is
+     * asked for only once the whole of this one is used. Once the stream of chunks has ended, the last block is sent
+     * off in the same way.
+     */
+    private void consume() {
+        synchronized (this) {
+            if (consuming) {
+                return; // The consuming thread will carry on from where the chunk was left.
+            }
+            consuming = true;
+        }
+        while (true) {
+            final ByteBuffer chunk;
+            boolean flush = false;
+            synchronized (this) {
+                if (isClosed()) {
+                    pending = null; // Failed already, so drop the rest of the chunk.
+                    consuming = false;
+                    return;
+                }
+                chunk = pending;
+                final boolean needsRoom = chunk != null || (completed && !flushed && count > 0);
+                if (needsRoom && inFlight.size() >= maxInFlight) {
+                    consuming = false; // Carry on once a block has been published.
+                    return;
+                }
+                if (chunk == null) {
+                    if (!completed || flushed) {
+                        consuming = false;
+                        return;
+                    }
+                    flush = true;
+                }
+            }
+
+            // Send off the last block once the stream has ended.
+            if (flush) {
+                if (count > 0) {
+                    dispatch();
+                }
+                synchronized (this) {
+                    flushed = true;
+                    consuming = false;
+                }
+                drain();
+                return;
+            }
+
+            // Copy up to a block's worth, then ask for the next chunk once this one is used up, unless the stream has
+            // ended already and the last block is to be sent off instead.
+            final int length = Math.min(chunk.remaining(), block.length - count);
+            chunk.get(block, count, length);
+            count += length;
+            if (count == block.length) {
+                dispatch();
+            }
+            if (!chunk.hasRemaining()) {
+                final boolean ended;
+                synchronized (this) {
+                    pending = null;
+                    ended = completed;
+                    if (!ended) {
+                        consuming = false;
+                    }
+                }
+                if (!ended) {
+                    subscription.request(1);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the block being filled off to be compressed and starts a new one.
+     */
+    private void dispatch() {
+        final byte[] data = count == block.length ? block : Arrays.copyOf(block, count);
+        block = new byte[block.length];
+        count = 0;
+        final CompletableFuture<HuffmanCompressionResult> future = CompletableFuture.supplyAsync(
+                new Supplier<HuffmanCompressionResult>() {
+                    @Override
+                    public HuffmanCompressionResult get() {
+                        return compressor.compress(data);
+                    }
+                }, executor);
+        synchronized (this) {
+            inFlight.add(future);
+        }
+        future.whenComplete(new BiConsumer<HuffmanCompressionResult, Throwable>() {
+            @Override
+            public void accept(HuffmanCompressionResult result, Throwable throwable) {
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Publishes every compressed block at the front of the queue, in order, then carries on with any chunk held back
+     * and closes the publisher once the last block is out. Blocks are published outside the lock, since
+     * publishing waits while a subscriber's buffer is full; only one thread publishes at a time, and it keeps going
+     * until no compressed block is left at the front of the queue.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (publishing) {
+                return; // The publishing thread will pick up any block now ready.
+            }
+            publishing = true;
+        }
+        final ArrayList<HuffmanCompressionResult> ready = new ArrayList<HuffmanCompressionResult>();
+        while (true) {
+            Throwable failure = null;
+            boolean idle = false;
+            boolean finished = false;
+            synchronized (this) {
+                if (isClosed()) {
+                    inFlight.clear(); // Failed already, so drop any blocks still arriving.
+                    publishing = false;
+                    return;
+                }
+                while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                    try {
+                        ready.add(inFlight.poll().join());
+                    } catch (RuntimeException e) {
+                        inFlight.clear();
+                        failure = e.getCause() == null ? e : e.getCause();
+                        break;
+                    }
+                }
+                if (ready.isEmpty() && failure == null) {
+                    idle = true;
+                    publishing = false;
+                    finished = flushed && inFlight.isEmpty();
+                }
+            }
+
+            // Publish what is ready, then fail, carry on or wind up.
+            for (HuffmanCompressionResult result : ready) {
+                submit(result);
+            }
+            ready.clear();
+            if (failure != null) {
+                subscription.cancel();
+                closeExceptionally(failure);
+                synchronized (this) {
+                    publishing = false;
+                }
+                return;
+            }
+            if (idle) {
+                consume();
+                if (finished) {
+                    close();
+                }
+                return;
+            }
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.sauljohnson.huff;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
 /**
  * Represents the result of a {@link HuffmanCompressor} compressing a set of bytes.
  *
@@ -8,6 +16,21 @@ package com.sauljohnson.huff;
  */
 public class HuffmanCompressionResult {
 
+    /** The byte written in place of a table to mark a block stored as it is. */
+    static final int STORED_MARKER = 0x80;
+
+    /** The byte written in place of a table to mark a block holding a single byte repeated. */
+    static final int SINGLE_SYMBOL_MARKER = 0x81;
+
+    /** The longest data that can be stored, so that its length in bits fits in an int. */
+    static final int MAX_STORED_LENGTH = Integer.MAX_VALUE / 8;
+
+    /** The table that gives every byte an eight-bit code equal to itself, with which stored data is coded. */
+    private static final PrefixCodeTable STORED_TABLE = createStoredTable();
+
+    /** The way in which the data was compressed. */
+    private CompressionMode mode;
+
     /** The compressed data. */
     private byte[] data;
 
@@ -17,6 +40,12 @@ public class HuffmanCompressionResult {
     /** The length of the compressed data. **/
     private int length;
 
+    /** The length of the data before compression, or -1 if not known. */
+    private int originalLength;
+
+    /** The index of checkpoints into the compressed data, or null if none were recorded. */
+    private CheckpointIndex checkpoints;
+
     /**
      * Initializes a new instance of the result of a {@link HuffmanCompressor} compressing a set of bytes.
      * @param data      the compressed data
@@ -24,9 +53,98 @@ public class HuffmanCompressionResult {
      * @param length    the length of the compressed data in bits
      */
     public HuffmanCompressionResult(byte[] data, PrefixCodeTable table, int length) {
+        this(data, table, length, -1);
+    }
+
+    /**
+     * Initializes a new instance of the result of a {@link HuffmanCompressor} compressing a set of bytes.
+     * @param data              the compressed data
+     * @param table             the prefix code table used to compress the data
+     * @param length            the length of the compressed data in bits
+     * @param originalLength    the length of the data before compression in bytes
+     */
+    public HuffmanCompressionResult(byte[] data, PrefixCodeTable table, int length, int originalLength) {
+        this(CompressionMode.HUFFMAN, data, table, length, originalLength);
+    }
+
+    /**
+     * Initializes a new instance of the result of a {@link HuffmanCompressor} compressing a set of bytes.
+     * @param mode              the way in which the data was compressed
+     * @param data              the compressed data
+     * @param table             the prefix code table used to compress the data
+     * @param length            the length of the compressed data in bits
+     * @param originalLength    the length of the data before compression in bytes
+     */
+    private HuffmanCompressionResult(CompressionMode mode, byte[] data, PrefixCodeTable table, int length,
+                                     int originalLength) {
+        this.mode = mode;
         this.data = data;
         this.table = table;
         this.length = length;
+        this.originalLength = originalLength;
+    }
+
+    /**
+     * Initializes a new instance of the result of a {@link HuffmanCompressor} compressing a set of bytes with
+     * checkpoints recorded, so that ranges can be decompressed without decoding from the start.
+     * @param data              the compressed data
+     * @param table             the prefix code table used to compress the data
+     * @param length            the length of the compressed data in bits
+     * @param originalLength    the length of the data before compression in bytes
+     * @param checkpoints       the index of checkpoints into the compressed data
+     */
+    public HuffmanCompressionResult(byte[] data, PrefixCodeTable table, int length, int originalLength,
+                                    CheckpointIndex checkpoints) {
+        this(CompressionMode.HUFFMAN, data, table, length, originalLength);
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Creates the result of storing data as it is. Every byte is its own eight-bit code under the stored table, so the
+     * data doubles as a payload that decodes like any other.
+     * @param data              the data, which the result takes ownership of
+     * @param originalLength    the length of the data in bytes
+     * @return                  the result of storing the data
+     */
+    static HuffmanCompressionResult stored(byte[] data, int originalLength) {
+        if (originalLength > MAX_STORED_LENGTH) {
+            throw new RuntimeException("Data is too large for the stored length to be held in bits; compress it as "
+                    + "segments instead.");
+        }
+        return new HuffmanCompressionResult(CompressionMode.STORED, data, STORED_TABLE, originalLength * 8,
+                originalLength);
+    }
+
+    /**
+     * Creates the result of compressing a single byte repeated. The byte is given a one-bit code, so the payload is
+     * one zero bit per byte and decodes like any other.
+     * @param symbol            the repeated byte
+     * @param originalLength    the number of times the byte is repeated
+     * @return                  the result of compressing the data
+     */
+    static HuffmanCompressionResult singleSymbol(int symbol, int originalLength) {
+        final int[] codeLengths = new int[256];
+        codeLengths[symbol & 0xFF] = 1;
+        return new HuffmanCompressionResult(CompressionMode.SINGLE_SYMBOL, new byte[(originalLength + 7) / 8],
+                PrefixCodeTable.fromCodeLengths(codeLengths), originalLength, originalLength);
+    }
+
+    /**
+     * Creates the table that gives every byte an eight-bit code equal to itself.
+     * @return  the stored table
+     */
+    private static PrefixCodeTable createStoredTable() {
+        final int[] codeLengths = new int[256];
+        Arrays.fill(codeLengths, 8);
+        return PrefixCodeTable.fromCodeLengths(codeLengths);
+    }
+
+    /**
+     * Gets the byte repeated in a single-symbol result.
+     * @return  the repeated byte
+     */
+    byte getSymbol() {
+        return (byte) table.getSymbols()[0];
     }
 
     /**
@@ -38,11 +156,19 @@ public class HuffmanCompressionResult {
     }
 
     /**
-     * Gets the prefix code table used to compress the data.
+     * Gets the way in which the data was compressed.
+     * @return  the way in which the data was compressed
+     */
+    public CompressionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the prefix code table used to compress the data. Stored results share one table, so each is given a copy.
      * @return  the prefix code table used to compress the data
      */
     public PrefixCodeTable getTable() {
-        return table;
+        return table == STORED_TABLE ? createStoredTable() : table;
     }
 
     /**
@@ -52,4 +178,133 @@ public class HuffmanCompressionResult {
     public int getLength() {
         return length;
     }
+
+    /**
+     * Gets the length of the data before compression in bytes.
+     * @return  the length of the data before compression in bytes, or -1 if not known
+     */
+    public int getOriginalLength() {
+        return originalLength;
+    }
+
+    /**
+     * Gets the index of checkpoints into the compressed data. Checkpoints are not written out with the result.
+     * @return  the index of checkpoints, or null if none were recorded
+     */
+    public CheckpointIndex getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Writes this result to a stream as a block made up of the original length, the prefix code table, the length of
+     * the compressed data in bits and then the compressed data itself.
+     *
+     * Stored blocks have a marker byte in place of the table, followed straight away by the data. Single-symbol blocks
+     * have a different marker byte, followed by the repeated byte.
+     *
+     * @param out           the stream to write to
+     * @throws IOException  if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (originalLength < 0) {
+            throw new RuntimeException("Original length must be known to write a compression result.");
+        }
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        switch (mode) {
+            case STORED:
+                dataOut.writeInt(originalLength);
+                dataOut.writeByte(STORED_MARKER);
+                dataOut.write(data, 0, originalLength);
+                break;
+            case SINGLE_SYMBOL:
+                dataOut.writeInt(originalLength);
+                dataOut.writeByte(SINGLE_SYMBOL_MARKER);
+                dataOut.writeByte(getSymbol());
+                break;
+            default:
+                writeHeader(dataOut, originalLength, table, length);
+                dataOut.write(data, 0, (int) ((length + 7L) / 8));
+                break;
+        }
+    }
+
+    /**
+     * Writes everything that precedes the compressed data in a block written by {@link #writeTo(OutputStream)}.
+     * @param out               the stream to write to
+     * @param originalLength    the length of the data before compression in bytes
+     * @param table             the prefix code table used to compress the data
+     * @param length            the length of the compressed data in bits
+     * @throws IOException      if an I/O error occurs
+     */
+    static void writeHeader(DataOutputStream out, int originalLength, PrefixCodeTable table, int length)
+            throws IOException {
+        out.writeInt(originalLength);
+        table.writeTo(out);
+        out.writeInt(length);
+    }
+
+    /**
+     * Reads a result from a stream, as written by {@link #writeTo(OutputStream)}. Stored and coded data are read only
+     * as far as the stream holds them, but a single-symbol result is filled out to its original length, so untrusted
+     * data is better read with {@link #readFrom(InputStream, int)}.
+     * @param in            the stream to read from
+     * @return              the result read from the stream
+     * @throws IOException  if an I/O error occurs or the stream does not hold a valid result
+     */
+    public static HuffmanCompressionResult readFrom(InputStream in) throws IOException {
+        return readFrom(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a result from a stream, as written by {@link #writeTo(OutputStream)}, rejecting it before anything is
+     * allocated if its original length is longer than expected.
+     * @param in                    the stream to read from
+     * @param maxOriginalLength     the longest original length to accept in bytes, such as the block size written with
+     * @return                      the result read from the stream
+     * @throws IOException          if an I/O error occurs or the stream does not hold a valid result
+     */
+    public static HuffmanCompressionResult readFrom(InputStream in, int maxOriginalLength) throws IOException {
+        final DataInputStream dataIn = new DataInputStream(in);
+        final int originalLength = dataIn.readInt();
+        final int flags = dataIn.readUnsignedByte();
+        if (originalLength < 0 || originalLength > maxOriginalLength) {
+            throw new IOException("Invalid compression result header.");
+        }
+
+        // Blocks not Huffman coded have a marker in place of the table.
+        if (flags == STORED_MARKER) {
+            if (originalLength > MAX_STORED_LENGTH) {
+                throw new IOException("Invalid compression result header.");
+            }
+            return stored(readData(dataIn, originalLength), originalLength);
+        }
+        if (flags == SINGLE_SYMBOL_MARKER) {
+            return singleSymbol(dataIn.readUnsignedByte(), originalLength);
+        }
+
+        // Every symbol takes at least one bit, so a coded block can be no longer in bytes than its data is in bits.
+        final PrefixCodeTable table = PrefixCodeTable.readFrom(flags, dataIn);
+        final int length = dataIn.readInt();
+        if (length < originalLength) {
+            throw new IOException("Invalid compression result header.");
+        }
+        return new HuffmanCompressionResult(readData(dataIn, (int) ((length + 7L) / 8)), table, length,
+                originalLength);
+    }
+
+    /**
+     * Reads data of a length given in a header, growing the buffer only as the data arrives so that a corrupted length
+     * cannot allocate more than the stream holds.
+     * @param in            the stream to read from
+     * @param length        the length of the data in bytes
+     * @return              the data read
+     * @throws IOException  if an I/O error occurs or the stream ends before the data does
+     */
+    private static byte[] readData(InputStream in, int length) throws IOException {
+        final byte[] data = in.readNBytes(length);
+        if (data.length != length) {
+            throw new EOFException();
+        }
+        return data;
+    }
 }
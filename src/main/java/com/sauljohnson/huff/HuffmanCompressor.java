@@ -1,10 +1,23 @@
 package com.sauljohnson.huff;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
 
-import com.sauljohnson.backspin.BitInputStream;
-import com.sauljohnson.backspin.BitOutputStream;
-import com.sauljohnson.backspin.BitSequence;
+import jdk.jfr.EventType;
 
 /**
  * Represents a compressor that uses plain Huffman coding to compress a set of bytes.
@@ -14,25 +27,540 @@ import com.sauljohnson.backspin.BitSequence;
  */
 public class HuffmanCompressor {
 
+    /** The smallest limit on code length that still lets every byte have a code. */
+    private static final int MIN_MAX_CODE_LENGTH = 8;
+
+    /** The default number of bytes of data compressed into each block in parallel mode. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** The number of bytes taken up by each entry in the block index written in parallel mode. */
+    private static final int INDEX_ENTRY_SIZE = 8;
+
+    /** The magic number that begins a container, "HUFF" in ASCII. */
+    public static final int CONTAINER_MAGIC = 0x48554646;
+
+    /** The version of the container format written. */
+    public static final int CONTAINER_VERSION = 1;
+
+    /** The version of the container format written as a stream of segments. */
+    public static final int SEGMENTED_CONTAINER_VERSION = 2;
+
+    /**
+     * The largest number of bytes compressed into each segment of a segmented container, the most whose length in
+     * bits fits in an int. Coding never uses more than eight bits per byte, or the segment is stored instead, so the
+     * bit length of a segment always fits in an int.
+     */
+    public static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE / 8;
+
+    /** The number of bytes taken up by the magic number, version and block count that begin a container. */
+    private static final int CONTAINER_HEADER_SIZE = 9;
+
+    /** The number of bytes taken up by the length and checksum that precede each block in a container. */
+    private static final int CONTAINER_BLOCK_HEADER_SIZE = 8;
+
+    /** The entropy in bits per byte above which data is stored without trying to Huffman code it. */
+    private static final double STORED_ENTROPY_THRESHOLD = 7.9;
+
+    /** The default largest number of prefix code tables built in context mode. */
+    public static final int DEFAULT_MAX_CONTEXT_TABLES = 64;
+
+    /** The default largest distance a match may copy from in LZ mode. */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 15;
+
+    /** The default effort level of match searching in LZ mode. */
+    public static final int DEFAULT_MATCH_LEVEL = 6;
+
+    /** The type of the event recorded for each block compressed, checked before an event is allocated. */
+    private static final EventType COMPRESS_EVENT = EventType.getEventType(HuffmanEvent.Compress.class);
+
+    /** The type of the event recorded for each block decompressed, checked before an event is allocated. */
+    private static final EventType DECOMPRESS_EVENT = EventType.getEventType(HuffmanEvent.Decompress.class);
+
+    /** The maximum length of any prefix code in bits, or zero for no limit. */
+    private int maxCodeLength;
+
+    /** The number of bytes of data compressed into each block in parallel mode. */
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    /** The pool that blocks are compressed and decompressed on in parallel mode, or null for the common pool. */
+    private ForkJoinPool pool;
+
+    /** The cache that tables are reused from, or null to build a new table every time. */
+    private PrefixCodeTableCache tableCache;
+
+    /** The largest number of prefix code tables built in context mode. */
+    private int maxContextTables = DEFAULT_MAX_CONTEXT_TABLES;
+
+    /** The largest distance a match may copy from in LZ mode. */
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    /** How hard matches are searched for in LZ mode, from 1 to 9. */
+    private int matchLevel = DEFAULT_MATCH_LEVEL;
+
+    /** The number of bytes of data between checkpoints recorded while compressing, or zero for none. */
+    private int checkpointInterval;
+
+    /** The hook that receives the metrics of every block, or null if there is none. */
+    private CompressionListener listener;
+
+    /** The number of bytes in each window of data counted when sampling. */
+    private int sampleWindowSize = ByteFrequencySet.DEFAULT_SAMPLE_WINDOW_SIZE;
+
+    /** The number of windows of data counted when sampling, or zero to count every byte. */
+    private int sampleWindowCount;
+
+    /**
+     * Gets the maximum length of any prefix code in bits.
+     * @return  the maximum length of any prefix code in bits, or zero for no limit
+     */
+    public int getMaxCodeLength() {
+        return maxCodeLength;
+    }
+
+    /**
+     * Sets the maximum length of any prefix code in bits. Limiting code length costs a little compression on skewed data
+     * but keeps decoding tables small; a limit of 11 bits lets every code resolve with a single table lookup.
+     * @param maxCodeLength the maximum length of any prefix code in bits, at least 8, or zero for no limit
+     */
+    public void setMaxCodeLength(int maxCodeLength) {
+        if (maxCodeLength != 0 && maxCodeLength < MIN_MAX_CODE_LENGTH) {
+            throw new RuntimeException("Maximum code length must be at least 8 bits, or zero for no limit.");
+        }
+        this.maxCodeLength = maxCodeLength;
+    }
+
+    /**
+     * Gets the number of bytes of data compressed into each block in parallel mode.
+     * @return  the number of bytes of data compressed into each block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets the number of bytes of data compressed into each block in parallel mode. Each block carries its own prefix
+     * code table, so smaller blocks spread work across more threads at some cost to compression.
+     * @param blockSize the number of bytes of data to compress into each block
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new RuntimeException("Block size must be positive.");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Gets the pool that blocks are compressed and decompressed on in parallel mode.
+     * @return  the pool that blocks are processed on
+     */
+    public ForkJoinPool getPool() {
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    /**
+     * Sets the pool that blocks are compressed and decompressed on in parallel mode.
+     * @param pool  the pool that blocks are processed on, or null for the common pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the cache that prefix code tables are reused from.
+     * @return  the cache that tables are reused from, or null if a new table is built every time
+     */
+    public PrefixCodeTableCache getTableCache() {
+        return tableCache;
+    }
+
+    /**
+     * Sets the cache that prefix code tables are reused from. A cache may be shared between compressors and threads.
+     * @param tableCache    the cache that tables are reused from, or null to build a new table every time
+     */
+    public void setTableCache(PrefixCodeTableCache tableCache) {
+        this.tableCache = tableCache;
+    }
+
+    /**
+     * Gets the largest number of prefix code tables built in context mode.
+     * @return  the largest number of prefix code tables built in context mode
+     */
+    public int getMaxContextTables() {
+        return maxContextTables;
+    }
+
+    /**
+     * Sets the largest number of prefix code tables built in context mode. More tables model the data more closely,
+     * but each costs up to a few hundred bytes to store and some time to build.
+     * @param maxContextTables  the largest number of prefix code tables, from 1, which is plain Huffman coding with a
+     *                          small overhead, to 256, which allows every context a table of its own
+     */
+    public void setMaxContextTables(int maxContextTables) {
+        if (maxContextTables < 1 || maxContextTables > 256) {
+            throw new RuntimeException("Number of context tables must be between 1 and 256.");
+        }
+        this.maxContextTables = maxContextTables;
+    }
+
+    /**
+     * Gets the largest distance in bytes that a match may copy from in LZ mode.
+     * @return  the largest distance a match may copy from
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Sets the largest distance in bytes that a match may copy from in LZ mode. Larger windows find more repeats in
+     * large data, and need four bytes of memory per byte of window while compressing.
+     * @param windowSize    the largest distance a match may copy from, a power of two from 256 bytes to 4 MiB
+     */
+    public void setWindowSize(int windowSize) {
+        if (windowSize < MatchFinder.MIN_WINDOW_SIZE || windowSize > MatchFinder.MAX_WINDOW_SIZE
+                || Integer.bitCount(windowSize) != 1) {
+            throw new RuntimeException("Window size must be a power of two from 256 bytes to 4 MiB.");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Gets how hard matches are searched for in LZ mode.
+     * @return  the effort level, from 1 to 9
+     */
+    public int getMatchLevel() {
+        return matchLevel;
+    }
+
+    /**
+     * Sets how hard matches are searched for in LZ mode. As with gzip, level 1 is the fastest and level 9 gives the
+     * smallest output.
+     * @param matchLevel    the effort level, from 1 to 9
+     */
+    public void setMatchLevel(int matchLevel) {
+        if (matchLevel < MatchFinder.MIN_LEVEL || matchLevel > MatchFinder.MAX_LEVEL) {
+            throw new RuntimeException("Effort level must be between 1 and 9.");
+        }
+        this.matchLevel = matchLevel;
+    }
+
+    /**
+     * Gets the number of bytes of data between checkpoints recorded while compressing.
+     * @return  the number of bytes of data between checkpoints, or zero if none are recorded
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Sets the number of bytes of data between checkpoints recorded while compressing. Checkpoints let
+     * {@link #decompressRange} start decoding close to the range asked for rather than from the start, at a cost of
+     * four bytes of memory each. Smaller intervals make ranges quicker to decode.
+     * @param checkpointInterval    the number of bytes of data between checkpoints, or zero to record none
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new RuntimeException("Checkpoint interval must not be negative.");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Gets the hook that receives the metrics of every block compressed or decompressed.
+     * @return  the hook that receives metrics, or null if there is none
+     */
+    public CompressionListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the hook that receives the metrics of every block compressed or decompressed with plain Huffman coding,
+     * whether on its own, from compressed data and a table, as a range, or as part of parallel, container, segmented or
+     * file data. Data compressed with a dictionary, adaptively, interleaved, context-modelled, as ints or with matches
+     * is not reported. Metrics are only collected while there is a listener or a Flight Recorder recording has enabled
+     * Huff events, so they cost next to nothing otherwise.
+     * @param listener  the hook that receives metrics, or null for none
+     */
+    public void setListener(CompressionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the number of bytes in each window of data counted when sampling.
+     * @return  the number of bytes in each window
+     */
+    public int getSampleWindowSize() {
+        return sampleWindowSize;
+    }
+
+    /**
+     * Gets the number of windows of data counted when sampling.
+     * @return  the number of windows, or zero if every byte is counted
+     */
+    public int getSampleWindowCount() {
+        return sampleWindowCount;
+    }
+
+    /**
+     * Sets how byte arrays are sampled to estimate their frequencies, rather than counting every byte. Windows are
+     * spread evenly across the data and every byte is given a code, so data compresses correctly however unlike the
+     * sample it is; see {@link #getSamplingPenalty(byte[])} for what sampling costs. Files compressed by
+     * {@link #compress(Path, Path)} are always counted in full, as the encoded length must be known up front.
+     * @param windowSize    the number of bytes in each window
+     * @param windowCount   the number of windows to count, or zero to count every byte
+     */
+    public void setSampling(int windowSize, int windowCount) {
+        if (windowSize <= 0 || windowCount < 0) {
+            throw new RuntimeException("Sample window size must be positive and window count must not be negative.");
+        }
+        this.sampleWindowSize = windowSize;
+        this.sampleWindowCount = windowCount;
+    }
+
     /**
      * Compresses a byte array using using plain Huffman coding.
      * @param data  the data to compress
      * @return      the result of data compression, including the compressed data
      */
     public HuffmanCompressionResult compress(byte[] data) {
-        //  Calculate translation table.
-        final ByteFrequencySet frequencies = new ByteFrequencySet(data);
-        final FrequencyTree tree = FrequencyTree.fromFrequencySet(frequencies);
-        final PrefixCodeTable table = new PrefixCodeTable(tree);
+        return compress(data, 0, data.length);
+    }
+
+    /**
+     * Compresses part of a byte array using plain Huffman coding.
+     *
+     * The entropy of the data is checked first. Data made up of a single byte repeated is given a one-bit code, and
+     * data that Huffman coding would not shrink is stored as it is under a table of eight-bit codes. Either way the
+     * result decompresses from its data, table and length like any other, and {@link HuffmanCompressionResult#writeTo}
+     * writes it as a marker and the repeated byte or the raw data rather than a table.
+     *
+     * @param data      the array holding the data to compress
+     * @param offset    the index of the first byte to compress
+     * @param length    the number of bytes to compress
+     * @return          the result of data compression, including the compressed data
+     */
+    public HuffmanCompressionResult compress(byte[] data, int offset, int length) {
+        // Only collect metrics if someone is listening for them.
+        final HuffmanEvent event = beginEvent(true);
+        if (event == null) {
+            return compress(data, offset, length, null);
+        }
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final HuffmanCompressionResult result = compress(data, offset, length, metrics);
+        metrics.setResult(result);
+        metrics.bytesIn = length;
+        metrics.bytesOut = result.getData().length;
+        report(event, metrics);
+        return result;
+    }
 
-        // Compress data.
-        final BitOutputStream bitOut = new BitOutputStream();
-        for (byte datum : data) {
-            bitOut.write(table.translateSymbol(datum & 0xFF));
+    /**
+     * Compresses part of a byte array using plain Huffman coding, timing each stage.
+     * @param data      the array holding the data to compress
+     * @param offset    the index of the first byte to compress
+     * @param length    the number of bytes to compress
+     * @param metrics   the metrics to record the time taken by each stage in, or null to skip timing
+     * @return          the result of data compression, including the compressed data
+     */
+    private HuffmanCompressionResult compress(byte[] data, int offset, int length, CompressionMetrics metrics) {
+        // Skip building a table for data that is one byte repeated, or too random to compress.
+        long time = metrics == null ? 0 : System.nanoTime();
+        final ByteFrequencySet frequencies = countFrequencies(data, offset, length);
+        if (metrics != null) {
+            metrics.entropy = frequencies.getEntropy();
+            metrics.histogramNanos = System.nanoTime() - time;
+        }
+        final CompressionMode mode = chooseMode(frequencies);
+        if (mode == CompressionMode.SINGLE_SYMBOL) {
+            return HuffmanCompressionResult.singleSymbol(data[offset], length);
+        }
+        if (mode == CompressionMode.STORED) {
+            return store(data, offset, length);
+        }
+
+        //  Calculate translation table, storing the data if coding it would not make it any smaller. The table is
+        //  held apart from the data, and may be shared, so only the coded data is weighed against the original.
+        final PrefixCodeTable table = buildTable(frequencies, metrics);
+        final long expectedLength = getExpectedLength(table, frequencies, length);
+        if (expectedLength >= length * 8L && length > 0) {
+            return store(data, offset, length);
+        }
+
+        // Compress data into an output array sized from the frequencies.
+        time = metrics == null ? 0 : System.nanoTime();
+        final BitWriter out = new BitWriter((int) Math.min(Integer.MAX_VALUE - 8, (expectedLength + 7) / 8));
+        final CheckpointIndex checkpoints = checkpointInterval == 0 ? null
+                : encode(table, data, offset, length, out, checkpointInterval);
+        if (checkpoints == null) {
+            table.encode(data, offset, length, out);
+        }
+        if (metrics != null) {
+            metrics.encodeNanos = System.nanoTime() - time;
         }
 
         // Return compressed data, complete with table and header.
-        return new HuffmanCompressionResult(bitOut.toArray(), table, bitOut.getLength());
+        if (out.getLength() > Integer.MAX_VALUE) {
+            throw new RuntimeException("Data is too large for the compressed length to be stored; compress it as "
+                    + "segments instead.");
+        }
+        final int bitLength = (int) out.getLength();
+        return new HuffmanCompressionResult(out.toArray(), table, bitLength, length, checkpoints);
+    }
+
+    /**
+     * Encodes part of a byte array with a table, recording a checkpoint at the start of every interval.
+     * @param table     the table to encode with
+     * @param data      the array holding the data to encode
+     * @param offset    the index of the first byte to encode
+     * @param length    the number of bytes to encode
+     * @param out       the writer to write the encoded bits to
+     * @param interval  the number of bytes of data between checkpoints
+     * @return          the index of checkpoints recorded
+     */
+    private static CheckpointIndex encode(PrefixCodeTable table, byte[] data, int offset, int length, BitWriter out,
+                                          int interval) {
+        final int[] bitOffsets = new int[Math.max(1, (int) ((length + (long) interval - 1) / interval))];
+        for (int i = 0; i < bitOffsets.length; i++) {
+            final int start = i * interval;
+            bitOffsets[i] = (int) out.getLength();
+            table.encode(data, offset + start, Math.min(interval, length - start), out);
+        }
+        return new CheckpointIndex(interval, bitOffsets);
+    }
+
+    /**
+     * Chooses how to compress data from its frequencies.
+     * @param frequencies   the set of frequencies of the data
+     * @return              single-symbol mode for one byte repeated, stored mode for data with entropy too high to
+     *                      be worth coding, otherwise Huffman mode
+     */
+    private static CompressionMode chooseMode(ByteFrequencySet frequencies) {
+        if (frequencies.getTotal() > 0 && frequencies.getDistinctCount() == 1) {
+            return CompressionMode.SINGLE_SYMBOL;
+        }
+        return frequencies.getEntropy() >= STORED_ENTROPY_THRESHOLD ? CompressionMode.STORED : CompressionMode.HUFFMAN;
+    }
+
+    /**
+     * Gets whether or not a block coded with a table would be smaller than the same block stored.
+     * @param table     the table the block would be coded with
+     * @param bitLength the length of the coded data in bits
+     * @param length    the length of the data in bytes
+     * @return          true if the coded block would be smaller or the data is empty, otherwise false
+     */
+    private static boolean isWorthCoding(PrefixCodeTable table, long bitLength, int length) {
+        // Both blocks start with the original length; the coded block then has a table and bit length, the stored
+        // block a marker byte.
+        return length == 0
+                || (bitLength + 7) / 8 + PrefixCodeTable.getSerializedSize(table.getCodeLengths()) + 4 < length + 1L;
+    }
+
+    /**
+     * Stores part of a byte array as it is.
+     * @param data      the array holding the data to store
+     * @param offset    the index of the first byte to store
+     * @param length    the number of bytes to store
+     * @return          the result of storing the data
+     */
+    private static HuffmanCompressionResult store(byte[] data, int offset, int length) {
+        return HuffmanCompressionResult.stored(Arrays.copyOfRange(data, offset, offset + length), length);
+    }
+
+    /**
+     * Counts the frequencies of part of a byte array, or estimates them from a sample if sampling is on.
+     * @param data      the array holding the data to count
+     * @param offset    the index of the first byte of the data
+     * @param length    the number of bytes of data
+     * @return          the set of frequencies
+     */
+    private ByteFrequencySet countFrequencies(byte[] data, int offset, int length) {
+        return sampleWindowCount == 0 ? new ByteFrequencySet(data, offset, length)
+                : ByteFrequencySet.fromSample(data, offset, length, sampleWindowSize, sampleWindowCount);
+    }
+
+    /**
+     * Gets the expected length in bits of data encoded with a table, scaling up from the counted bytes if the
+     * frequencies were estimated from a sample.
+     * @param table         the table the data is encoded with
+     * @param frequencies   the set of frequencies of the data, or of a sample of it
+     * @param length        the number of bytes of data
+     * @return              the expected length of the encoded data in bits
+     */
+    private static long getExpectedLength(PrefixCodeTable table, ByteFrequencySet frequencies, int length) {
+        final long encodedLength = table.getEncodedLength(frequencies);
+        return frequencies.getTotal() == length ? encodedLength
+                : (long) ((double) encodedLength / frequencies.getTotal() * length);
+    }
+
+    /**
+     * Gets how much larger the compressed data is for building its table from a sample rather than from exact counts,
+     * under the current sampling settings. Every byte of the data is counted to work this out, so it is meant for
+     * tuning rather than for use on every call.
+     * @param data  the data to check
+     * @return      the fraction by which the compressed data grows, for example 0.01 for 1% larger
+     */
+    public double getSamplingPenalty(byte[] data) {
+        final ByteFrequencySet exact = new ByteFrequencySet(data);
+        final long exactLength = buildOptimalTable(exact, null).getEncodedLength(exact);
+        final long sampledLength = buildOptimalTable(countFrequencies(data, 0, data.length), null)
+                .getEncodedLength(exact);
+        return exactLength == 0 ? 0 : (double) sampledLength / exactLength - 1;
+    }
+
+    /**
+     * Builds a prefix code table for a set of frequencies, respecting the maximum code length, or reuses one from the
+     * table cache if it codes the data closely enough.
+     * @param frequencies   the set of frequencies
+     * @param metrics       the metrics to record the time taken to build the table in, or null to skip timing
+     * @return              a prefix code table optimally, or near enough, encoding the specified frequencies
+     */
+    private PrefixCodeTable buildTable(ByteFrequencySet frequencies, CompressionMetrics metrics) {
+        final PrefixCodeTableCache cache = tableCache;
+        if (cache != null) {
+            final PrefixCodeTable cached = cache.lookup(frequencies);
+            if (cached != null && isWithinMaxCodeLength(cached)) {
+                return cached;
+            }
+        }
+        final PrefixCodeTable table = buildOptimalTable(frequencies, metrics);
+        if (cache != null) {
+            cache.store(frequencies, table);
+        }
+        return table;
+    }
+
+    /**
+     * Builds a prefix code table for a set of frequencies, respecting the maximum code length.
+     * @param frequencies   the set of frequencies
+     * @param metrics       the metrics to record the time taken by each stage in, or null to skip timing
+     * @return              a prefix code table optimally encoding the specified frequencies
+     */
+    private PrefixCodeTable buildOptimalTable(ByteFrequencySet frequencies, CompressionMetrics metrics) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        final FrequencyTree tree = maxCodeLength == 0 ? FrequencyTree.fromFrequencySet(frequencies)
+                : FrequencyTree.fromFrequencySet(frequencies, maxCodeLength);
+        final long built = metrics == null ? 0 : System.nanoTime();
+        final PrefixCodeTable table = new PrefixCodeTable(tree);
+        if (metrics != null) {
+            metrics.treeNanos = built - start;
+            metrics.tableNanos = System.nanoTime() - built;
+        }
+        return table;
+    }
+
+    /**
+     * Gets whether or not a table respects the maximum code length.
+     * @param table the table to check
+     * @return      true if no code in the table is longer than the maximum, otherwise false
+     */
+    private boolean isWithinMaxCodeLength(PrefixCodeTable table) {
+        if (maxCodeLength != 0) {
+            for (int codeLength : table.getCodeLengths()) {
+                if (codeLength > maxCodeLength) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -43,19 +571,991 @@ public class HuffmanCompressor {
      * @return          the decompressed data
      */
     public byte[] decompress(byte[] data, PrefixCodeTable table, int length) {
-        // Read data in a bits, output as bytes.
-        final BitInputStream bitIn = new BitInputStream(data);
+        // Only collect metrics if someone is listening for them.
+        final HuffmanEvent event = beginEvent(false);
+        if (event == null) {
+            return decode(data, table, length);
+        }
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final long start = System.nanoTime();
+        final byte[] out = decode(data, table, length);
+        metrics.decodeNanos = System.nanoTime() - start;
+        metrics.setResult(CompressionMode.HUFFMAN, table, length, out.length);
+        metrics.bytesIn = data.length;
+        metrics.bytesOut = out.length;
+        report(event, metrics);
+        return out;
+    }
+
+    /**
+     * Decodes a byte array using plain Huffman coding, growing the output until the compressed data runs out.
+     * @param data      the data to decode
+     * @param table     the prefix code table to use to decode the data
+     * @param length    the length of the compressed data in bits
+     * @return          the decoded data
+     */
+    private static byte[] decode(byte[] data, PrefixCodeTable table, int length) {
+        // Read data several bits at a time, resolving each code with a table lookup.
+        final DecodingTable decodingTable = table.getDecodingTable();
+        final BitReader in = new BitReader(ByteBuffer.wrap(data), 0, length);
+
+        // Decompress data, growing the output buffer until the input runs out.
+        byte[] out = new byte[Math.max(16, Math.min(data.length, Integer.MAX_VALUE / 4) * 2)];
+        int size = 0;
+        while (true) {
+            size += decodingTable.decode(in, out, size, out.length - size);
+            if (size < out.length) {
+                break;
+            }
+            out = Arrays.copyOf(out, (int) Math.min(Integer.MAX_VALUE - 8, out.length * 2L));
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    /**
+     * Decompresses the result of compressing a byte array using plain Huffman coding.
+     * @param result    the result of compression
+     * @return          the decompressed data
+     */
+    public byte[] decompress(HuffmanCompressionResult result) {
+        if (result.getOriginalLength() < 0) {
+            return decompress(result.getData(), result.getTable(), result.getLength());
+        }
+
+        // The original length is known, so decompress straight into an array of the right size.
+        final byte[] out = new byte[result.getOriginalLength()];
+        decompress(result, out, 0);
+        return out;
+    }
+
+    /**
+     * Decompresses a range of the data from the result of compressing a byte array. Huffman coded data is decoded
+     * from the last checkpoint at or before the start of the range, if checkpoints were recorded, or else from the
+     * start.
+     * @param result    the result of compression, of known original length
+     * @param from      the index of the first byte of the range in the original data
+     * @param to        the index one past the last byte of the range in the original data
+     * @return          the decompressed range
+     */
+    public byte[] decompressRange(HuffmanCompressionResult result, int from, int to) {
+        // Only collect metrics if someone is listening for them.
+        final HuffmanEvent event = beginEvent(false);
+        if (event == null) {
+            return decodeRange(result, from, to);
+        }
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final long start = System.nanoTime();
+        final byte[] out = decodeRange(result, from, to);
+        metrics.decodeNanos = System.nanoTime() - start;
+        metrics.setResult(result);
+        metrics.bytesIn = result.getData().length;
+        metrics.bytesOut = out.length;
+        report(event, metrics);
+        return out;
+    }
+
+    /**
+     * Decodes a range of the data from the result of compressing a byte array.
+     * @param result    the result of compression, of known original length
+     * @param from      the index of the first byte of the range in the original data
+     * @param to        the index one past the last byte of the range in the original data
+     * @return          the decoded range
+     */
+    private static byte[] decodeRange(HuffmanCompressionResult result, int from, int to) {
+        final int originalLength = result.getOriginalLength();
+        if (originalLength < 0) {
+            throw new RuntimeException("Original length must be known to decompress a range.");
+        }
+        if (from < 0 || to < from || to > originalLength) {
+            throw new RuntimeException("Range must lie within the original data.");
+        }
+        final byte[] out = new byte[to - from];
+        if (out.length == 0) {
+            return out;
+        }
+        switch (result.getMode()) {
+            case STORED:
+                if (result.getData().length < to) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                System.arraycopy(result.getData(), from, out, 0, out.length);
+                break;
+            case SINGLE_SYMBOL:
+                Arrays.fill(out, result.getSymbol());
+                break;
+            default:
+                // Start from the nearest checkpoint, if any.
+                final CheckpointIndex checkpoints = result.getCheckpoints();
+                final int checkpoint = checkpoints == null ? -1 : checkpoints.find(from);
+                final int bitOffset = checkpoint < 0 ? 0 : checkpoints.getBitOffset(checkpoint);
+                int skip = from - (checkpoint < 0 ? 0 : checkpoints.getOutputOffset(checkpoint));
+                final BitReader in = new BitReader(ByteBuffer.wrap(result.getData()), bitOffset,
+                        result.getLength() - bitOffset);
+                final DecodingTable table = result.getTable().getDecodingTable();
+
+                // Decode and throw away the bytes before the range, then decode the range itself.
+                final byte[] scratch = new byte[Math.min(skip, 4096)];
+                while (skip > 0) {
+                    final int count = Math.min(skip, scratch.length);
+                    if (table.decode(in, scratch, 0, count) != count) {
+                        throw new RuntimeException("Compressed data ended before the original length was reached.");
+                    }
+                    skip -= count;
+                }
+                if (table.decode(in, out, 0, out.length) != out.length) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                break;
+        }
+        return out;
+    }
+
+    /**
+     * Decompresses the result of compressing a byte array, whatever its mode, into part of an existing array.
+     * @param result    the result of compression, of known original length
+     * @param out       the array to decompress into
+     * @param offset    the index in the array at which to begin writing
+     */
+    private void decompress(HuffmanCompressionResult result, byte[] out, int offset) {
+        // Only collect metrics if someone is listening for them.
+        final HuffmanEvent event = beginEvent(false);
+        if (event == null) {
+            decode(result, out, offset);
+            return;
+        }
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final long start = System.nanoTime();
+        decode(result, out, offset);
+        metrics.decodeNanos = System.nanoTime() - start;
+        metrics.setResult(result);
+        metrics.bytesIn = result.getData().length;
+        metrics.bytesOut = result.getOriginalLength();
+        report(event, metrics);
+    }
+
+    /**
+     * Starts timing a block for its metrics, if there is a listener or a Flight Recorder recording has enabled Huff
+     * events. Nothing is allocated otherwise.
+     * @param compressing   true if the block is being compressed, false if it is being decompressed
+     * @return              the event to report the metrics of the block with, or null if no one wants them
+     */
+    private HuffmanEvent beginEvent(boolean compressing) {
+        if (listener == null && !(compressing ? COMPRESS_EVENT : DECOMPRESS_EVENT).isEnabled()) {
+            return null;
+        }
+        final HuffmanEvent event = compressing ? new HuffmanEvent.Compress() : new HuffmanEvent.Decompress();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the metrics of a block to its event, and passes them to the listener if there is one.
+     * @param event     the event begun for the block
+     * @param metrics   the metrics of the block
+     */
+    private void report(HuffmanEvent event, CompressionMetrics metrics) {
+        event.commit(metrics);
+        final CompressionListener listener = this.listener;
+        if (listener == null) {
+            return;
+        }
+        if (event instanceof HuffmanEvent.Compress) {
+            listener.compressed(metrics);
+        } else {
+            listener.decompressed(metrics);
+        }
+    }
+
+    /**
+     * Decodes the result of compressing a byte array, whatever its mode, into part of an existing array.
+     * @param result    the result of compression, of known original length
+     * @param out       the array to decode into
+     * @param offset    the index in the array at which to begin writing
+     */
+    private static void decode(HuffmanCompressionResult result, byte[] out, int offset) {
+        final int originalLength = result.getOriginalLength();
+        switch (result.getMode()) {
+            case STORED:
+                if (result.getData().length < originalLength) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                System.arraycopy(result.getData(), 0, out, offset, originalLength);
+                break;
+            case SINGLE_SYMBOL:
+                Arrays.fill(out, offset, offset + originalLength, result.getSymbol());
+                break;
+            default:
+                if (decode(result.getData(), result.getTable(), result.getLength(), out, offset, originalLength)
+                        != originalLength) {
+                    throw new RuntimeException("Compressed data ended before the original length was reached.");
+                }
+                break;
+        }
+    }
+
+    /**
+     * Decompresses a byte array using plain Huffman coding into part of an existing array.
+     * @param data      the data to decompress
+     * @param table     the prefix code table to use to decompress the data
+     * @param length    the length of the compressed data in bits
+     * @param out       the array to decompress into
+     * @param offset    the index in the array at which to begin writing
+     * @param count     the maximum number of bytes to decompress
+     * @return          the number of bytes decompressed
+     */
+    public int decompress(byte[] data, PrefixCodeTable table, int length, byte[] out, int offset, int count) {
+        // Only collect metrics if someone is listening for them.
+        final HuffmanEvent event = beginEvent(false);
+        if (event == null) {
+            return decode(data, table, length, out, offset, count);
+        }
+        final CompressionMetrics metrics = new CompressionMetrics();
+        final long start = System.nanoTime();
+        final int decoded = decode(data, table, length, out, offset, count);
+        metrics.decodeNanos = System.nanoTime() - start;
+        metrics.setResult(CompressionMode.HUFFMAN, table, length, decoded);
+        metrics.bytesIn = data.length;
+        metrics.bytesOut = decoded;
+        report(event, metrics);
+        return decoded;
+    }
+
+    /**
+     * Decodes a byte array using plain Huffman coding into part of an existing array.
+     * @param data      the data to decode
+     * @param table     the prefix code table to use to decode the data
+     * @param length    the length of the compressed data in bits
+     * @param out       the array to decode into
+     * @param offset    the index in the array at which to begin writing
+     * @param count     the maximum number of bytes to decode
+     * @return          the number of bytes decoded
+     */
+    private static int decode(byte[] data, PrefixCodeTable table, int length, byte[] out, int offset, int count) {
+        final BitReader in = new BitReader(ByteBuffer.wrap(data), 0, length);
+        return table.getDecodingTable().decode(in, out, offset, count);
+    }
+
+    /**
+     * Compresses a byte array using a prefix code table shared ahead of time, so that no table needs to be built or
+     * stored.
+     *
+     * The output begins with the dictionary ID, followed by the original length as a variable-length integer of seven
+     * bits per byte, followed by the compressed data.
+     *
+     * @param data          the data to compress
+     * @param dictionary    the dictionary holding the table to compress with
+     * @return              the compressed data, complete with dictionary ID
+     */
+    public byte[] compress(byte[] data, PrefixCodeDictionary dictionary) {
+        return DictionaryCodec.encode(data, dictionary);
+    }
+
+    /**
+     * Decompresses a byte array compressed by {@link #compress(byte[], PrefixCodeDictionary)}.
+     * @param data          the data to decompress
+     * @param dictionary    the dictionary holding the table the data was compressed with
+     * @return              the decompressed data
+     */
+    public byte[] decompress(byte[] data, PrefixCodeDictionary dictionary) {
+        return DictionaryCodec.decode(data, dictionary);
+    }
+
+    /**
+     * Compresses a byte array in a single pass using adaptive Huffman coding, in the same format as an
+     * {@link AdaptiveHuffmanOutputStream}. No prefix code table is needed to decompress the data.
+     * @param data  the data to compress
+     * @return      the compressed data
+     */
+    public byte[] compressAdaptive(byte[] data) {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AdaptiveHuffmanOutputStream adaptiveOut = new AdaptiveHuffmanOutputStream(out)) {
+            adaptiveOut.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
 
-        // Decompress data.
-        BitSequence buffer = new BitSequence();
-        while (bitIn.getPosition() < length) {
-            buffer.append(bitIn.read());
-            if (table.hasCode(buffer)) {
-                out.write(table.translateCode(buffer));
-                buffer = new BitSequence();
+    /**
+     * Decompresses a byte array compressed using adaptive Huffman coding.
+     * @param data  the data to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressAdaptive(byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+        final byte[] buffer = new byte[4096];
+        try (AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(data))) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
             }
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid adaptive Huffman data.", e);
         }
         return out.toByteArray();
     }
+
+    /**
+     * Compresses a byte array using plain Huffman coding, splitting it into four interleaved streams that share a
+     * prefix code table so that they can be decoded side by side.
+     *
+     * The data is cut into four segments of equal length, except that the last may be shorter, and each segment is
+     * encoded into its own byte-aligned stream. The output begins with the original length and the table as written by
+     * {@link HuffmanCompressionResult#writeTo}, followed by a jump table holding the length of each stream in bits,
+     * followed by the streams themselves.
+     *
+     * @param data  the data to compress
+     * @return      the compressed data, complete with table and jump table
+     */
+    public byte[] compressInterleaved(byte[] data) {
+        //  Calculate translation table, then code the streams with it.
+        final ByteFrequencySet frequencies = countFrequencies(data, 0, data.length);
+        final PrefixCodeTable table = buildTable(frequencies, null);
+        return InterleavedCodec.encode(data, table, getExpectedLength(table, frequencies, data.length));
+    }
+
+    /**
+     * Decompresses a byte array compressed by {@link #compressInterleaved(byte[])}, decoding a symbol from each of the
+     * four streams in turn.
+     * @param data  the data to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressInterleaved(byte[] data) {
+        return InterleavedCodec.decode(data);
+    }
+
+    /**
+     * Compresses a byte array using order-1 context-modelled Huffman coding, in which each byte is coded with a prefix
+     * code table chosen by the byte before it. Text and other data where each byte depends on the last compress much
+     * better this way, at the cost of storing more than one table.
+     *
+     * The output begins with the original length, followed by the context model, which is the number of tables less
+     * one, the table used after each byte if there is more than one, and the tables themselves. The length of the
+     * compressed data in bits and then the compressed data follow.
+     *
+     * @param data  the data to compress
+     * @return      the compressed data, complete with context model
+     */
+    public byte[] compressContext(byte[] data) {
+        return ContextCodec.encode(data, maxContextTables,
+                maxCodeLength == 0 ? CanonicalCodeBuilder.MAX_CODE_LENGTH : maxCodeLength);
+    }
+
+    /**
+     * Decompresses a byte array compressed by {@link #compressContext(byte[])}.
+     * @param data  the data to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressContext(byte[] data) {
+        return ContextCodec.decode(data);
+    }
+
+    /**
+     * Compresses an array of int symbols, each from zero to one less than {@link IntFrequencySet#MAX_ALPHABET_SIZE},
+     * using plain Huffman coding. This suits data with alphabets too large for bytes, such as columns of small
+     * integers, dictionary identifiers or tokens from another coder.
+     *
+     * Codes respect the maximum code length unless there are too many distinct symbols for it, in which case they are
+     * limited to the fewest bits that give every symbol a code. The output begins with the number of symbols,
+     * followed by the table as written by {@link IntPrefixCodeTable#writeTo}, the length of the compressed data in
+     * bits and then the compressed data.
+     *
+     * @param data  the symbols to compress
+     * @return      the compressed data, complete with table
+     */
+    public byte[] compressInts(int[] data) {
+        return IntCodec.encode(data, maxCodeLength == 0 ? IntPrefixCodeTable.MAX_CODE_LENGTH : maxCodeLength);
+    }
+
+    /**
+     * Decompresses an array of int symbols compressed by {@link #compressInts(int[])}.
+     * @param data  the data to decompress
+     * @return      the decompressed symbols
+     */
+    public int[] decompressInts(byte[] data) {
+        return IntCodec.decode(data);
+    }
+
+    /**
+     * Compresses a byte array by replacing repeated strings with matches that copy earlier bytes, then Huffman coding
+     * the result, much as DEFLATE does. Data with many repeats, such as logs, compresses far better this way than
+     * with plain Huffman coding. The window size and match level trade speed for compression.
+     *
+     * Literal bytes and match lengths share one prefix code table and match distances have another. Each distance is
+     * coded as a distance code followed by extra bits, as in DEFLATE. The output begins with the original length,
+     * followed by the two tables as written by {@link IntPrefixCodeTable#writeTo}, the length of the compressed data
+     * in bits and then the compressed data.
+     *
+     * @param data  the data to compress
+     * @return      the compressed data, complete with tables
+     */
+    public byte[] compressLz(byte[] data) {
+        return LzCodec.encode(data, new MatchFinder(windowSize, matchLevel),
+                maxCodeLength == 0 ? IntPrefixCodeTable.MAX_CODE_LENGTH : maxCodeLength);
+    }
+
+    /**
+     * Decompresses a byte array compressed by {@link #compressLz(byte[])}.
+     * @param data  the data to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressLz(byte[] data) {
+        return LzCodec.decode(data);
+    }
+
+    /**
+     * Compresses a byte array using plain Huffman coding, splitting it into blocks that are compressed in parallel.
+     *
+     * The output begins with the number of blocks, followed by an index holding the original and compressed length of
+     * each block, followed by the blocks themselves as written by {@link HuffmanCompressionResult#writeTo}.
+     *
+     * @param data  the data to compress
+     * @return      the compressed data, complete with block index and tables
+     */
+    public byte[] compressParallel(final byte[] data) {
+        // Compress and serialize every block independently.
+        final int blockCount = (int) ((data.length + (long) blockSize - 1) / blockSize);
+        final byte[][] blocks = new byte[blockCount][];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final int offset = index * blockSize;
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try {
+                    compress(data, offset, Math.min(blockSize, data.length - offset)).writeTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                blocks[index] = out.toByteArray();
+            }
+        }));
+
+        // Write the block count and index, then the blocks.
+        long size = 4 + (long) blockCount * INDEX_ENTRY_SIZE;
+        for (byte[] block : blocks) {
+            size += block.length;
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Compressed data is too large to hold in a single array.");
+        }
+        final ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            out.putInt(Math.min(blockSize, data.length - i * blockSize));
+            out.putInt(blocks[i].length);
+        }
+        for (byte[] block : blocks) {
+            out.put(block);
+        }
+        return out.array();
+    }
+
+    /**
+     * Decompresses a byte array compressed by {@link #compressParallel(byte[])}, decompressing blocks in parallel.
+     * @param data  the data to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressParallel(final byte[] data) {
+        // Read the index, working out where each block starts in the input and the output.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        final int blockCount = in.getInt();
+        if (blockCount < 0 || blockCount > (data.length - 4) / INDEX_ENTRY_SIZE) {
+            throw new RuntimeException("Invalid block index.");
+        }
+        final int[] inputOffsets = new int[blockCount];
+        final int[] compressedLengths = new int[blockCount];
+        final int[] outputOffsets = new int[blockCount];
+        final int[] originalLengths = new int[blockCount];
+        long inputOffset = 4 + (long) blockCount * INDEX_ENTRY_SIZE;
+        long outputOffset = 0;
+        for (int i = 0; i < blockCount; i++) {
+            originalLengths[i] = in.getInt();
+            compressedLengths[i] = in.getInt();
+            if (originalLengths[i] < 0 || compressedLengths[i] < 0) {
+                throw new RuntimeException("Invalid block index.");
+            }
+            inputOffsets[i] = (int) inputOffset;
+            outputOffsets[i] = (int) outputOffset;
+            inputOffset += compressedLengths[i];
+            outputOffset += originalLengths[i];
+        }
+        if (inputOffset != data.length || outputOffset > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Invalid block index.");
+        }
+
+        // Read every block, checking its header against the index before the output is sized from the index.
+        final HuffmanCompressionResult[] blocks = new HuffmanCompressionResult[blockCount];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final ByteArrayInputStream block = new ByteArrayInputStream(data, inputOffsets[index],
+                        compressedLengths[index]);
+                try {
+                    blocks[index] = HuffmanCompressionResult.readFrom(block, originalLengths[index]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (blocks[index].getOriginalLength() != originalLengths[index] || block.available() != 0) {
+                    throw new RuntimeException("Block does not match the block index.");
+                }
+            }
+        }));
+
+        // Decompress every block straight into its place in the output.
+        final byte[] out = new byte[(int) outputOffset];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                decompress(blocks[index], out, outputOffsets[index]);
+            }
+        }));
+        return out;
+    }
+
+    /**
+     * Compresses a byte array into a self-describing container, splitting it into blocks that are compressed in
+     * parallel and checksummed.
+     *
+     * The container begins with {@link #CONTAINER_MAGIC}, a version byte and the number of blocks. Each block follows
+     * as its length in bytes, a CRC-32C checksum of its bytes and then the block itself as written by
+     * {@link HuffmanCompressionResult#writeTo}, which holds the original length, table and bit length of the block.
+     *
+     * @param data  the data to compress
+     * @return      the container holding the compressed data
+     */
+    public byte[] compressToContainer(final byte[] data) {
+        // Compress, serialize and checksum every block independently.
+        final int blockCount = (int) ((data.length + (long) blockSize - 1) / blockSize);
+        final byte[][] blocks = new byte[blockCount][];
+        final int[] checksums = new int[blockCount];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final int offset = index * blockSize;
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try {
+                    compress(data, offset, Math.min(blockSize, data.length - offset)).writeTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                blocks[index] = out.toByteArray();
+                final CRC32C crc = new CRC32C();
+                crc.update(blocks[index], 0, blocks[index].length);
+                checksums[index] = (int) crc.getValue();
+            }
+        }));
+
+        // Write the container header, then each block behind its length and checksum.
+        long size = CONTAINER_HEADER_SIZE + (long) blockCount * CONTAINER_BLOCK_HEADER_SIZE;
+        for (byte[] block : blocks) {
+            size += block.length;
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Compressed data is too large to hold in a single array.");
+        }
+        final ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(CONTAINER_MAGIC);
+        out.put((byte) CONTAINER_VERSION);
+        out.putInt(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            out.putInt(blocks[i].length);
+            out.putInt(checksums[i]);
+            out.put(blocks[i]);
+        }
+        return out.array();
+    }
+
+    /**
+     * Decompresses a container written by {@link #compressToContainer(byte[])}, checking every block against its
+     * checksum before decompressing blocks in parallel.
+     * @param data  the container to decompress
+     * @return      the decompressed data
+     */
+    public byte[] decompressContainer(final byte[] data) {
+        // Check the header, then walk the blocks working out where each starts in the input.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < CONTAINER_HEADER_SIZE || in.getInt() != CONTAINER_MAGIC) {
+            throw new RuntimeException("Data is not a Huffman container.");
+        }
+        final int version = in.get() & 0xFF;
+        if (version != CONTAINER_VERSION) {
+            throw new RuntimeException("Unsupported container version " + version + ".");
+        }
+        final int blockCount = in.getInt();
+        if (blockCount < 0 || blockCount > (data.length - CONTAINER_HEADER_SIZE) / CONTAINER_BLOCK_HEADER_SIZE) {
+            throw new RuntimeException("Invalid container header.");
+        }
+        final int[] inputOffsets = new int[blockCount];
+        final int[] blockLengths = new int[blockCount];
+        final int[] checksums = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            if (in.remaining() < CONTAINER_BLOCK_HEADER_SIZE + 4) {
+                throw new RuntimeException("Container ended before its last block.");
+            }
+            blockLengths[i] = in.getInt();
+            checksums[i] = in.getInt();
+            if (blockLengths[i] < 4 || blockLengths[i] > in.remaining()) {
+                throw new RuntimeException("Container ended before its last block.");
+            }
+            inputOffsets[i] = in.position();
+            in.position(inputOffsets[i] + blockLengths[i]);
+        }
+        if (in.hasRemaining()) {
+            throw new RuntimeException("Invalid container.");
+        }
+
+        // Check every block against its checksum before trusting the original length in its header.
+        final int[] originalLengths = new int[blockCount];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final CRC32C crc = new CRC32C();
+                crc.update(data, inputOffsets[index], blockLengths[index]);
+                if ((int) crc.getValue() != checksums[index]) {
+                    throw new RuntimeException("Checksum mismatch in block " + index + ".");
+                }
+                originalLengths[index] = in.getInt(inputOffsets[index]);
+            }
+        }));
+        final int[] outputOffsets = new int[blockCount];
+        long outputOffset = 0;
+        for (int i = 0; i < blockCount; i++) {
+            if (originalLengths[i] < 0) {
+                throw new RuntimeException("Invalid compressed block.");
+            }
+            outputOffsets[i] = (int) outputOffset;
+            outputOffset += originalLengths[i];
+        }
+        if (outputOffset > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Invalid container.");
+        }
+
+        // Decompress every block straight into its place in the output.
+        final byte[] out = new byte[(int) outputOffset];
+        getPool().invoke(new BlockTask(0, blockCount, new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                final HuffmanCompressionResult block;
+                try {
+                    block = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(data, inputOffsets[index],
+                            blockLengths[index]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                decompress(block, out, outputOffsets[index]);
+            }
+        }));
+        return out;
+    }
+
+    /**
+     * Compresses a stream of any length into a segmented container, one segment at a time, so that memory use is
+     * bounded by the segment size however much data there is.
+     *
+     * The container begins like one written by {@link #compressToContainer(byte[])}, but with version
+     * {@link #SEGMENTED_CONTAINER_VERSION} and no block count. Each segment of up to {@link #getBlockSize()} bytes,
+     * capped at {@link #MAX_SEGMENT_SIZE}, follows as its length, CRC-32C checksum and block. A zero length ends the
+     * segments, and is followed by the total length of the data and the number of segments as longs, so that a
+     * truncated container is detected.
+     *
+     * @param in            the stream holding the data to compress, read to its end
+     * @param out           the stream to write the container to
+     * @return              the number of bytes written
+     * @throws IOException  if an I/O error occurs
+     */
+    public long compressSegmented(InputStream in, OutputStream out) throws IOException {
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(CONTAINER_MAGIC);
+        dataOut.writeByte(SEGMENTED_CONTAINER_VERSION);
+        long written = 5;
+
+        // Compress one segment at a time through the same buffers.
+        final byte[] segment = new byte[Math.min(blockSize, MAX_SEGMENT_SIZE)];
+        final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        final CRC32C crc = new CRC32C();
+        long totalLength = 0;
+        long segmentCount = 0;
+        int length;
+        while ((length = readSegment(in, segment)) > 0) {
+            block.reset();
+            compress(segment, 0, length).writeTo(block);
+            crc.reset();
+            final byte[] bytes = block.toByteArray();
+            crc.update(bytes, 0, bytes.length);
+            dataOut.writeInt(bytes.length);
+            dataOut.writeInt((int) crc.getValue());
+            dataOut.write(bytes);
+            written += CONTAINER_BLOCK_HEADER_SIZE + bytes.length;
+            totalLength += length;
+            segmentCount++;
+        }
+
+        // End the segments and write the totals.
+        dataOut.writeInt(0);
+        dataOut.writeLong(totalLength);
+        dataOut.writeLong(segmentCount);
+        dataOut.flush();
+        return written + 4 + 16;
+    }
+
+    /**
+     * Decompresses a segmented container written by {@link #compressSegmented(InputStream, OutputStream)}, one segment
+     * at a time, checking every segment against its checksum and the totals against the data decompressed.
+     * @param in            the stream holding the container
+     * @param out           the stream to write the decompressed data to
+     * @return              the number of bytes written
+     * @throws IOException  if an I/O error occurs or the stream does not hold a valid segmented container
+     */
+    public long decompressSegmented(InputStream in, OutputStream out) throws IOException {
+        final DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != CONTAINER_MAGIC) {
+            throw new IOException("Data is not a Huffman container.");
+        }
+        final int version = dataIn.readUnsignedByte();
+        if (version != SEGMENTED_CONTAINER_VERSION) {
+            throw new IOException("Unsupported segmented container version " + version + ".");
+        }
+
+        // Decompress one segment at a time, growing the buffers only as far as the largest segment.
+        final int maxBlockLength = 4 + PrefixCodeTable.MAX_SERIALIZED_SIZE + 4 + MAX_SEGMENT_SIZE;
+        final CRC32C crc = new CRC32C();
+        byte[] block = new byte[0];
+        byte[] segment = new byte[0];
+        long totalLength = 0;
+        long segmentCount = 0;
+        int blockLength;
+        while ((blockLength = dataIn.readInt()) != 0) {
+            final int checksum = dataIn.readInt();
+            if (blockLength < 5 || blockLength > maxBlockLength) {
+                throw new IOException("Invalid segment length.");
+            }
+            if (block.length < blockLength) {
+                block = new byte[blockLength];
+            }
+            dataIn.readFully(block, 0, blockLength);
+            crc.reset();
+            crc.update(block, 0, blockLength);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch in segment " + segmentCount + ".");
+            }
+            final HuffmanCompressionResult result = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(block,
+                    0, blockLength), MAX_SEGMENT_SIZE);
+            if (segment.length < result.getOriginalLength()) {
+                segment = new byte[result.getOriginalLength()];
+            }
+            try {
+                decompress(result, segment, 0);
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid compressed segment.", e);
+            }
+            out.write(segment, 0, result.getOriginalLength());
+            totalLength += result.getOriginalLength();
+            segmentCount++;
+        }
+
+        // Check the totals, so that lost segments don't go unnoticed.
+        if (dataIn.readLong() != totalLength || dataIn.readLong() != segmentCount) {
+            throw new IOException("Segmented container totals do not match its segments.");
+        }
+        return totalLength;
+    }
+
+    /**
+     * Reads from a stream until a buffer is full or the stream ends.
+     * @param in            the stream to read from
+     * @param buffer        the buffer to fill
+     * @return              the number of bytes read, which is less than the length of the buffer only at the end of
+     *                      the stream
+     * @throws IOException  if an I/O error occurs
+     */
+    private static int readSegment(InputStream in, byte[] buffer) throws IOException {
+        int count = 0;
+        while (count < buffer.length) {
+            final int read = in.read(buffer, count, buffer.length - count);
+            if (read < 0) {
+                break;
+            }
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * Compresses a file using plain Huffman coding, in blocks written in the same format as a
+     * {@link HuffmanOutputStream}. Both files are memory-mapped a block at a time, so data is counted and encoded in
+     * place without being copied onto the heap.
+     * @param source        the file to compress
+     * @param target        the file to write compressed data to, replacing any existing file
+     * @return              the number of bytes written to the target file
+     * @throws IOException  if an I/O error occurs
+     */
+    public long compress(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long outputPosition = 0;
+            for (long position = 0; position < size; position += blockSize) {
+                // Build the table from counts taken straight over the mapped block.
+                final int length = (int) Math.min(blockSize, size - position);
+                final MappedByteBuffer block = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+                final HuffmanEvent event = beginEvent(true);
+                final CompressionMetrics metrics = event == null ? null : new CompressionMetrics();
+                long time = metrics == null ? 0 : System.nanoTime();
+                final ByteFrequencySet frequencies = new ByteFrequencySet();
+                frequencies.update(block);
+                if (metrics != null) {
+                    metrics.entropy = frequencies.getEntropy();
+                    metrics.histogramNanos = System.nanoTime() - time;
+                }
+                CompressionMode mode = chooseMode(frequencies);
+                final PrefixCodeTable table = mode == CompressionMode.HUFFMAN ? buildTable(frequencies, metrics)
+                        : null;
+                final long bitLength = table == null ? 0 : table.getEncodedLength(frequencies);
+                if (table != null && !isWorthCoding(table, bitLength, length)) {
+                    mode = CompressionMode.STORED;
+                }
+                if (mode != CompressionMode.HUFFMAN) {
+                    // Write the length and marker, then either the block as it is or its only byte.
+                    final int bodySize = mode == CompressionMode.STORED ? length : 1;
+                    final MappedByteBuffer output = out.map(FileChannel.MapMode.READ_WRITE, outputPosition,
+                            5 + bodySize);
+                    output.putInt(length);
+                    output.put((byte) (mode == CompressionMode.STORED ? HuffmanCompressionResult.STORED_MARKER
+                            : HuffmanCompressionResult.SINGLE_SYMBOL_MARKER));
+                    block.limit(bodySize);
+                    output.put(block);
+                    outputPosition += 5 + bodySize;
+                    if (metrics != null) {
+                        metrics.setResult(mode, null, mode == CompressionMode.STORED ? length * 8L : 0, length);
+                        metrics.bytesIn = length;
+                        metrics.bytesOut = 5 + bodySize;
+                        report(event, metrics);
+                    }
+                    continue;
+                }
+                if (bitLength > Integer.MAX_VALUE) {
+                    throw new RuntimeException("Block size is too large for the compressed length to be stored.");
+                }
+
+                // Map exactly enough of the target for the header and encoded block, then encode into it.
+                final ByteArrayOutputStream header = new ByteArrayOutputStream();
+                HuffmanCompressionResult.writeHeader(new DataOutputStream(header), length, table, (int) bitLength);
+                final int payloadSize = (int) ((bitLength + 7) / 8);
+                final MappedByteBuffer output = out.map(FileChannel.MapMode.READ_WRITE, outputPosition,
+                        header.size() + payloadSize);
+                output.put(header.toByteArray());
+                time = metrics == null ? 0 : System.nanoTime();
+                final BitWriter writer = new BitWriter(output);
+                table.encode(block, 0, length, writer);
+                writer.finish();
+                outputPosition += header.size() + payloadSize;
+                if (metrics != null) {
+                    metrics.encodeNanos = System.nanoTime() - time;
+                    metrics.setResult(mode, table, bitLength, length);
+                    metrics.bytesIn = length;
+                    metrics.bytesOut = header.size() + payloadSize;
+                    report(event, metrics);
+                }
+            }
+            return outputPosition;
+        }
+    }
+
+    /**
+     * Decompresses a file written by {@link #compress(Path, Path)} or a {@link HuffmanOutputStream}. Both files are
+     * memory-mapped a block at a time, so data is decoded in place without being copied onto the heap.
+     * @param source        the file to decompress
+     * @param target        the file to write decompressed data to, replacing any existing file
+     * @return              the number of bytes written to the target file
+     * @throws IOException  if an I/O error occurs or the source file does not hold valid blocks
+     */
+    public long decompress(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long position = 0;
+            long outputPosition = 0;
+            while (position < size) {
+                // Read as much as the largest possible block header.
+                final ByteBuffer header = ByteBuffer.allocate((int) Math.min(size - position,
+                        8 + PrefixCodeTable.MAX_SERIALIZED_SIZE));
+                while (header.hasRemaining()) {
+                    if (in.read(header, position + header.position()) < 0) {
+                        break;
+                    }
+                }
+                final ByteArrayInputStream headerIn = new ByteArrayInputStream(header.array());
+                final DataInputStream dataIn = new DataInputStream(headerIn);
+                final int originalLength = dataIn.readInt();
+                final int flags = dataIn.read();
+                if (originalLength < 0) {
+                    throw new IOException("Invalid compressed block.");
+                }
+                final HuffmanEvent event = beginEvent(false);
+                final long start = event == null ? 0 : System.nanoTime();
+                if (flags == HuffmanCompressionResult.STORED_MARKER
+                        || flags == HuffmanCompressionResult.SINGLE_SYMBOL_MARKER) {
+                    // Copy the stored block, or fill the output with its only byte.
+                    final boolean stored = flags == HuffmanCompressionResult.STORED_MARKER;
+                    position += 5;
+                    if (position + (stored ? originalLength : 1) > size) {
+                        throw new IOException("Invalid compressed block.");
+                    }
+                    final MappedByteBuffer output = out.map(FileChannel.MapMode.READ_WRITE, outputPosition,
+                            originalLength);
+                    if (stored) {
+                        output.put(in.map(FileChannel.MapMode.READ_ONLY, position, originalLength));
+                        position += originalLength;
+                    } else {
+                        final byte symbol = header.get(5);
+                        while (output.hasRemaining()) {
+                            output.put(symbol);
+                        }
+                        position += 1;
+                    }
+                    outputPosition += originalLength;
+                    if (event != null) {
+                        final CompressionMetrics metrics = new CompressionMetrics();
+                        metrics.decodeNanos = System.nanoTime() - start;
+                        metrics.setResult(stored ? CompressionMode.STORED : CompressionMode.SINGLE_SYMBOL, null,
+                                stored ? originalLength * 8L : 0, originalLength);
+                        metrics.bytesIn = 5 + (stored ? originalLength : 1);
+                        metrics.bytesOut = originalLength;
+                        report(event, metrics);
+                    }
+                    continue;
+                }
+                final PrefixCodeTable table = PrefixCodeTable.readFrom(flags, dataIn);
+                final int bitLength = dataIn.readInt();
+                final int headerSize = header.capacity() - headerIn.available();
+                position += headerSize;
+
+                // Decode the mapped block straight into the mapped target.
+                final int payloadSize = (int) ((bitLength + 7L) / 8);
+                if (originalLength < 0 || bitLength < 0 || position + payloadSize > size) {
+                    throw new IOException("Invalid compressed block.");
+                }
+                final MappedByteBuffer payload = in.map(FileChannel.MapMode.READ_ONLY, position, payloadSize);
+                final MappedByteBuffer output = out.map(FileChannel.MapMode.READ_WRITE, outputPosition,
+                        originalLength);
+                if (table.getDecodingTable().decode(new BitReader(payload, 0, bitLength), output, 0, originalLength)
+                        != originalLength) {
+                    throw new IOException("Compressed block ended before its original length was reached.");
+                }
+                position += payloadSize;
+                outputPosition += originalLength;
+                if (event != null) {
+                    final CompressionMetrics metrics = new CompressionMetrics();
+                    metrics.decodeNanos = System.nanoTime() - start;
+                    metrics.setResult(CompressionMode.HUFFMAN, table, bitLength, originalLength);
+                    metrics.bytesIn = headerSize + payloadSize;
+                    metrics.bytesOut = originalLength;
+                    report(event, metrics);
+                }
+            }
+            return outputPosition;
+        }
+    }
 }
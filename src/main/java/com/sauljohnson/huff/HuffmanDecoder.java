@@ -0,0 +1,183 @@
+package com.sauljohnson.huff;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a reusable decoder that decompresses blocks written by {@link HuffmanEncoder}, held in buffers heap or
+ * direct, into buffers supplied by the caller.
+ *
+ * A decoder keeps its code tables, decoding table and bit reader between calls, so decoding allocates nothing once
+ * the decoder has been created and its decoding table has grown to fit. The decoding table is only rebuilt when a
+ * block's code lengths differ from the previous block's. Decoders are not thread-safe; give each thread its own.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class HuffmanDecoder {
+
+    /** The number of byte symbols. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** Holds the code length of each byte in the previous block. */
+    private final int[] codeLengths = new int[SYMBOL_COUNT];
+
+    /** Holds the code length of each byte in the block being decoded. */
+    private final int[] nextCodeLengths = new int[SYMBOL_COUNT];
+
+    /** Holds the code of each byte in the previous block. */
+    private final int[] codeWords = new int[SYMBOL_COUNT];
+
+    /** Builds codes from the code lengths. */
+    private final CanonicalCodeBuilder builder = new CanonicalCodeBuilder();
+
+    /** Resolves codes to bytes. */
+    private final DecodingTable table = new DecodingTable();
+
+    /** Reads encoded bits from the input buffer. */
+    private final BitReader reader = new BitReader(ByteBuffer.allocate(0), 0, 0);
+
+    /** Whether or not the decoding table has been built yet. */
+    private boolean built;
+
+    /** The number of bytes taken up by the last block decoded. */
+    private int blockLength;
+
+    /**
+     * Gets the length of the data before compression of an encoded block, for sizing output buffers.
+     * @param src       the buffer holding the encoded block
+     * @param offset    the index in the buffer of the encoded block
+     * @return          the number of bytes the block decodes to
+     */
+    public static int getDecodedLength(ByteBuffer src, int offset) {
+        return getInt(src, offset);
+    }
+
+    /**
+     * Decodes the block at the position of a buffer, advancing the position of the source buffer past the block and
+     * that of the destination buffer past the decoded data.
+     * @param src   the buffer holding the encoded block between its position and limit
+     * @param dst   the buffer to write the decoded data to from its position
+     * @return      the number of bytes written to the destination buffer
+     */
+    public int decode(ByteBuffer src, ByteBuffer dst) {
+        final int written = decode(src, src.position(), src.remaining(), dst, dst.position());
+        src.position(src.position() + blockLength);
+        dst.position(dst.position() + written);
+        return written;
+    }
+
+    /**
+     * Decodes a block held in a buffer, leaving the positions of both buffers unchanged.
+     * @param src       the buffer holding the encoded block
+     * @param offset    the index in the source buffer of the encoded block
+     * @param length    the number of bytes in the source buffer that may be read, at least the length of the block
+     * @param dst       the buffer to write the decoded data to
+     * @param dstOffset the index in the destination buffer at which to begin writing
+     * @return          the number of bytes written to the destination buffer
+     * @throws BufferOverflowException  if the decoded data does not fit before the destination buffer's limit
+     */
+    public int decode(ByteBuffer src, int offset, int length, ByteBuffer dst, int dstOffset) {
+        // Read the header.
+        if (length < 4 + 1) {
+            throw new RuntimeException("Compressed data ended before the end of the block header.");
+        }
+        final int originalLength = getInt(src, offset);
+        final int flags = src.get(offset + 4) & 0xFF;
+        if (flags == HuffmanCompressionResult.STORED_MARKER || flags == HuffmanCompressionResult.SINGLE_SYMBOL_MARKER) {
+            return decodeRaw(src, offset, length, dst, dstOffset, originalLength,
+                    flags == HuffmanCompressionResult.STORED_MARKER);
+        }
+        if (length < 4 + 1 + 4) {
+            throw new RuntimeException("Compressed data ended before the end of the block header.");
+        }
+        final int tableLength = PrefixCodeTable.readCodeLengths(src, offset + 4, nextCodeLengths);
+        if (4 + tableLength + 4 > length) {
+            throw new RuntimeException("Compressed data ended before the end of the block header.");
+        }
+        final int bitLength = getInt(src, offset + 4 + tableLength);
+        final int payloadIndex = offset + 4 + tableLength + 4;
+        if (originalLength < 0 || bitLength < 0) {
+            throw new RuntimeException("Invalid block header.");
+        }
+        final long end = payloadIndex + (bitLength + 7L) / 8;
+        if (end > offset + (long) length) {
+            throw new RuntimeException("Compressed data ended before the end of the block.");
+        }
+        if (dstOffset < 0 || dstOffset + (long) originalLength > dst.limit()) {
+            throw new BufferOverflowException();
+        }
+
+        // Rebuild the decoding table only if the codes have changed.
+        if (!built || !sameCodeLengths()) {
+            built = false;
+            builder.assignCodes(nextCodeLengths, codeWords);
+            System.arraycopy(nextCodeLengths, 0, codeLengths, 0, SYMBOL_COUNT);
+            table.rebuild(codeLengths, codeWords);
+            built = true;
+        }
+
+        // Decode the data.
+        reader.reset(src, payloadIndex, 0, bitLength);
+        final int written = table.decode(reader, dst, dstOffset, originalLength);
+        if (written < originalLength) {
+            throw new RuntimeException("Compressed data ended before the original length was reached.");
+        }
+        blockLength = (int) (end - offset);
+        return written;
+    }
+
+    /**
+     * Decodes a stored or single-symbol block by copying its data or repeating its only byte.
+     * @param src               the buffer holding the block
+     * @param offset            the index in the source buffer of the block
+     * @param length            the number of bytes in the source buffer that may be read
+     * @param dst               the buffer to write the decoded data to
+     * @param dstOffset         the index in the destination buffer at which to begin writing
+     * @param originalLength    the number of bytes the block decodes to
+     * @param stored            true if the block is stored, false if it holds a single symbol
+     * @return                  the number of bytes written to the destination buffer
+     */
+    private int decodeRaw(ByteBuffer src, int offset, int length, ByteBuffer dst, int dstOffset, int originalLength,
+                          boolean stored) {
+        if (originalLength < 0) {
+            throw new RuntimeException("Invalid block header.");
+        }
+        final int bodyLength = stored ? originalLength : 1;
+        if (5L + bodyLength > length) {
+            throw new RuntimeException("Compressed data ended before the end of the block.");
+        }
+        if (dstOffset < 0 || dstOffset + (long) originalLength > dst.limit()) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < originalLength; i++) {
+            dst.put(dstOffset + i, src.get(offset + 5 + (stored ? i : 0)));
+        }
+        blockLength = 5 + bodyLength;
+        return originalLength;
+    }
+
+    /**
+     * Gets whether or not the code lengths of the block being decoded match those of the previous block.
+     * @return  true if the code lengths match, otherwise false
+     */
+    private boolean sameCodeLengths() {
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            if (codeLengths[i] != nextCodeLengths[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a big-endian integer from a buffer regardless of the buffer's byte order.
+     * @param buffer    the buffer to read from
+     * @param index     the index in the buffer at which to read
+     * @return          the integer read
+     */
+    private static int getInt(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xFF) << 24 | (buffer.get(index + 1) & 0xFF) << 16
+                | (buffer.get(index + 2) & 0xFF) << 8 | buffer.get(index + 3) & 0xFF;
+    }
+}
@@ -0,0 +1,201 @@
+package com.sauljohnson.huff;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents a reusable encoder that Huffman-compresses data held in buffers, heap or direct, into buffers supplied by
+ * the caller.
+ *
+ * An encoder keeps its histogram, code tables and bit writer between calls, so encoding allocates nothing once the
+ * encoder has been created. Each call writes a single block in the same format as
+ * {@link HuffmanCompressionResult#writeTo(java.io.OutputStream)}, which {@link HuffmanDecoder} reads back. Data made
+ * up of one byte repeated, or that coding would not shrink, is written as a single-symbol or stored block. Encoders
+ * are not thread-safe; give each thread its own.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class HuffmanEncoder {
+
+    /** The number of byte symbols. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** The number of bytes taken up by the original length and bit length fields of a block. */
+    private static final int LENGTH_FIELDS_SIZE = 8;
+
+    /** The number of lanes bytes are counted into. */
+    private static final int LANES = 4;
+
+    /** The smallest maximum code length that may be set. */
+    private static final int MIN_MAX_CODE_LENGTH = 8;
+
+    /** Holds the lanes bytes are counted into. */
+    private final int[] lanes = new int[LANES * SYMBOL_COUNT];
+
+    /** Holds the occurrence count of each byte. */
+    private final long[] counts = new long[SYMBOL_COUNT];
+
+    /** Holds the code length of each byte. */
+    private final int[] codeLengths = new int[SYMBOL_COUNT];
+
+    /** Holds the code of each byte. */
+    private final int[] codeWords = new int[SYMBOL_COUNT];
+
+    /** Builds codes from the counts. */
+    private final CanonicalCodeBuilder builder = new CanonicalCodeBuilder();
+
+    /** Writes encoded bits to the output buffer. */
+    private final BitWriter writer = new BitWriter(ByteBuffer.allocate(0));
+
+    /** The maximum length of any prefix code in bits. */
+    private int maxCodeLength = CanonicalCodeBuilder.MAX_CODE_LENGTH;
+
+    /**
+     * Gets the maximum length of any prefix code in bits.
+     * @return  the maximum length of any prefix code in bits
+     */
+    public int getMaxCodeLength() {
+        return maxCodeLength;
+    }
+
+    /**
+     * Sets the maximum length of any prefix code in bits. Codes are never longer than 32 bits, which is also the
+     * default; a limit of 11 bits lets every code resolve with a single table lookup when decoding.
+     * @param maxCodeLength the maximum length of any prefix code in bits, from 8 to 32
+     */
+    public void setMaxCodeLength(int maxCodeLength) {
+        if (maxCodeLength < MIN_MAX_CODE_LENGTH || maxCodeLength > CanonicalCodeBuilder.MAX_CODE_LENGTH) {
+            throw new RuntimeException("Maximum code length must be between 8 and 32 bits.");
+        }
+        this.maxCodeLength = maxCodeLength;
+    }
+
+    /**
+     * Gets the largest number of bytes that encoding data of the specified length can produce, for sizing output
+     * buffers. No prefix code does worse than eight bits per byte on average, so only the header adds to the length.
+     * @param length    the number of bytes of data to encode
+     * @return          the largest number of bytes the encoded block can take up
+     */
+    public static int getMaxEncodedLength(int length) {
+        return LENGTH_FIELDS_SIZE + PrefixCodeTable.MAX_SERIALIZED_SIZE + length;
+    }
+
+    /**
+     * Encodes the data remaining in a buffer, advancing the position of the source buffer past the data and that of
+     * the destination buffer past the encoded block.
+     * @param src   the buffer holding the data to encode between its position and limit
+     * @param dst   the buffer to write the encoded block to from its position
+     * @return      the number of bytes written to the destination buffer
+     */
+    public int encode(ByteBuffer src, ByteBuffer dst) {
+        final int written = encode(src, src.position(), src.remaining(), dst, dst.position());
+        src.position(src.limit());
+        dst.position(dst.position() + written);
+        return written;
+    }
+
+    /**
+     * Encodes a run of data held in a buffer, leaving the positions of both buffers unchanged.
+     * @param src       the buffer holding the data to encode
+     * @param offset    the index in the source buffer of the first byte to encode
+     * @param length    the number of bytes to encode
+     * @param dst       the buffer to write the encoded block to
+     * @param dstOffset the index in the destination buffer at which to begin writing
+     * @return          the number of bytes written to the destination buffer
+     * @throws BufferOverflowException  if the encoded block does not fit before the destination buffer's limit
+     */
+    public int encode(ByteBuffer src, int offset, int length, ByteBuffer dst, int dstOffset) {
+        // Count the data.
+        Arrays.fill(lanes, 0);
+        ByteFrequencySet.count(src, offset, length, lanes);
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            counts[i] = (long) lanes[i] + lanes[SYMBOL_COUNT + i] + lanes[2 * SYMBOL_COUNT + i]
+                    + lanes[3 * SYMBOL_COUNT + i];
+        }
+
+        // Data made up of one byte repeated is reduced to that byte.
+        int distinct = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            if (counts[i] > 0) {
+                distinct++;
+            }
+        }
+        if (distinct == 1) {
+            return writeRaw(src, offset, length, dst, dstOffset, HuffmanCompressionResult.SINGLE_SYMBOL_MARKER, 1);
+        }
+
+        // Build codes and work out how much room the block needs.
+        builder.computeCodeLengths(counts, maxCodeLength, codeLengths);
+        builder.assignCodes(codeLengths, codeWords);
+        long bitLength = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            bitLength += counts[i] * codeLengths[i];
+        }
+        final int tableSize = PrefixCodeTable.getSerializedSize(codeLengths);
+        if ((bitLength + 7) / 8 + tableSize + 4 >= length + 1L) {
+            // Coding would not make the data any smaller, so store it as it is.
+            return writeRaw(src, offset, length, dst, dstOffset, HuffmanCompressionResult.STORED_MARKER, length);
+        }
+        if (bitLength > Integer.MAX_VALUE) {
+            throw new RuntimeException("Data is too large for the compressed length to be stored.");
+        }
+        final int tableIndex = dstOffset + 4;
+        final int payloadIndex = tableIndex + tableSize + 4;
+        final int end = payloadIndex + (int) ((bitLength + 7) / 8);
+        if (dstOffset < 0 || end > dst.limit()) {
+            throw new BufferOverflowException();
+        }
+
+        // Write the header, then the encoded data.
+        putInt(dst, dstOffset, length);
+        PrefixCodeTable.writeCodeLengths(codeLengths, dst, tableIndex);
+        putInt(dst, payloadIndex - 4, (int) bitLength);
+        writer.reset(dst, payloadIndex);
+        for (int i = offset; i < offset + length; i++) {
+            final int symbol = src.get(i) & 0xFF;
+            writer.write(codeWords[symbol], codeLengths[symbol]);
+        }
+        writer.finish();
+        return end - dstOffset;
+    }
+
+    /**
+     * Writes a block holding raw data in place of a prefix code table and encoded data.
+     * @param src       the buffer holding the data
+     * @param offset    the index in the source buffer of the first byte of data
+     * @param length    the number of bytes of data
+     * @param dst       the buffer to write the block to
+     * @param dstOffset the index in the destination buffer at which to begin writing
+     * @param marker    the byte marking the block as stored or single-symbol
+     * @param count     the number of bytes of data to copy into the block
+     * @return          the number of bytes written to the destination buffer
+     * @throws BufferOverflowException  if the block does not fit before the destination buffer's limit
+     */
+    private static int writeRaw(ByteBuffer src, int offset, int length, ByteBuffer dst, int dstOffset, int marker,
+                                int count) {
+        if (dstOffset < 0 || dstOffset + 5L + count > dst.limit()) {
+            throw new BufferOverflowException();
+        }
+        putInt(dst, dstOffset, length);
+        dst.put(dstOffset + 4, (byte) marker);
+        for (int i = 0; i < count; i++) {
+            dst.put(dstOffset + 5 + i, src.get(offset + i));
+        }
+        return 5 + count;
+    }
+
+    /**
+     * Writes a big-endian integer to a buffer regardless of the buffer's byte order.
+     * @param buffer    the buffer to write to
+     * @param index     the index in the buffer at which to write
+     * @param value     the integer to write
+     */
+    private static void putInt(ByteBuffer buffer, int index, int value) {
+        buffer.put(index, (byte) (value >>> 24));
+        buffer.put(index + 1, (byte) (value >>> 16));
+        buffer.put(index + 2, (byte) (value >>> 8));
+        buffer.put(index + 3, (byte) value);
+    }
+}
@@ -0,0 +1,100 @@
+package com.sauljohnson.huff;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Represents a JDK Flight Recorder event holding the metrics of compressing or decompressing a single block.
+ *
+ * Events are disabled unless a recording enables them, in which case {@link HuffmanCompressor} collects metrics for
+ * them whether or not it has a listener.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+@Category("Huff")
+abstract class HuffmanEvent extends Event {
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Histogram Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long histogramTime;
+
+    @Label("Tree Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long treeTime;
+
+    @Label("Table Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long tableTime;
+
+    @Label("Encode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long encodeTime;
+
+    @Label("Decode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long decodeTime;
+
+    @Label("Bytes In")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+
+    @Label("Entropy")
+    @Description("Entropy of the data in bits per byte")
+    double entropy;
+
+    @Label("Average Code Length")
+    @Description("Average length of the code for each byte in bits")
+    double averageCodeLength;
+
+    @Label("Maximum Code Depth")
+    int maxCodeDepth;
+
+    /**
+     * Copies a set of metrics into the event and commits it.
+     * @param metrics   the metrics to copy
+     */
+    void commit(CompressionMetrics metrics) {
+        end();
+        if (shouldCommit()) {
+            mode = metrics.getMode().name();
+            histogramTime = metrics.getHistogramNanos();
+            treeTime = metrics.getTreeNanos();
+            tableTime = metrics.getTableNanos();
+            encodeTime = metrics.getEncodeNanos();
+            decodeTime = metrics.getDecodeNanos();
+            bytesIn = metrics.getBytesIn();
+            bytesOut = metrics.getBytesOut();
+            entropy = metrics.getEntropy();
+            averageCodeLength = metrics.getAverageCodeLength();
+            maxCodeDepth = metrics.getMaxCodeDepth();
+            commit();
+        }
+    }
+
+    /**
+     * Represents the event of compressing a block.
+     */
+    @Name("com.sauljohnson.huff.Compress")
+    @Label("Huffman Compress")
+    static final class Compress extends HuffmanEvent { }
+
+    /**
+     * Represents the event of decompressing a block.
+     */
+    @Name("com.sauljohnson.huff.Decompress")
+    @Label("Huffman Decompress")
+    static final class Decompress extends HuffmanEvent { }
+}
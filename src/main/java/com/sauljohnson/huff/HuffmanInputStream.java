@@ -0,0 +1,134 @@
+package com.sauljohnson.huff;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Represents an input stream that decompresses data written by a {@link HuffmanOutputStream}.
+ *
+ * Blocks are read and decompressed one at a time as data is read, so memory use is bounded by the block size however
+ * much data is read. A block longer than the largest block size given is rejected before anything is allocated for
+ * it, so that a corrupted stream cannot exhaust memory.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanInputStream extends InputStream {
+
+    /** The stream that compressed blocks are read from. */
+    private final PushbackInputStream in;
+
+    /** The compressor used to decompress each block. */
+    private final HuffmanCompressor compressor;
+
+    /** The largest number of bytes of data accepted in a block. */
+    private final int maxBlockSize;
+
+    /** The decompressed data of the current block. */
+    private byte[] block;
+
+    /** The index of the next byte to read from the current block. */
+    private int position;
+
+    /** Whether or not the stream has been closed. */
+    private boolean closed;
+
+    /**
+     * Initialises a new instance of a Huffman input stream accepting blocks of up to
+     * {@link HuffmanCompressor#MAX_SEGMENT_SIZE} bytes.
+     * @param in    the stream to read compressed blocks from
+     */
+    public HuffmanInputStream(InputStream in) {
+        this(in, HuffmanCompressor.MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Initialises a new instance of a Huffman input stream.
+     * @param in            the stream to read compressed blocks from
+     * @param maxBlockSize  the largest number of bytes of data to accept in a block, such as the block size used
+     */
+    public HuffmanInputStream(InputStream in, int maxBlockSize) {
+        if (maxBlockSize <= 0) {
+            throw new RuntimeException("Block size must be positive.");
+        }
+        this.in = new PushbackInputStream(in);
+        this.compressor = new HuffmanCompressor();
+        this.maxBlockSize = maxBlockSize;
+        this.block = new byte[0];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+
+        // Copy out what remains of the current block, up to the length requested.
+        final int chunk = Math.min(len, block.length - position);
+        System.arraycopy(block, position, b, off, chunk);
+        position += chunk;
+        return chunk;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return block.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            in.close();
+        }
+    }
+
+    /**
+     * Reads and decompresses the next block if the current one has been read in full.
+     * @return              true if there is data left to read, false at the end of the stream
+     * @throws IOException  if an I/O error occurs or the stream does not hold valid blocks
+     */
+    private boolean fill() throws IOException {
+        ensureOpen();
+        while (position == block.length) {
+            // Stop cleanly if the stream ends between blocks.
+            final int next = in.read();
+            if (next < 0) {
+                return false;
+            }
+            in.unread(next);
+
+            // Decompress the next block.
+            try {
+                block = compressor.decompress(HuffmanCompressionResult.readFrom(in, maxBlockSize));
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid compressed block.", e);
+            }
+            position = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the stream has not been closed.
+     * @throws IOException  if the stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.sauljohnson.huff;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Represents an output stream that compresses data written to it using plain Huffman coding.
+ *
+ * Data is buffered into blocks, each of which is compressed with its own prefix code table and written to the
+ * underlying stream as soon as it fills, so memory use is bounded by the block size however much data is written.
+ * Blocks are written as by {@link HuffmanCompressionResult#writeTo(OutputStream)}, and can be read back with a
+ * {@link HuffmanInputStream}.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanOutputStream extends OutputStream {
+
+    /** The default block size in bytes. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** The stream that compressed blocks are written to. */
+    private final OutputStream out;
+
+    /** The compressor used to compress each block. */
+    private final HuffmanCompressor compressor;
+
+    /** The buffer holding the block being filled. */
+    private final byte[] block;
+
+    /** The number of bytes in the block being filled. */
+    private int count;
+
+    /** Whether or not the stream has been closed. */
+    private boolean closed;
+
+    /**
+     * Initialises a new instance of a Huffman output stream using the default block size.
+     * @param out   the stream to write compressed blocks to
+     */
+    public HuffmanOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Initialises a new instance of a Huffman output stream.
+     * @param out       the stream to write compressed blocks to
+     * @param blockSize the number of bytes of data to compress into each block
+     */
+    public HuffmanOutputStream(OutputStream out, int blockSize) {
+        this(out, blockSize, new HuffmanCompressor());
+    }
+
+    /**
+     * Initialises a new instance of a Huffman output stream.
+     * @param out           the stream to write compressed blocks to
+     * @param blockSize     the number of bytes of data to compress into each block
+     * @param compressor    the compressor to use to compress each block
+     */
+    public HuffmanOutputStream(OutputStream out, int blockSize, HuffmanCompressor compressor) {
+        if (blockSize <= 0) {
+            throw new RuntimeException("Block size must be positive.");
+        }
+        this.out = out;
+        this.compressor = compressor;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[count++] = (byte) b;
+        if (count == block.length) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            // Copy as much as fits into the current block.
+            final int chunk = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, chunk);
+            count += chunk;
+            off += chunk;
+            len -= chunk;
+            if (count == block.length) {
+                writeBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses and writes out any partially-filled block, then flushes the underlying stream.
+     * @throws IOException  if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        writeBlock();
+        out.flush();
+    }
+
+    /**
+     * Compresses and writes out any partially-filled block, then closes the underlying stream.
+     * @throws IOException  if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            writeBlock();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /**
+     * Compresses the block being filled and writes it to the underlying stream, if it holds any data.
+     * @throws IOException  if an I/O error occurs
+     */
+    private void writeBlock() throws IOException {
+        if (count > 0) {
+            compressor.compress(block, 0, count).writeTo(out);
+            count = 0;
+        }
+    }
+
+    /**
+     * Checks that the stream has not been closed.
+     * @throws IOException  if the stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Codes arrays of int symbols, each from zero to one less than {@link IntFrequencySet#MAX_ALPHABET_SIZE}, with plain
+ * Huffman coding.
+ *
+ * The output begins with the number of symbols, followed by the table as written by
+ * {@link IntPrefixCodeTable#writeTo}, the length of the coded data in bits and then the coded data.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class IntCodec {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private IntCodec() { }
+
+    /**
+     * Encodes an array of int symbols with a table built for them.
+     * @param data      the symbols to encode
+     * @param maxLength the maximum code length in bits, raised if there are too many distinct symbols for it
+     * @return          the encoded data, complete with table
+     */
+    static byte[] encode(int[] data, int maxLength) {
+        // Build the table, then look codes up by symbol while coding.
+        final IntPrefixCodeTable table = buildTable(IntFrequencySet.fromData(data), maxLength);
+        final int[] codeWords = table.getCodeWordsBySymbol();
+        final int[] codeLengths = table.getCodeLengthsBySymbol();
+        long bitLength = 0;
+        for (int symbol : data) {
+            bitLength += codeLengths[symbol];
+        }
+        if (bitLength > Integer.MAX_VALUE) {
+            throw new RuntimeException("Data is too large for the compressed length to be stored.");
+        }
+        final BitWriter writer = new BitWriter((int) ((bitLength + 7) / 8));
+        for (int symbol : data) {
+            writer.write(codeWords[symbol], codeLengths[symbol]);
+        }
+
+        // Write header and table, then the coded data.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        try {
+            dataOut.writeInt(data.length);
+            table.writeTo(dataOut);
+            dataOut.writeInt((int) bitLength);
+            dataOut.write(writer.toArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Builds a prefix code table for int symbols, respecting the maximum code length unless there are too many
+     * distinct symbols for it, in which case codes are limited to the fewest bits that give every symbol a code.
+     * @param frequencies   the symbol frequencies to build the table for
+     * @param maxLength     the maximum code length in bits
+     * @return              the table
+     */
+    static IntPrefixCodeTable buildTable(IntFrequencySet frequencies, int maxLength) {
+        while (frequencies.getDistinctCount() > 1L << maxLength) {
+            maxLength++;
+        }
+        return IntPrefixCodeTable.build(frequencies, maxLength);
+    }
+
+    /**
+     * Decodes an array of int symbols encoded by {@link #encode(int[], int)}.
+     * @param data  the data to decode
+     * @return      the decoded symbols
+     */
+    static int[] decode(byte[] data) {
+        // Read header and table.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        final int originalLength = BlockHeader.readOriginalLength(in);
+        final IntPrefixCodeTable table = IntPrefixCodeTable.readFrom(in);
+        final int bitLength = BlockHeader.readBitLength(in);
+        BlockHeader.checkOriginalLength(originalLength, bitLength, 1);
+
+        // Decode each symbol in turn.
+        final BitReader reader = new BitReader(in, 0, bitLength);
+        final int[] out = new int[originalLength];
+        for (int i = 0; i < originalLength; i++) {
+            out[i] = table.decodeSymbol(reader);
+            if (out[i] < 0) {
+                throw new RuntimeException("Compressed data ended before the original length was reached.");
+            }
+        }
+        return out;
+    }
+}
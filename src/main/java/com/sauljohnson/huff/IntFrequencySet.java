@@ -0,0 +1,216 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+
+/**
+ * Represents the occurrence counts of the distinct symbols in a run of int symbols drawn from an alphabet of up to
+ * {@link #MAX_ALPHABET_SIZE} symbols.
+ *
+ * Only symbols that occur are held, in ascending order alongside their counts, so memory scales with the number of
+ * distinct symbols rather than the size of the alphabet. Symbols are counted into a primitive array indexed by symbol
+ * when the data is large next to the largest symbol in it, and by sorting a copy of the data otherwise.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class IntFrequencySet {
+
+    /** The number of symbols in the largest alphabet supported, so symbols run from zero to one less than this. */
+    public static final int MAX_ALPHABET_SIZE = 1 << 16;
+
+    /** The number of symbols per slot in a counting array below which data is sorted rather than counted. */
+    private static final int DENSE_THRESHOLD = 8;
+
+    /** Holds the distinct symbols in ascending order. */
+    private final int[] symbols;
+
+    /** Holds the occurrence count of each distinct symbol, in the same order as the symbols. */
+    private final long[] counts;
+
+    /** The total number of symbols counted. */
+    private final long total;
+
+    /**
+     * Initialises a new instance of a set of int symbol frequencies.
+     * @param symbols   the distinct symbols in ascending order
+     * @param counts    the occurrence count of each distinct symbol
+     */
+    private IntFrequencySet(int[] symbols, long[] counts) {
+        this.symbols = symbols;
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.total = total;
+    }
+
+    /**
+     * Counts the symbols in an array.
+     * @param data  the symbols to count
+     * @return      the set of frequencies of the symbols
+     */
+    public static IntFrequencySet fromData(int[] data) {
+        return fromData(data, 0, data.length);
+    }
+
+    /**
+     * Counts the symbols in part of an array.
+     * @param data      the array holding the symbols to count
+     * @param offset    the index of the first symbol to count
+     * @param length    the number of symbols to count
+     * @return          the set of frequencies of the symbols
+     */
+    public static IntFrequencySet fromData(int[] data, int offset, int length) {
+        int maxSymbol = -1;
+        for (int i = offset; i < offset + length; i++) {
+            checkSymbol(data[i]);
+            maxSymbol = Math.max(maxSymbol, data[i]);
+        }
+        return (long) length * DENSE_THRESHOLD >= maxSymbol + 1 ? countDense(data, offset, length, maxSymbol)
+                : countSorted(data, offset, length);
+    }
+
+    /**
+     * Creates a set of frequencies from counts already taken.
+     * @param symbols   the distinct symbols in ascending order
+     * @param counts    the occurrence count of each symbol, all positive
+     * @return          the set of frequencies
+     */
+    public static IntFrequencySet fromCounts(int[] symbols, long[] counts) {
+        if (symbols.length != counts.length) {
+            throw new RuntimeException("Symbol and count arrays must be the same length.");
+        }
+        for (int i = 0; i < symbols.length; i++) {
+            checkSymbol(symbols[i]);
+            if (i > 0 && symbols[i] <= symbols[i - 1]) {
+                throw new RuntimeException("Symbols must be distinct and in ascending order.");
+            }
+            if (counts[i] <= 0) {
+                throw new RuntimeException("Counts must be positive.");
+            }
+        }
+        return new IntFrequencySet(symbols.clone(), counts.clone());
+    }
+
+    /**
+     * Counts symbols into an array indexed by symbol.
+     * @param data      the array holding the symbols to count
+     * @param offset    the index of the first symbol to count
+     * @param length    the number of symbols to count
+     * @param maxSymbol the largest symbol in the data
+     * @return          the set of frequencies of the symbols
+     */
+    private static IntFrequencySet countDense(int[] data, int offset, int length, int maxSymbol) {
+        final int[] dense = new int[maxSymbol + 1];
+        for (int i = offset; i < offset + length; i++) {
+            dense[data[i]]++;
+        }
+        int distinct = 0;
+        for (int count : dense) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+        final int[] symbols = new int[distinct];
+        final long[] counts = new long[distinct];
+        int index = 0;
+        for (int symbol = 0; symbol <= maxSymbol; symbol++) {
+            if (dense[symbol] > 0) {
+                symbols[index] = symbol;
+                counts[index++] = dense[symbol];
+            }
+        }
+        return new IntFrequencySet(symbols, counts);
+    }
+
+    /**
+     * Counts symbols by sorting a copy of them and measuring each run.
+     * @param data      the array holding the symbols to count
+     * @param offset    the index of the first symbol to count
+     * @param length    the number of symbols to count
+     * @return          the set of frequencies of the symbols
+     */
+    private static IntFrequencySet countSorted(int[] data, int offset, int length) {
+        final int[] sorted = Arrays.copyOfRange(data, offset, offset + length);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        final int[] symbols = new int[distinct];
+        final long[] counts = new long[distinct];
+        int index = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                symbols[++index] = sorted[i];
+            }
+            counts[index]++;
+        }
+        return new IntFrequencySet(symbols, counts);
+    }
+
+    /**
+     * Checks that a symbol is within the largest alphabet supported.
+     * @param symbol    the symbol to check
+     */
+    static void checkSymbol(int symbol) {
+        if (symbol < 0 || symbol >= MAX_ALPHABET_SIZE) {
+            throw new RuntimeException("Symbols must be between 0 and " + (MAX_ALPHABET_SIZE - 1) + ".");
+        }
+    }
+
+    /**
+     * Gets the number of distinct symbols counted.
+     * @return  the number of distinct symbols
+     */
+    public int getDistinctCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Gets the distinct symbols counted, in ascending order.
+     * @return  the distinct symbols
+     */
+    public int[] getSymbols() {
+        return symbols.clone();
+    }
+
+    /**
+     * Gets the occurrence count of a symbol.
+     * @param symbol    the symbol to look up
+     * @return          the number of times the symbol occurs
+     */
+    public long getCount(int symbol) {
+        final int index = Arrays.binarySearch(symbols, symbol);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Gets the occurrence count of the distinct symbol at an index.
+     * @param index the index of the symbol in ascending order
+     * @return      the number of times the symbol occurs
+     */
+    long getCountAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Gets the distinct symbol at an index.
+     * @param index the index of the symbol in ascending order
+     * @return      the symbol
+     */
+    int getSymbolAt(int index) {
+        return symbols[index];
+    }
+
+    /**
+     * Gets the total number of symbols counted.
+     * @return  the total number of symbols counted
+     */
+    public long getTotal() {
+        return total;
+    }
+}
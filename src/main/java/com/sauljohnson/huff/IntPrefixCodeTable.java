@@ -0,0 +1,278 @@
+package com.sauljohnson.huff;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents a canonical prefix code table for int symbols drawn from an alphabet of up to
+ * {@link IntFrequencySet#MAX_ALPHABET_SIZE} symbols.
+ *
+ * Codes are held only for the symbols that have them, in ascending order of symbol, so memory and build time scale
+ * with the number of distinct symbols rather than the size of the alphabet. Codes are built and assigned by a
+ * {@link CanonicalCodeBuilder} over the rank of each symbol, in order of code length and then symbol.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public final class IntPrefixCodeTable {
+
+    /** The longest code that can be built, so that every code fits in an integer. */
+    public static final int MAX_CODE_LENGTH = CanonicalCodeBuilder.MAX_CODE_LENGTH;
+
+    /** Holds the symbols that have codes, in ascending order. */
+    private final int[] symbols;
+
+    /** Holds the code length of each symbol, in the same order as the symbols. */
+    private final int[] codeLengths;
+
+    /** Holds the right-aligned code of each symbol, in the same order as the symbols. */
+    private final int[] codeWords;
+
+    /** The decoding table, which resolves codes to ranks and is built on first use. Volatile, as for byte tables. */
+    private volatile DecodingTable decodingTable;
+
+    /**
+     * Initialises a new instance of a canonical int symbol prefix code table.
+     * @param symbols       the symbols that have codes, in ascending order
+     * @param codeLengths   the code length of each symbol, in the same order as the symbols
+     */
+    private IntPrefixCodeTable(int[] symbols, int[] codeLengths) {
+        this.symbols = symbols;
+        this.codeLengths = codeLengths;
+        this.codeWords = new int[codeLengths.length];
+        if (codeLengths.length > 1) {
+            new CanonicalCodeBuilder(codeLengths.length).assignCodes(codeLengths, codeWords);
+        }
+    }
+
+    /**
+     * Builds a table of optimal codes for a set of symbol frequencies such that no code is longer than the specified
+     * maximum. A lone symbol gets a one-bit code.
+     * @param frequencies   the symbol frequencies to build the table for
+     * @param maxLength     the maximum code length in bits, at most {@link #MAX_CODE_LENGTH}
+     * @return              the table
+     */
+    public static IntPrefixCodeTable build(IntFrequencySet frequencies, int maxLength) {
+        final int count = frequencies.getDistinctCount();
+        if (maxLength < 1 || maxLength > MAX_CODE_LENGTH) {
+            throw new RuntimeException("Maximum code length must be between 1 and " + MAX_CODE_LENGTH + " bits.");
+        }
+        if (count > 1L << maxLength) {
+            throw new RuntimeException("Maximum code length is too short to give every symbol a code.");
+        }
+        final int[] codeLengths = new int[count];
+        if (count == 1) {
+            codeLengths[0] = 1;
+        } else if (count > 1) {
+            // Build codes over the rank of each symbol, which every symbol with a code occupies.
+            final long[] counts = new long[count];
+            for (int i = 0; i < count; i++) {
+                counts[i] = frequencies.getCountAt(i);
+            }
+            new CanonicalCodeBuilder(count).computeCodeLengths(counts, maxLength, codeLengths);
+        }
+        return new IntPrefixCodeTable(frequencies.getSymbols(), codeLengths);
+    }
+
+    /**
+     * Creates a canonical table from the code length of each symbol.
+     * @param symbols       the symbols that have codes, in ascending order
+     * @param codeLengths   the code length of each symbol, in the same order as the symbols
+     * @return              the table
+     */
+    public static IntPrefixCodeTable fromCodeLengths(int[] symbols, int[] codeLengths) {
+        if (symbols.length != codeLengths.length) {
+            throw new RuntimeException("Symbol and code length arrays must be the same length.");
+        }
+        for (int i = 0; i < symbols.length; i++) {
+            IntFrequencySet.checkSymbol(symbols[i]);
+            if (i > 0 && symbols[i] <= symbols[i - 1]) {
+                throw new RuntimeException("Symbols must be distinct and in ascending order.");
+            }
+            if (codeLengths[i] < 1 || codeLengths[i] > MAX_CODE_LENGTH) {
+                throw new RuntimeException("Code lengths must be between 1 and " + MAX_CODE_LENGTH + " bits.");
+            }
+        }
+        return new IntPrefixCodeTable(symbols.clone(), codeLengths.clone());
+    }
+
+    /**
+     * Gets the symbols that have codes, in ascending order.
+     * @return  the symbols that have codes
+     */
+    public int[] getSymbols() {
+        return symbols.clone();
+    }
+
+    /**
+     * Gets the code length of each symbol, in ascending order of symbol.
+     * @return  the code length of each symbol
+     */
+    public int[] getCodeLengths() {
+        return codeLengths.clone();
+    }
+
+    /**
+     * Gets the right-aligned code of each symbol, in ascending order of symbol.
+     * @return  the right-aligned code of each symbol
+     */
+    public int[] getCodeWords() {
+        return codeWords.clone();
+    }
+
+    /**
+     * Gets the code length of a symbol.
+     * @param symbol    the symbol to look up
+     * @return          the code length of the symbol in bits, or zero if it has no code
+     */
+    public int getCodeLength(int symbol) {
+        final int index = Arrays.binarySearch(symbols, symbol);
+        return index < 0 ? 0 : codeLengths[index];
+    }
+
+    /**
+     * Gets the length of the longest code in the table.
+     * @return  the length of the longest code in bits, or zero if the table is empty
+     */
+    public int getMaxCodeLength() {
+        int max = 0;
+        for (int length : codeLengths) {
+            max = Math.max(max, length);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the right-aligned code of each symbol, indexed by symbol up to the largest symbol with a code, so that
+     * codes can be looked up directly while coding.
+     * @return  the right-aligned code of each symbol, indexed by symbol
+     */
+    int[] getCodeWordsBySymbol() {
+        final int[] bySymbol = new int[symbols.length == 0 ? 0 : symbols[symbols.length - 1] + 1];
+        for (int i = 0; i < symbols.length; i++) {
+            bySymbol[symbols[i]] = codeWords[i];
+        }
+        return bySymbol;
+    }
+
+    /**
+     * Gets the code length of each symbol, indexed by symbol up to the largest symbol with a code, so that lengths
+     * can be looked up directly while coding.
+     * @return  the code length of each symbol, indexed by symbol, zero for symbols without a code
+     */
+    int[] getCodeLengthsBySymbol() {
+        final int[] bySymbol = new int[symbols.length == 0 ? 0 : symbols[symbols.length - 1] + 1];
+        for (int i = 0; i < symbols.length; i++) {
+            bySymbol[symbols[i]] = codeLengths[i];
+        }
+        return bySymbol;
+    }
+
+    /**
+     * Decodes a single symbol.
+     * @param in    the reader to decode from
+     * @return      the symbol decoded, or -1 if the reader holds no further complete code
+     */
+    int decodeSymbol(BitReader in) {
+        DecodingTable table = decodingTable;
+        if (table == null) {
+            table = new DecodingTable();
+            table.rebuild(codeLengths, codeWords);
+            decodingTable = table;
+        }
+        final int rank = table.decodeSymbol(in);
+        return rank < 0 ? -1 : symbols[rank];
+    }
+
+    /**
+     * Writes the table to a stream as the number of symbols, then the gap before each symbol, then a flags byte and
+     * the code length of each symbol. Counts and gaps are written as variable-length integers, and code lengths are
+     * packed two to a byte unless the flags mark them as wide, in which case they take a byte each.
+     * @param out           the stream to write to
+     * @throws IOException  if an I/O error occurs
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        writeVarInt(out, symbols.length);
+        int previous = -1;
+        for (int symbol : symbols) {
+            writeVarInt(out, symbol - previous - 1);
+            previous = symbol;
+        }
+        final boolean wide = getMaxCodeLength() > 15;
+        out.writeByte(wide ? 1 : 0);
+        for (int i = 0; i < codeLengths.length; i += wide ? 1 : 2) {
+            out.writeByte(wide ? codeLengths[i]
+                    : codeLengths[i] << 4 | (i + 1 < codeLengths.length ? codeLengths[i + 1] : 0));
+        }
+    }
+
+    /**
+     * Reads a table from a buffer, as written by {@link #writeTo(DataOutputStream)}, advancing the position of the
+     * buffer past it.
+     * @param in    the buffer to read from
+     * @return      the table read from the buffer
+     */
+    public static IntPrefixCodeTable readFrom(ByteBuffer in) {
+        final int count = readVarInt(in);
+        if (count > IntFrequencySet.MAX_ALPHABET_SIZE) {
+            throw new RuntimeException("Invalid prefix code table.");
+        }
+        final int[] symbols = new int[count];
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            previous += readVarInt(in) + 1;
+            symbols[i] = previous;
+        }
+        final boolean wide = (in.get() & 1) != 0;
+        final int[] codeLengths = new int[count];
+        for (int i = 0; i < count; i += wide ? 1 : 2) {
+            final int b = in.get() & 0xFF;
+            if (wide) {
+                codeLengths[i] = b;
+            } else {
+                codeLengths[i] = b >>> 4;
+                if (i + 1 < count) {
+                    codeLengths[i + 1] = b & 0x0F;
+                }
+            }
+        }
+        return fromCodeLengths(symbols, codeLengths);
+    }
+
+    /**
+     * Writes a non-negative integer seven bits at a time, least significant first, setting the top bit of every byte
+     * but the last.
+     * @param out           the stream to write to
+     * @param value         the integer to write
+     * @throws IOException  if an I/O error occurs
+     */
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a non-negative integer written by {@link #writeVarInt(DataOutputStream, int)}.
+     * @param in    the buffer to read from
+     * @return      the integer read
+     */
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new RuntimeException("Invalid variable-length integer.");
+    }
+}
@@ -0,0 +1,116 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Codes byte arrays with plain Huffman coding split into four interleaved streams that share a prefix code table, so
+ * that they can be decoded side by side.
+ *
+ * The data is cut into four segments of equal length, except that the last may be shorter, and each segment is
+ * encoded into its own byte-aligned stream. The output begins with the original length and the table as written by
+ * {@link HuffmanCompressionResult#writeTo}, followed by a jump table holding the length of each stream in bits,
+ * followed by the streams themselves.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class InterleavedCodec {
+
+    /** The number of interleaved streams each block is split into. */
+    static final int STREAM_COUNT = 4;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private InterleavedCodec() { }
+
+    /**
+     * Encodes a byte array into four interleaved streams.
+     * @param data              the data to encode
+     * @param table             the prefix code table to encode the data with
+     * @param expectedLength    the expected length of the encoded data in bits, used to size each stream
+     * @return                  the encoded data, complete with table and jump table
+     */
+    static byte[] encode(byte[] data, PrefixCodeTable table, long expectedLength) {
+        // Encode each segment into its own stream.
+        final int segmentLength = (data.length + STREAM_COUNT - 1) / STREAM_COUNT;
+        final byte[][] streams = new byte[STREAM_COUNT][];
+        final int[] bitLengths = new int[STREAM_COUNT];
+        for (int i = 0; i < STREAM_COUNT; i++) {
+            final int offset = Math.min(data.length, i * segmentLength);
+            final BitWriter out = new BitWriter((int) Math.min(Integer.MAX_VALUE - 8,
+                    (expectedLength / STREAM_COUNT + 7) / 8 + 8));
+            table.encode(data, offset, Math.min(segmentLength, data.length - offset), out);
+            if (out.getLength() > Integer.MAX_VALUE) {
+                throw new RuntimeException("Data is too large for the compressed length to be stored.");
+            }
+            bitLengths[i] = (int) out.getLength();
+            streams[i] = out.toArray();
+        }
+
+        // Write header and jump table, then the streams.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        try {
+            dataOut.writeInt(data.length);
+            table.writeTo(dataOut);
+            for (int bitLength : bitLengths) {
+                dataOut.writeInt(bitLength);
+            }
+            for (byte[] stream : streams) {
+                dataOut.write(stream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a byte array encoded by {@link #encode(byte[], PrefixCodeTable, long)}, decoding a symbol from each of
+     * the four streams in turn.
+     * @param data  the data to decode
+     * @return      the decoded data
+     */
+    static byte[] decode(byte[] data) {
+        // Read header and jump table.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        final int originalLength = BlockHeader.readOriginalLength(in);
+        final int[] codeLengths = new int[256];
+        in.position(in.position() + PrefixCodeTable.readCodeLengths(in, in.position(), codeLengths));
+        final PrefixCodeTable table = PrefixCodeTable.fromCodeLengths(codeLengths);
+        final long[] bitLengths = new long[STREAM_COUNT];
+        if (in.remaining() < STREAM_COUNT * 4) {
+            throw new RuntimeException("Invalid jump table.");
+        }
+        for (int i = 0; i < STREAM_COUNT; i++) {
+            bitLengths[i] = in.getInt();
+            if (bitLengths[i] < 0) {
+                throw new RuntimeException("Invalid jump table.");
+            }
+        }
+
+        // Point a reader at each stream.
+        final BitReader[] readers = new BitReader[STREAM_COUNT];
+        long offset = in.position();
+        long totalBitLength = 0;
+        for (int i = 0; i < STREAM_COUNT; i++) {
+            readers[i] = new BitReader(in, (offset - in.position()) * 8, bitLengths[i]);
+            offset += (bitLengths[i] + 7) / 8;
+            totalBitLength += bitLengths[i];
+        }
+        if (offset != data.length) {
+            throw new RuntimeException("Invalid jump table.");
+        }
+        BlockHeader.checkOriginalLength(originalLength, totalBitLength, 1);
+
+        // Decode the streams side by side.
+        final byte[] out = new byte[originalLength];
+        table.getDecodingTable().decodeInterleaved(readers, out, (originalLength + STREAM_COUNT - 1) / STREAM_COUNT);
+        return out;
+    }
+}
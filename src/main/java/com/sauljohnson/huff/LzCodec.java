@@ -0,0 +1,153 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Codes byte arrays by replacing repeated strings with matches that copy earlier bytes, then Huffman coding the
+ * result, much as DEFLATE does.
+ *
+ * Literal bytes and match lengths share one prefix code table and match distances have another. Each distance is
+ * coded as a distance code followed by extra bits, as in DEFLATE. The output begins with the original length,
+ * followed by the two tables as written by {@link IntPrefixCodeTable#writeTo}, the length of the coded data in bits
+ * and then the coded data.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class LzCodec {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private LzCodec() { }
+
+    /**
+     * Encodes a byte array, searching for matches with the specified finder.
+     * @param data      the data to encode
+     * @param finder    the finder to split the data into literals and matches with
+     * @param maxLength the maximum code length in bits, raised if there are too many distinct symbols for it
+     * @return          the encoded data, complete with tables
+     */
+    static byte[] encode(byte[] data, MatchFinder finder, int maxLength) {
+        // Split the data into literals and matches, and count the symbols of each.
+        final int[] tokens = finder.parse(data);
+        final int[] symbols = new int[tokens.length];
+        int matchCount = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            symbols[i] = MatchFinder.getSymbol(tokens[i]);
+            if (symbols[i] > 255) {
+                matchCount++;
+            }
+        }
+        final int[] distanceCodes = new int[matchCount];
+        matchCount = 0;
+        for (int token : tokens) {
+            if (MatchFinder.getSymbol(token) > 255) {
+                distanceCodes[matchCount++] = MatchFinder.getDistanceCode(MatchFinder.getDistance(token));
+            }
+        }
+
+        // Build a table for each, then look codes up by symbol while coding.
+        final IntPrefixCodeTable symbolTable = IntCodec.buildTable(IntFrequencySet.fromData(symbols), maxLength);
+        final IntPrefixCodeTable distanceTable = IntCodec.buildTable(IntFrequencySet.fromData(distanceCodes),
+                maxLength);
+        final int[] symbolWords = symbolTable.getCodeWordsBySymbol();
+        final int[] symbolLengths = symbolTable.getCodeLengthsBySymbol();
+        final int[] distanceWords = distanceTable.getCodeWordsBySymbol();
+        final int[] distanceLengths = distanceTable.getCodeLengthsBySymbol();
+        long bitLength = 0;
+        for (int symbol : symbols) {
+            bitLength += symbolLengths[symbol];
+        }
+        for (int code : distanceCodes) {
+            bitLength += distanceLengths[code] + MatchFinder.getExtraBits(code);
+        }
+        if (bitLength > Integer.MAX_VALUE) {
+            throw new RuntimeException("Data is too large for the compressed length to be stored.");
+        }
+
+        // Code each token, following each match length with its distance.
+        final BitWriter writer = new BitWriter((int) ((bitLength + 7) / 8));
+        matchCount = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            writer.write(symbolWords[symbols[i]], symbolLengths[symbols[i]]);
+            if (symbols[i] > 255) {
+                final int code = distanceCodes[matchCount++];
+                writer.write(distanceWords[code], distanceLengths[code]);
+                writer.write(MatchFinder.getDistance(tokens[i]) - MatchFinder.getDistanceBase(code),
+                        MatchFinder.getExtraBits(code));
+            }
+        }
+
+        // Write header and tables, then the coded data.
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        try {
+            dataOut.writeInt(data.length);
+            symbolTable.writeTo(dataOut);
+            distanceTable.writeTo(dataOut);
+            dataOut.writeInt((int) bitLength);
+            dataOut.write(writer.toArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a byte array encoded by {@link #encode(byte[], MatchFinder, int)}.
+     * @param data  the data to decode
+     * @return      the decoded data
+     */
+    static byte[] decode(byte[] data) {
+        // Read header and tables. Every token takes at least one bit, and a match stands for at most the longest match.
+        final ByteBuffer in = ByteBuffer.wrap(data);
+        final int originalLength = BlockHeader.readOriginalLength(in);
+        final IntPrefixCodeTable symbolTable = IntPrefixCodeTable.readFrom(in);
+        final IntPrefixCodeTable distanceTable = IntPrefixCodeTable.readFrom(in);
+        final int bitLength = BlockHeader.readBitLength(in);
+        BlockHeader.checkOriginalLength(originalLength, bitLength, MatchFinder.MAX_MATCH);
+
+        // Decode literals and copy matches until the original length is reached.
+        final BitReader reader = new BitReader(in, 0, bitLength);
+        final byte[] out = new byte[originalLength];
+        int position = 0;
+        while (position < originalLength) {
+            final int symbol = symbolTable.decodeSymbol(reader);
+            if (symbol < 0) {
+                throw new RuntimeException("Compressed data ended before the original length was reached.");
+            }
+            if (symbol < 256) {
+                out[position++] = (byte) symbol;
+                continue;
+            }
+            final int code = distanceTable.decodeSymbol(reader);
+            if (code < 0) {
+                throw new RuntimeException("Compressed data ended before the original length was reached.");
+            }
+            if (symbol >= MatchFinder.LITERAL_LENGTH_SYMBOL_COUNT || code >= MatchFinder.DISTANCE_CODE_COUNT) {
+                throw new RuntimeException("Invalid match in compressed data.");
+            }
+            final int extraBits = MatchFinder.getExtraBits(code);
+            if (reader.getRemaining() < extraBits) {
+                throw new RuntimeException("Compressed data ended before the original length was reached.");
+            }
+            final int distance = MatchFinder.getDistanceBase(code) + reader.peek(extraBits);
+            reader.skip(extraBits);
+            final int length = symbol - 256 + MatchFinder.MIN_MATCH;
+            if (distance > position || length > originalLength - position) {
+                throw new RuntimeException("Invalid match in compressed data.");
+            }
+
+            // Copy a byte at a time, since a match may overlap the bytes it produces.
+            for (int i = 0; i < length; i++, position++) {
+                out[position] = out[position - distance];
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,256 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+
+/**
+ * Represents an LZ77 match finder, which splits data into literal bytes and matches that copy earlier bytes, for
+ * Huffman coding to squeeze further.
+ *
+ * Earlier positions are found through hash chains: each position is linked into a chain of the positions before it
+ * that begin with the same three bytes, and the chain is searched from the nearest position back for the longest
+ * match within the window. The effort level bounds how far each chain is searched and how long a match must be to end
+ * the search early. From level 4 up, a match is put off by a byte whenever the next position has a longer one.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class MatchFinder {
+
+    /** The shortest match worth coding. */
+    static final int MIN_MATCH = 3;
+
+    /** The longest match that can be coded. */
+    static final int MAX_MATCH = 258;
+
+    /** The smallest window supported. */
+    static final int MIN_WINDOW_SIZE = 1 << 8;
+
+    /** The largest window supported, so that a match's length and distance pack into a single token. */
+    static final int MAX_WINDOW_SIZE = 1 << 22;
+
+    /** The lowest effort level. */
+    static final int MIN_LEVEL = 1;
+
+    /** The highest effort level. */
+    static final int MAX_LEVEL = 9;
+
+    /** The number of literal and length symbols, which are the byte values followed by each match length. */
+    static final int LITERAL_LENGTH_SYMBOL_COUNT = 256 + MAX_MATCH - MIN_MATCH + 1;
+
+    /** The number of distance codes, which cover every distance up to the largest window. */
+    static final int DISTANCE_CODE_COUNT = 2 * Integer.numberOfTrailingZeros(MAX_WINDOW_SIZE);
+
+    /** The number of bits a token's literal or length symbol takes, below its distance. */
+    private static final int SYMBOL_BITS = 9;
+
+    /** The number of bits a hash of three bytes takes. */
+    private static final int HASH_BITS = 15;
+
+    /** The lowest effort level at which matches are put off when the next position has a longer one. */
+    private static final int MIN_LAZY_LEVEL = 4;
+
+    /** Holds the number of chain entries searched at each effort level. */
+    private static final int[] CHAIN_LENGTHS = {4, 8, 16, 32, 64, 128, 256, 1024, 4096};
+
+    /** Holds the match length at which searching stops early at each effort level. */
+    private static final int[] NICE_LENGTHS = {8, 16, 32, 32, 64, 128, 258, 258, 258};
+
+    /** The largest distance a match may copy from. */
+    private final int windowSize;
+
+    /** The number of chain entries searched for each match. */
+    private final int chainLength;
+
+    /** The match length at which searching stops early. */
+    private final int niceLength;
+
+    /** Whether or not matches are put off when the next position has a longer one. */
+    private final boolean lazy;
+
+    /** Holds the most recent position with each hash, or -1 if there is none. */
+    private final int[] head = new int[1 << HASH_BITS];
+
+    /** Holds the previous position with the same hash as each position in the window, indexed modulo the window. */
+    private final int[] previous;
+
+    /** The data being parsed. */
+    private byte[] data;
+
+    /** The number of positions inserted into the hash chains. */
+    private int inserted;
+
+    /** The length of the match last found. */
+    private int matchLength;
+
+    /** The distance of the match last found. */
+    private int matchDistance;
+
+    /**
+     * Initialises a new instance of an LZ77 match finder.
+     * @param windowSize    the largest distance a match may copy from, a power of two from 256 to 4 MiB
+     * @param level         the effort level, from 1 for the fastest to 9 for the smallest output
+     */
+    MatchFinder(int windowSize, int level) {
+        if (windowSize < MIN_WINDOW_SIZE || windowSize > MAX_WINDOW_SIZE || Integer.bitCount(windowSize) != 1) {
+            throw new RuntimeException("Window size must be a power of two from 256 bytes to 4 MiB.");
+        }
+        if (level < MIN_LEVEL || level > MAX_LEVEL) {
+            throw new RuntimeException("Effort level must be between 1 and 9.");
+        }
+        this.windowSize = windowSize;
+        this.chainLength = CHAIN_LENGTHS[level - 1];
+        this.niceLength = NICE_LENGTHS[level - 1];
+        this.lazy = level >= MIN_LAZY_LEVEL;
+        this.previous = new int[windowSize];
+    }
+
+    /**
+     * Splits data into literals and matches. Each token holds a literal byte, or for a match, the literal and length
+     * symbol {@code 256 + length - 3} in its low nine bits and the distance above them.
+     * @param data  the data to parse
+     * @return      the tokens, in order
+     */
+    int[] parse(byte[] data) {
+        this.data = data;
+        this.inserted = 0;
+        Arrays.fill(head, -1);
+        final int[] tokens = new int[data.length];
+        int count = 0;
+        int position = 0;
+        boolean found = find(0);
+        while (position < data.length) {
+            int length = matchLength;
+            int distance = matchDistance;
+            if (found && lazy && length < niceLength && find(position + 1) && matchLength > length) {
+                // The next position has a longer match, so emit a literal and take that one instead.
+                tokens[count++] = data[position++] & 0xFF;
+                continue;
+            }
+            if (found) {
+                tokens[count++] = (distance << SYMBOL_BITS) | (256 + length - MIN_MATCH);
+                position += length;
+            } else {
+                tokens[count++] = data[position++] & 0xFF;
+            }
+            found = find(position);
+        }
+        this.data = null;
+        return Arrays.copyOf(tokens, count);
+    }
+
+    /**
+     * Finds the longest match at a position among the positions before it, inserting every position up to it into
+     * the hash chains first.
+     * @param position  the position to find a match at
+     * @return          true if a match was found, with its length and distance held, otherwise false
+     */
+    private boolean find(int position) {
+        matchLength = 0;
+        matchDistance = 0;
+        if (position + MIN_MATCH > data.length) {
+            return false;
+        }
+        while (inserted < position) {
+            insert(inserted++);
+        }
+
+        // Walk the chain from the nearest position back, stopping at the edge of the window.
+        final int maxLength = Math.min(MAX_MATCH, data.length - position);
+        int candidate = head[hash(position)];
+        for (int steps = chainLength; candidate >= 0 && position - candidate <= windowSize && steps > 0; steps--) {
+            if (data[candidate + matchLength] == data[position + matchLength]) {
+                int length = 0;
+                while (length < maxLength && data[candidate + length] == data[position + length]) {
+                    length++;
+                }
+                if (length > matchLength) {
+                    matchLength = length;
+                    matchDistance = position - candidate;
+                    if (length >= niceLength || length == maxLength) {
+                        break;
+                    }
+                }
+            }
+            final int next = previous[candidate & (windowSize - 1)];
+            if (next >= candidate) {
+                break; // The entry has been overwritten by a later position.
+            }
+            candidate = next;
+        }
+        return matchLength >= MIN_MATCH;
+    }
+
+    /**
+     * Links a position into the chain for its hash.
+     * @param position  the position to insert
+     */
+    private void insert(int position) {
+        if (position + MIN_MATCH <= data.length) {
+            final int hash = hash(position);
+            previous[position & (windowSize - 1)] = head[hash];
+            head[hash] = position;
+        }
+    }
+
+    /**
+     * Hashes the three bytes at a position.
+     * @param position  the position of the bytes to hash
+     * @return          the hash of the bytes
+     */
+    private int hash(int position) {
+        final int bytes = (data[position] & 0xFF) << 16 | (data[position + 1] & 0xFF) << 8
+                | (data[position + 2] & 0xFF);
+        return (bytes * 0x9E3779B1) >>> (32 - HASH_BITS);
+    }
+
+    /**
+     * Gets the literal or length symbol of a token.
+     * @param token the token
+     * @return      the byte of a literal, or 256 plus the length less three for a match
+     */
+    static int getSymbol(int token) {
+        return token & ((1 << SYMBOL_BITS) - 1);
+    }
+
+    /**
+     * Gets the distance of a token.
+     * @param token the token
+     * @return      the distance of a match, or zero for a literal
+     */
+    static int getDistance(int token) {
+        return token >>> SYMBOL_BITS;
+    }
+
+    /**
+     * Gets the code of a match distance. Distances up to four have codes of their own; beyond that, each code covers
+     * half of the distances between two powers of two, with the rest of the distance in extra bits, as in DEFLATE.
+     * @param distance  the distance, at least one
+     * @return          the distance code
+     */
+    static int getDistanceCode(int distance) {
+        final int value = distance - 1;
+        if (value < 4) {
+            return value;
+        }
+        final int bits = 31 - Integer.numberOfLeadingZeros(value);
+        return 2 * bits + ((value >>> (bits - 1)) & 1);
+    }
+
+    /**
+     * Gets the number of extra bits that follow a distance code.
+     * @param code  the distance code
+     * @return      the number of extra bits
+     */
+    static int getExtraBits(int code) {
+        return code < 4 ? 0 : (code >>> 1) - 1;
+    }
+
+    /**
+     * Gets the smallest distance with a distance code.
+     * @param code  the distance code
+     * @return      the smallest distance with the code
+     */
+    static int getDistanceBase(int code) {
+        return code < 4 ? code + 1 : ((2 | (code & 1)) << getExtraBits(code)) + 1;
+    }
+}
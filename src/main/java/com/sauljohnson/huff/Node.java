@@ -1,5 +1,8 @@
 package com.sauljohnson.huff;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 import com.sauljohnson.backspin.BitSequence;
 
 /**
@@ -64,6 +67,49 @@ public class Node {
         return parent != null;
     }
     
+    /**
+     * Gets the parent of the node.
+     * @return  the parent of the node, or null if the node is a root
+     */
+    Node getParent() {
+        return parent;
+    }
+
+    /**
+     * Gets one of the node's children.
+     * @param index the index of the child, zero or one
+     * @return      the child at the specified index
+     */
+    Node getChild(int index) {
+        return children[index];
+    }
+
+    /**
+     * Puts another node in place of one of this node's children.
+     * @param child         the child to replace
+     * @param replacement   the node to put in its place
+     */
+    void replaceChild(Node child, Node replacement) {
+        children[children[0] == child ? 0 : 1] = replacement;
+        replacement.setParent(this);
+    }
+
+    /**
+     * Swaps the node's zero and one children.
+     */
+    void swapChildren() {
+        final Node zero = children[0];
+        children[0] = children[1];
+        children[1] = zero;
+    }
+
+    /**
+     * Adds one to the frequency component of the node.
+     */
+    void incrementFrequency() {
+        frequency++;
+    }
+
     /**
      * Gets the data element of the node.
      * @return  and integer representing the data element of the node
@@ -72,6 +118,18 @@ public class Node {
         return data;
     }
     
+    /**
+     * Gets the depth of the node, which is the number of its ancestors.
+     * @return  the depth of the node
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (Node node = parent; node != null; node = node.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
     /**
      * Builds a Huffman encoded {@link BitSequence} from this node upwards to the root.
      * @param child the child node calling the method
@@ -148,21 +206,13 @@ public class Node {
      * @param nodes the array of nodes to sort.
      */
     public static void sortByFrequency(Node[] nodes) {
-        // Loop while we're still having to perform swaps.
-        boolean swapped = true;
-        while (swapped) {
-            swapped = false;
-            for (int i = 0; i < nodes.length - 1; i++) {
-                
-                // Transpose out-of-order values.
-                if (nodes[i].getFrequency() > nodes[i + 1].getFrequency()) {
-                    final Node temp = nodes[i];
-                    nodes[i] = nodes[i + 1];
-                    nodes[i + 1] = temp;
-                    swapped = true;
-                }
+        // Stable sort, so equally frequent nodes keep their order.
+        Arrays.sort(nodes, new Comparator<Node>() {
+            @Override
+            public int compare(Node a, Node b) {
+                return Double.compare(a.getFrequency(), b.getFrequency());
             }
-        }
+        });
     }
     
     /**
@@ -0,0 +1,104 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Computes optimal length-limited prefix code lengths using the package-merge algorithm.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+final class PackageMerge {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private PackageMerge() { }
+
+    /**
+     * Computes the optimal code length of each symbol such that no code is longer than the specified maximum.
+     *
+     * Symbols with a weight of zero get no code, except that the lowest such symbols are given codes when needed to
+     * make up at least two.
+     *
+     * @param weights       the weight of each symbol, indexed by symbol
+     * @param maxLength     the maximum code length in bits
+     * @return              the code length of each symbol, indexed by symbol
+     */
+    static int[] computeCodeLengths(final double[] weights, int maxLength) {
+        // Gather symbols that occur, padding with unused symbols so there are at least two.
+        Integer[] order = new Integer[weights.length];
+        int count = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                order[count++] = i;
+            }
+        }
+        for (int i = 0; count < 2; i++) {
+            if (weights[i] <= 0) {
+                order[count++] = i;
+            }
+        }
+        if (count > 1L << Math.min(maxLength, 62)) {
+            throw new RuntimeException("Maximum code length is too short to give every symbol a code.");
+        }
+
+        // Sort symbols by weight, then by symbol.
+        order = Arrays.copyOf(order, count);
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(weights[a], weights[b]);
+            }
+        });
+        final double[] sorted = new double[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = weights[order[i]];
+        }
+
+        // No Huffman code is longer than one bit less than the symbol count, so more levels would change nothing.
+        final int levels = Math.min(maxLength, count - 1);
+
+        // Build each level by merging the leaves with packages of pairs from the level below, noting which are packages.
+        final boolean[][] isPackage = new boolean[levels][];
+        isPackage[0] = new boolean[count];
+        double[] previous = sorted;
+        for (int level = 1; level < levels; level++) {
+            final int packages = previous.length / 2;
+            final double[] current = new double[count + packages];
+            isPackage[level] = new boolean[current.length];
+            int leaf = 0;
+            int pack = 0;
+            for (int i = 0; i < current.length; i++) {
+                final double packageWeight = pack < packages ? previous[2 * pack] + previous[2 * pack + 1] : 0;
+                if (leaf < count && (pack == packages || sorted[leaf] <= packageWeight)) {
+                    current[i] = sorted[leaf++];
+                } else {
+                    current[i] = packageWeight;
+                    isPackage[level][i] = true;
+                    pack++;
+                }
+            }
+            previous = current;
+        }
+
+        // Take the cheapest items from the top level, then expand the packages among them level by level. Each time a
+        // leaf is taken, its code gets a bit longer. Taken leaves are always the least heavy ones.
+        final int[] lengths = new int[weights.length];
+        int taken = 2 * count - 2;
+        for (int level = levels - 1; level >= 0; level--) {
+            int packages = 0;
+            for (int i = 0; i < taken; i++) {
+                if (isPackage[level][i]) {
+                    packages++;
+                }
+            }
+            for (int i = 0; i < taken - packages; i++) {
+                lengths[order[i]]++;
+            }
+            taken = 2 * packages;
+        }
+        return lengths;
+    }
+}
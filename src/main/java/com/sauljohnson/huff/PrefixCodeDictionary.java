@@ -0,0 +1,135 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+
+/**
+ * Represents a prefix code table trained on a sample of data ahead of time, to be shared between the parties
+ * compressing and decompressing many small messages.
+ *
+ * Every byte is given a code, whether or not it occurs in the sample, so any message can be compressed with the
+ * dictionary. A dictionary is identified by a checksum of its code lengths, so the same table always has the same ID
+ * and compressed messages need only carry the ID rather than the table.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class PrefixCodeDictionary {
+
+    /** The maximum code length used when training if none is given, which keeps the stored table compact. */
+    public static final int DEFAULT_MAX_CODE_LENGTH = 15;
+
+    /** The prefix code table in the dictionary. */
+    private final PrefixCodeTable table;
+
+    /** The stable ID of the dictionary. */
+    private final int id;
+
+    /**
+     * Initialises a new instance of a prefix code dictionary.
+     * @param table the prefix code table in the dictionary, which must be canonical and give every byte a code
+     */
+    public PrefixCodeDictionary(PrefixCodeTable table) {
+        for (int codeLength : table.getCodeLengths()) {
+            if (codeLength == 0) {
+                throw new RuntimeException("Every byte must have a code in a dictionary.");
+            }
+        }
+        this.table = table;
+        this.id = computeId(table);
+
+        // Build the decoding table up front, so threads sharing the dictionary don't each build their own.
+        table.getDecodingTable();
+    }
+
+    /**
+     * Trains a dictionary on sample data, limiting codes to {@link #DEFAULT_MAX_CODE_LENGTH} bits.
+     * @param samples   the sample messages to train on
+     * @return          a dictionary suited to data like the samples
+     */
+    public static PrefixCodeDictionary train(Iterable<byte[]> samples) {
+        return train(samples, DEFAULT_MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Trains a dictionary on sample data. Each byte is counted once more than it occurs in the samples, so that bytes
+     * missing from the samples still get a code.
+     * @param samples       the sample messages to train on
+     * @param maxCodeLength the maximum length of any prefix code in bits, at least 8
+     * @return              a dictionary suited to data like the samples
+     */
+    public static PrefixCodeDictionary train(Iterable<byte[]> samples, int maxCodeLength) {
+        // Count every byte once, then count the samples.
+        final byte[] everyByte = new byte[256];
+        for (int i = 0; i < everyByte.length; i++) {
+            everyByte[i] = (byte) i;
+        }
+        final ByteFrequencySet frequencies = new ByteFrequencySet(everyByte);
+        for (byte[] sample : samples) {
+            frequencies.update(sample, 0, sample.length);
+        }
+        return new PrefixCodeDictionary(new PrefixCodeTable(FrequencyTree.fromFrequencySet(frequencies,
+                maxCodeLength)));
+    }
+
+    /**
+     * Gets the prefix code table in the dictionary.
+     * @return  the prefix code table in the dictionary
+     */
+    public PrefixCodeTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the stable ID of the dictionary, which is a CRC-32 checksum of its stored table.
+     * @return  the stable ID of the dictionary
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Writes the dictionary to a stream, as its table in the form written by {@link PrefixCodeTable#writeTo}.
+     * @param out           the stream to write to
+     * @throws IOException  if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        table.writeTo(out);
+    }
+
+    /**
+     * Reads a dictionary from a stream, as written by {@link #writeTo(OutputStream)}.
+     * @param in            the stream to read from
+     * @return              the dictionary read from the stream
+     * @throws IOException  if an I/O error occurs or the stream does not hold a valid dictionary
+     */
+    public static PrefixCodeDictionary readFrom(InputStream in) throws IOException {
+        final PrefixCodeTable table = PrefixCodeTable.readFrom(in);
+        try {
+            return new PrefixCodeDictionary(table);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid prefix code dictionary.", e);
+        }
+    }
+
+    /**
+     * Computes the ID of a table, as a CRC-32 checksum of the table in stored form.
+     * @param table the table to compute the ID of
+     * @return      the ID of the table
+     */
+    private static int computeId(PrefixCodeTable table) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            table.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(out.toByteArray());
+        return (int) crc.getValue();
+    }
+}
@@ -1,5 +1,12 @@
 package com.sauljohnson.huff;
 
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 import com.sauljohnson.backspin.BitSequence;
 
 /**
@@ -9,33 +16,100 @@ import com.sauljohnson.backspin.BitSequence;
  * @author  Saul Johnson, Alex Mullen, Lee Oliver
  */
 public class PrefixCodeTable {
+
+    /** The number of byte symbols covered by the dense code arrays. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** The header flag indicating that code lengths are written a byte each rather than a nibble each. */
+    private static final int WIDE_LENGTHS_FLAG = 1;
+
+    /** The header flag indicating that a bitmap of the symbols with codes precedes the code lengths. */
+    private static final int SYMBOL_BITMAP_FLAG = 2;
+
+    /** The largest number of bytes that {@link #writeTo(OutputStream)} can write. */
+    static final int MAX_SERIALIZED_SIZE = 1 + SYMBOL_COUNT / 8 + SYMBOL_COUNT;
+
+    /** The maximum length of a code that can be held in the dense code word array. */
+    static final int MAX_PACKED_CODE_LENGTH = 32;
     
     /** Holds the prefix codes as {@link BitSequence} objects. */
     private final BitSequence[] codes;
     
     /** Holds the symbols as integers. */
     private final int[] symbols;
+
+    /** Holds the prefix codes as integers indexed by symbol, for codes no longer than 32 bits. */
+    private final int[] codeWords;
+
+    /** Holds the lengths of the prefix codes in bits indexed by symbol, zero for symbols without a code. */
+    private final int[] codeLengths;
+
+    /** Whether or not the codes are the canonical codes for their lengths, worked out once when the table is built. */
+    private final boolean canonical;
+
+    /**
+     * The table used to decode data compressed using this table, built on first use. Tables are shared between
+     * threads, so this is volatile to make sure no thread sees a decoding table that is only partly built.
+     */
+    private volatile DecodingTable decodingTable;
     
     /**
      * Initialises a new instance of a prefix code table.
      * @param tree  the Huffman frequency tree to initialise from
      */
     public PrefixCodeTable(FrequencyTree tree) {
-        // Get tree leaves.
-        final Node[] leaves = tree.getLeaves();
-        
-        // Initialise mapping arrays.
-        codes = new BitSequence[leaves.length];
-        symbols = new int[leaves.length];
-                
-        // Backtrace all leaves to root, calculating prefix codes.
-        for (int i = 0; i < leaves.length; i++) {
-            codes[i] = leaves[i].buildBitSequence();
-            symbols[i] = leaves[i].getData();
-        }  
-        
-        // Sort codes, shortest first.
-        sortByCodeLength();
+        // Take code lengths from the depths of the tree leaves, then assign canonical codes.
+        this(getCodeLengths(tree.getLeaves()));
+    }
+
+    /**
+     * Initialises a new instance of a prefix code table holding canonical codes.
+     * @param codeLengths   the code length of each symbol, indexed by symbol, zero for symbols without a code
+     */
+    private PrefixCodeTable(int[] codeLengths) {
+        // Count symbols that have a code.
+        int count = 0;
+        int maxLength = 0;
+        for (int length : codeLengths) {
+            if (length < 0) {
+                throw new RuntimeException("Code lengths must not be negative.");
+            }
+            if (length > 0) {
+                count++;
+                maxLength = Math.max(maxLength, length);
+            }
+        }
+
+        // Order symbols by code length, then by symbol.
+        symbols = new int[count];
+        codes = new BitSequence[count];
+        int index = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            for (int symbol = 0; symbol < codeLengths.length; symbol++) {
+                if (codeLengths[symbol] == length) {
+                    symbols[index++] = symbol;
+                }
+            }
+        }
+
+        // Assign consecutive codes, appending zeroes whenever codes get longer.
+        final char[] code = new char[maxLength];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                increment(code, length);
+            }
+            while (length < codeLengths[symbols[i]]) {
+                code[length++] = '0';
+            }
+            codes[i] = BitSequence.fromBitString(new String(code, 0, length));
+        }
+
+        // Index codes by symbol.
+        this.codeWords = new int[SYMBOL_COUNT];
+        this.codeLengths = new int[SYMBOL_COUNT];
+        indexBySymbol();
+        this.canonical = true;
     }
     
     /**
@@ -49,33 +123,69 @@ public class PrefixCodeTable {
         }
         this.symbols = symbols;
         this.codes = codes;
+
+        // Index codes by symbol.
+        codeWords = new int[SYMBOL_COUNT];
+        codeLengths = new int[SYMBOL_COUNT];
+        indexBySymbol();
+        canonical = computeCanonical();
     }
-    
+
     /**
-     * Sorts the table by code length, shortest codes first.
-     */
-    private void sortByCodeLength() {
-        // Bubble sort.
-        boolean swapped;
-        do {
-            swapped = false;
-            for (int i = 0; i < symbols.length - 1; i++) {
-                if (codes[i].getLength() > codes[i + 1].getLength()) {
-
-                    final BitSequence tempCode = codes[i];
-                    codes[i] = codes[i + 1];
-                    codes[i + 1] = tempCode;
-
-                    final int tempSymbol = symbols[i];
-                    symbols[i] = symbols[i + 1];
-                    symbols[i + 1] = tempSymbol;
-                    
-                    swapped = true;
-                }
+     * Fills the dense code word and code length arrays from the symbol and code arrays.
+     */
+    private void indexBySymbol() {
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i] < 0 || symbols[i] >= SYMBOL_COUNT) {
+                continue; // Only byte symbols are indexed.
             }
-        } while(swapped);
+            final String bitString = codes[i].toBitString();
+            codeLengths[symbols[i]] = bitString.length();
+            if (bitString.length() <= MAX_PACKED_CODE_LENGTH) {
+                codeWords[symbols[i]] = (int) (bitString.isEmpty() ? 0 : Long.parseLong(bitString, 2));
+            }
+        }
     }
     
+    /**
+     * Adds one to a binary number held as '0' and '1' characters.
+     * @param code      the characters of the binary number
+     * @param length    the number of characters in the binary number
+     */
+    private static void increment(char[] code, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (code[i] == '0') {
+                code[i] = '1';
+                return;
+            }
+            code[i] = '0';
+        }
+        throw new RuntimeException("Code lengths do not describe a valid prefix code.");
+    }
+
+    /**
+     * Gets the code length of each symbol from the depths of a set of tree leaves.
+     * @param leaves    the tree leaves
+     * @return          the code length of each symbol, indexed by symbol
+     */
+    private static int[] getCodeLengths(Node[] leaves) {
+        final int[] codeLengths = new int[leaves.length];
+        for (Node leaf : leaves) {
+            codeLengths[leaf.getData()] = leaf.getDepth();
+        }
+        return codeLengths;
+    }
+
+    /**
+     * Creates a prefix code table holding canonical codes. Canonical codes are assigned in order of code length, then
+     * symbol, so a table can be rebuilt entirely from its code lengths.
+     * @param codeLengths   the code length of each symbol, indexed by symbol, zero for symbols without a code
+     * @return              a prefix code table holding canonical codes with the specified lengths
+     */
+    public static PrefixCodeTable fromCodeLengths(int[] codeLengths) {
+        return new PrefixCodeTable(codeLengths);
+    }
+
     /**
      * Gets the array of codes for the table.
      * @return  the array of codes
@@ -92,6 +202,93 @@ public class PrefixCodeTable {
         return symbols;
     }
     
+    /**
+     * Gets the prefix codes as integers indexed by symbol. Codes are right-aligned, and codes longer than 32 bits are
+     * not present in this array. Tables may be shared, so the array is a copy.
+     * @return  the array of code words indexed by symbol
+     */
+    public int[] getCodeWords() {
+        return codeWords.clone();
+    }
+
+    /**
+     * Gets the lengths of the prefix codes in bits indexed by symbol, zero for symbols without a code. Tables may be
+     * shared, so the array is a copy.
+     * @return  the array of code lengths indexed by symbol
+     */
+    public int[] getCodeLengths() {
+        return codeLengths.clone();
+    }
+
+    /**
+     * Gets the number of bits needed to encode a set of bytes with this table.
+     * @param frequencies   the occurrence counts of the bytes to encode
+     * @return              the number of bits needed to encode the bytes
+     */
+    long getEncodedLength(ByteFrequencySet frequencies) {
+        long length = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            length += frequencies.getCount(i) * codeLengths[i];
+        }
+        return length;
+    }
+
+    /**
+     * Encodes a run of bytes with this table.
+     * @param data      the array holding the bytes to encode
+     * @param offset    the index of the first byte to encode
+     * @param length    the number of bytes to encode
+     * @param out       the writer to write the encoded bits to
+     */
+    void encode(byte[] data, int offset, int length, BitWriter out) {
+        final int[] codeWords = this.codeWords;
+        final int[] codeLengths = this.codeLengths;
+        for (int i = offset; i < offset + length; i++) {
+            final int symbol = data[i] & 0xFF;
+            final int codeLength = codeLengths[symbol];
+            if (codeLength <= MAX_PACKED_CODE_LENGTH) {
+                out.write(codeWords[symbol], codeLength);
+            } else {
+                out.write(translateSymbol(symbol));
+            }
+        }
+    }
+
+    /**
+     * Encodes a run of bytes held in a buffer with this table.
+     * @param data      the buffer holding the bytes to encode
+     * @param offset    the index in the buffer of the first byte to encode
+     * @param length    the number of bytes to encode
+     * @param out       the writer to write the encoded bits to
+     */
+    void encode(ByteBuffer data, int offset, int length, BitWriter out) {
+        final int[] codeWords = this.codeWords;
+        final int[] codeLengths = this.codeLengths;
+        for (int i = offset; i < offset + length; i++) {
+            final int symbol = data.get(i) & 0xFF;
+            final int codeLength = codeLengths[symbol];
+            if (codeLength <= MAX_PACKED_CODE_LENGTH) {
+                out.write(codeWords[symbol], codeLength);
+            } else {
+                out.write(translateSymbol(symbol));
+            }
+        }
+    }
+
+    /**
+     * Gets the table used to decode data compressed using this table, building it if necessary. Threads that race to
+     * build it may each build one, but every thread sees a complete table.
+     * @return  the table used to decode data compressed using this table
+     */
+    DecodingTable getDecodingTable() {
+        DecodingTable table = decodingTable;
+        if (table == null) {
+            table = new DecodingTable(this);
+            decodingTable = table;
+        }
+        return table;
+    }
+
     /**
      * Returns the {@link BitSequence} for the given symbol.
      * @param symbol    the symbol to translate
@@ -133,4 +330,271 @@ public class PrefixCodeTable {
         }   
         return false;
     }
+
+    /**
+     * Gets whether or not the codes in this table are the canonical codes for their lengths.
+     * @return  true if the codes are canonical, otherwise false
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    /**
+     * Works out whether or not the codes in this table are the canonical codes for their lengths, comparing the dense
+     * code arrays with the codes assigned in order of code length and then symbol.
+     * @return  true if the codes are canonical, otherwise false
+     */
+    private boolean computeCanonical() {
+        // Every symbol must be a distinct byte.
+        int count = 0;
+        int maxLength = 0;
+        for (int symbol : symbols) {
+            if (symbol < 0 || symbol >= SYMBOL_COUNT) {
+                return false;
+            }
+        }
+        for (int length : codeLengths) {
+            if (length > 0) {
+                count++;
+                maxLength = Math.max(maxLength, length);
+            }
+        }
+        if (count != symbols.length) {
+            return false;
+        }
+        if (maxLength > MAX_PACKED_CODE_LENGTH) {
+            return computeCanonicalFromCodes();
+        }
+
+        // Find the first code of each length, then check each symbol holds the next code of its length.
+        final int[] lengthCounts = new int[maxLength + 1];
+        for (int length : codeLengths) {
+            lengthCounts[length]++;
+        }
+        lengthCounts[0] = 0;
+        final long[] nextCodes = new long[maxLength + 1];
+        long code = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            code = (code + lengthCounts[length - 1]) << 1;
+            if (code + lengthCounts[length] > 1L << length) {
+                return false;
+            }
+            nextCodes[length] = code;
+        }
+        for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+            final int length = codeLengths[symbol];
+            if (length > 0 && codeWords[symbol] != (int) nextCodes[length]++) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Works out whether or not the codes in this table are the canonical codes for their lengths by building the
+     * canonical table and comparing codes, for tables with codes too long for the dense code word array.
+     * @return  true if the codes are canonical, otherwise false
+     */
+    private boolean computeCanonicalFromCodes() {
+        final PrefixCodeTable expected;
+        try {
+            expected = new PrefixCodeTable(codeLengths);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (expected.symbols.length != symbols.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.symbols.length; i++) {
+            if (!expected.codes[i].equals(translateSymbol(expected.symbols[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the code lengths of this canonical table to a stream in compact form.
+     *
+     * The header is a flags byte, then a bitmap of the symbols with codes if that saves space, then the code lengths
+     * packed into a nibble each, or a byte each if any code is longer than 15 bits.
+     *
+     * @param out           the stream to write to
+     * @throws IOException  if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (!isCanonical()) {
+            throw new RuntimeException("Only tables of canonical codes can be written.");
+        }
+
+        final byte[] header = new byte[getSerializedSize(codeLengths)];
+        writeCodeLengths(codeLengths, ByteBuffer.wrap(header), 0);
+        out.write(header);
+    }
+
+    /**
+     * Reads a canonical table from a stream, as written by {@link #writeTo(OutputStream)}.
+     * @param in            the stream to read from
+     * @return              the table read from the stream
+     * @throws IOException  if an I/O error occurs or the stream does not hold a valid table
+     */
+    public static PrefixCodeTable readFrom(InputStream in) throws IOException {
+        return readFrom(in.read(), in);
+    }
+
+    /**
+     * Reads a canonical table from a stream, as written by {@link #writeTo(OutputStream)}, once its flags byte has
+     * already been read.
+     * @param flags         the flags byte of the table
+     * @param in            the stream to read the rest of the table from
+     * @return              the table read from the stream
+     * @throws IOException  if an I/O error occurs or the stream does not hold a valid table
+     */
+    static PrefixCodeTable readFrom(int flags, InputStream in) throws IOException {
+        final DataInputStream dataIn = new DataInputStream(in);
+        if (flags < 0) {
+            throw new EOFException();
+        }
+        if ((flags & ~(WIDE_LENGTHS_FLAG | SYMBOL_BITMAP_FLAG)) != 0) {
+            throw new IOException("Unrecognised prefix code table header.");
+        }
+        final boolean wide = (flags & WIDE_LENGTHS_FLAG) != 0;
+        final boolean bitmap = (flags & SYMBOL_BITMAP_FLAG) != 0;
+
+        // Read bitmap, if present, to find out how many lengths follow.
+        final byte[] header = new byte[MAX_SERIALIZED_SIZE];
+        header[0] = (byte) flags;
+        int count = SYMBOL_COUNT;
+        int index = 1;
+        if (bitmap) {
+            dataIn.readFully(header, index, SYMBOL_COUNT / 8);
+            count = 0;
+            for (int i = 0; i < SYMBOL_COUNT / 8; i++) {
+                count += Integer.bitCount(header[index + i] & 0xFF);
+            }
+            index += SYMBOL_COUNT / 8;
+        }
+
+        // Read lengths.
+        dataIn.readFully(header, index, packedSize(count, wide));
+        final int[] codeLengths = new int[SYMBOL_COUNT];
+        readCodeLengths(ByteBuffer.wrap(header), 0, codeLengths);
+        try {
+            return new PrefixCodeTable(codeLengths);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid prefix code table.", e);
+        }
+    }
+
+    /**
+     * Gets the number of bytes taken up by code lengths in the compact form written by {@link #writeTo(OutputStream)}.
+     * @param codeLengths   the code length of each byte symbol, indexed by symbol
+     * @return              the number of bytes taken up by the code lengths
+     */
+    static int getSerializedSize(int[] codeLengths) {
+        int count = 0;
+        int maxLength = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            if (codeLengths[i] > 0) {
+                count++;
+                maxLength = Math.max(maxLength, codeLengths[i]);
+            }
+        }
+        final boolean wide = maxLength > 15;
+        final boolean bitmap = packedSize(count, wide) + SYMBOL_COUNT / 8 < packedSize(SYMBOL_COUNT, wide);
+        return 1 + (bitmap ? SYMBOL_COUNT / 8 + packedSize(count, wide) : packedSize(SYMBOL_COUNT, wide));
+    }
+
+    /**
+     * Writes code lengths to a buffer in the compact form written by {@link #writeTo(OutputStream)}.
+     * @param codeLengths   the code length of each byte symbol, indexed by symbol
+     * @param out           the buffer to write to, which must have room for the code lengths
+     * @param offset        the index in the buffer at which to begin writing
+     * @return              the number of bytes written
+     */
+    static int writeCodeLengths(int[] codeLengths, ByteBuffer out, int offset) {
+        // Work out which layout is smallest.
+        int count = 0;
+        int maxLength = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            if (codeLengths[i] > 0) {
+                count++;
+                maxLength = Math.max(maxLength, codeLengths[i]);
+            }
+        }
+        final boolean wide = maxLength > 15;
+        final boolean bitmap = packedSize(count, wide) + SYMBOL_COUNT / 8 < packedSize(SYMBOL_COUNT, wide);
+        out.put(offset, (byte) ((wide ? WIDE_LENGTHS_FLAG : 0) | (bitmap ? SYMBOL_BITMAP_FLAG : 0)));
+
+        // Write bitmap, then lengths.
+        int index = offset + 1;
+        if (bitmap) {
+            for (int i = 0; i < SYMBOL_COUNT; i += 8) {
+                int bits = 0;
+                for (int symbol = i; symbol < i + 8; symbol++) {
+                    bits = (bits << 1) | (codeLengths[symbol] > 0 ? 1 : 0);
+                }
+                out.put(index++, (byte) bits);
+            }
+        }
+        int pending = -1;
+        for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+            if (bitmap && codeLengths[symbol] == 0) {
+                continue;
+            }
+            if (wide) {
+                out.put(index++, (byte) codeLengths[symbol]);
+            } else if (pending < 0) {
+                pending = codeLengths[symbol] << 4;
+            } else {
+                out.put(index++, (byte) (pending | codeLengths[symbol]));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            out.put(index++, (byte) pending);
+        }
+        return index - offset;
+    }
+
+    /**
+     * Reads code lengths from a buffer in the compact form written by {@link #writeTo(OutputStream)}.
+     * @param in            the buffer to read from
+     * @param offset        the index in the buffer at which to begin reading
+     * @param codeLengths   the array to read the code length of each byte symbol into, indexed by symbol
+     * @return              the number of bytes read
+     */
+    static int readCodeLengths(ByteBuffer in, int offset, int[] codeLengths) {
+        final int flags = in.get(offset) & 0xFF;
+        if ((flags & ~(WIDE_LENGTHS_FLAG | SYMBOL_BITMAP_FLAG)) != 0) {
+            throw new RuntimeException("Unrecognised prefix code table header.");
+        }
+        final boolean wide = (flags & WIDE_LENGTHS_FLAG) != 0;
+        final boolean bitmap = (flags & SYMBOL_BITMAP_FLAG) != 0;
+
+        // Lengths follow the bitmap, or the flags if every symbol is present.
+        final int bitmapIndex = offset + 1;
+        int index = bitmap ? bitmapIndex + SYMBOL_COUNT / 8 : bitmapIndex;
+        int read = 0;
+        for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+            if (bitmap && (in.get(bitmapIndex + (symbol >>> 3)) & (0x80 >>> (symbol & 7))) == 0) {
+                codeLengths[symbol] = 0;
+                continue;
+            }
+            codeLengths[symbol] = wide ? in.get(index + read) & 0xFF
+                    : (in.get(index + (read >>> 1)) >>> ((read & 1) == 0 ? 4 : 0)) & 0xF;
+            read++;
+        }
+        return index + packedSize(read, wide) - offset;
+    }
+
+    /**
+     * Gets the number of bytes taken up by packed code lengths.
+     * @param count the number of code lengths
+     * @param wide  whether code lengths take up a byte each rather than a nibble each
+     * @return      the number of bytes taken up by the code lengths
+     */
+    private static int packedSize(int count, boolean wide) {
+        return wide ? count : (count + 1) / 2;
+    }
 }
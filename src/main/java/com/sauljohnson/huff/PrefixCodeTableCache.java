@@ -0,0 +1,204 @@
+package com.sauljohnson.huff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents a bounded, thread-safe cache of prefix code tables keyed by the rough shape of the data they were built
+ * for, so that data with much the same byte distribution can reuse a table rather than build a new one.
+ *
+ * Each set of frequencies is reduced to a signature holding, for every byte, its ideal code length rounded up and
+ * capped at 15 bits. A cached table with the same signature is only reused if coding the data with it costs no more
+ * than a tolerance above the least any prefix code could cost, taken as the greater of the data's entropy and one bit
+ * per byte. Since this is a lower bound, the check errs on the side of building a new table. The least recently used
+ * table is evicted once the cache is full.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class PrefixCodeTableCache {
+
+    /** The number of byte symbols. */
+    private static final int SYMBOL_COUNT = 256;
+
+    /** The largest ideal code length distinguished in a signature. */
+    private static final int MAX_SIGNATURE_LENGTH = 15;
+
+    /** The greatest number of tables held. */
+    private final int capacity;
+
+    /** The fraction by which the cost of coding with a cached table may exceed the least possible cost. */
+    private final double tolerance;
+
+    /** Holds the cached tables by signature, least recently used first. */
+    private final LinkedHashMap<Long, PrefixCodeTable> tables;
+
+    /** The number of lookups that found a table. */
+    private long hitCount;
+
+    /** The number of lookups that found no table, or one too costly to use. */
+    private long missCount;
+
+    /** The number of tables evicted. */
+    private long evictionCount;
+
+    /**
+     * Initialises a new instance of a prefix code table cache.
+     * @param capacity  the greatest number of tables to hold
+     * @param tolerance the fraction by which the cost of coding with a cached table may exceed the least possible
+     *                  cost, for example 0.05 for 5%
+     */
+    public PrefixCodeTableCache(final int capacity, double tolerance) {
+        if (capacity <= 0) {
+            throw new RuntimeException("Cache capacity must be positive.");
+        }
+        if (tolerance < 0) {
+            throw new RuntimeException("Tolerance must not be negative.");
+        }
+        this.capacity = capacity;
+        this.tolerance = tolerance;
+        this.tables = new LinkedHashMap<Long, PrefixCodeTable>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PrefixCodeTable> eldest) {
+                if (size() > capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a table suitable for coding data with a set of frequencies.
+     * @param frequencies   the set of frequencies
+     * @return              a cached table that codes the data within the tolerance, or null if there is none
+     */
+    public PrefixCodeTable lookup(ByteFrequencySet frequencies) {
+        final long signature = getSignature(frequencies);
+        final PrefixCodeTable table;
+        synchronized (this) {
+            table = tables.get(signature);
+        }
+
+        // Check the cost outside the lock.
+        final boolean hit = table != null && isWithinTolerance(table, frequencies);
+        synchronized (this) {
+            if (hit) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        return hit ? table : null;
+    }
+
+    /**
+     * Stores a table built for a set of frequencies, replacing any with the same signature. The table's decoding table
+     * is built before it is stored, so that threads decoding with a shared table don't each build their own.
+     * @param frequencies   the set of frequencies the table was built for
+     * @param table         the table to store
+     */
+    public void store(ByteFrequencySet frequencies, PrefixCodeTable table) {
+        table.getDecodingTable();
+        final long signature = getSignature(frequencies);
+        synchronized (this) {
+            tables.put(signature, table);
+        }
+    }
+
+    /**
+     * Gets the greatest number of tables held.
+     * @return  the greatest number of tables held
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of tables held.
+     * @return  the number of tables held
+     */
+    public synchronized int getSize() {
+        return tables.size();
+    }
+
+    /**
+     * Gets the number of lookups that found a table.
+     * @return  the number of lookups that found a table
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that found no table, or one too costly to use.
+     * @return  the number of lookups that found no usable table
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the fraction of lookups that found a table.
+     * @return  the fraction of lookups that found a table, or zero if there have been none
+     */
+    public synchronized double getHitRate() {
+        final long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Gets the number of tables evicted to make room for others.
+     * @return  the number of tables evicted
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets whether or not coding data with a table costs no more than the tolerance above the least possible cost.
+     * @param table         the table to check
+     * @param frequencies   the set of frequencies of the data
+     * @return              true if the table is close enough to optimal, otherwise false
+     */
+    private boolean isWithinTolerance(PrefixCodeTable table, ByteFrequencySet frequencies) {
+        final int[] codeLengths = table.getCodeLengths();
+        final long total = frequencies.getTotal();
+        double entropy = 0;
+        long cost = 0;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            final long count = frequencies.getCount(i);
+            if (count == 0) {
+                continue;
+            }
+            if (codeLengths[i] == 0) {
+                return false; // The table has no code for this byte.
+            }
+            cost += count * codeLengths[i];
+            entropy += count * (Math.log((double) total / count) / Math.log(2));
+        }
+        return cost <= Math.max(entropy, total) * (1 + tolerance);
+    }
+
+    /**
+     * Gets the signature of a set of frequencies, a hash of the ideal code length of each byte.
+     * @param frequencies   the set of frequencies
+     * @return              the signature of the set of frequencies
+     */
+    private static long getSignature(ByteFrequencySet frequencies) {
+        final long total = frequencies.getTotal();
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            final long count = frequencies.getCount(i);
+            int length = 0;
+            if (count > 0) {
+                // Ideal length is the base-2 log of total over count, rounded up.
+                length = 64 - Long.numberOfLeadingZeros((total - 1) / count);
+                length = Math.max(1, Math.min(MAX_SIGNATURE_LENGTH, length));
+            }
+            hash = (hash ^ length) * 0x100000001B3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link AdaptiveHuffmanInputStream} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AdaptiveHuffmanInputStreamTests extends TestCase {
+
+    public void testRead() throws IOException {
+        // Write skewed data covering every byte value.
+        byte[] data = new byte[20000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i < 256 ? i : Integer.numberOfLeadingZeros(random.nextInt() | 1));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream adaptiveOut = new AdaptiveHuffmanOutputStream(out);
+        adaptiveOut.write(data);
+        adaptiveOut.close();
+        assertTrue(out.size() < data.length / 2);
+
+        // Read it back in chunks.
+        AdaptiveHuffmanInputStream subject = new AdaptiveHuffmanInputStream(
+                new ByteArrayInputStream(out.toByteArray()));
+        byte[] read = new byte[data.length];
+        int total = 0;
+        int count;
+        while ((count = subject.read(read, total, Math.min(1000, read.length - total))) > 0) {
+            total += count;
+        }
+        assertEquals(data.length, total);
+        assertTrue(Arrays.equals(data, read));
+        assertEquals(-1, subject.read());
+    }
+
+    public void testReadTruncated() throws IOException {
+        // A stream with no end marker should be rejected.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream adaptiveOut = new AdaptiveHuffmanOutputStream(out);
+        adaptiveOut.write("cut short".getBytes());
+        byte[] truncated = out.toByteArray();
+        AdaptiveHuffmanInputStream subject = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(truncated));
+        try {
+            while (subject.read() >= 0) {
+                // Keep reading.
+            }
+            fail();
+        } catch (EOFException e) {
+            // Expected.
+        }
+    }
+}
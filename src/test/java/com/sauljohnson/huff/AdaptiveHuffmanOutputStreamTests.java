@@ -0,0 +1,61 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link AdaptiveHuffmanOutputStream} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AdaptiveHuffmanOutputStreamTests extends TestCase {
+
+    public void testWriteEmitsImmediately() throws IOException {
+        // The first byte takes nine bits, so a whole byte should be out straight away.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream subject = new AdaptiveHuffmanOutputStream(out);
+        subject.write('x');
+        assertEquals(1, out.size());
+        subject.close();
+    }
+
+    public void testFlush() throws IOException {
+        // Everything written before a flush should be readable without closing.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream subject = new AdaptiveHuffmanOutputStream(out);
+        subject.write("telemetry".getBytes());
+        subject.flush();
+        AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(out.toByteArray()));
+        byte[] read = new byte[9];
+        for (int i = 0; i < read.length; i++) {
+            read[i] = (byte) in.read();
+        }
+        assertEquals("telemetry", new String(read));
+
+        // Data written after the flush should follow on.
+        subject.write("!!".getBytes());
+        subject.close();
+        in = new AdaptiveHuffmanInputStream(new ByteArrayInputStream(out.toByteArray()));
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            all.write(b);
+        }
+        assertEquals("telemetry!!", all.toString());
+    }
+
+    public void testWriteAfterClose() throws IOException {
+        AdaptiveHuffmanOutputStream subject = new AdaptiveHuffmanOutputStream(new ByteArrayOutputStream());
+        subject.close();
+        try {
+            subject.write(1);
+            fail();
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sauljohnson.huff;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link AdaptiveHuffmanTree} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AdaptiveHuffmanTreeTests extends TestCase {
+
+    public void testUpdateKeepsSiblingProperty() {
+        // The sibling property should hold after every update.
+        AdaptiveHuffmanTree subject = new AdaptiveHuffmanTree();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            subject.update(Integer.numberOfLeadingZeros(random.nextInt() | 1) * 7 % 256);
+            assertTrue(subject.hasSiblingProperty());
+        }
+        assertEquals(5000.0, subject.getRoot().getFrequency());
+    }
+
+    public void testGetLeaf() {
+        // Unseen symbols should be coded by the NYT leaf.
+        AdaptiveHuffmanTree subject = new AdaptiveHuffmanTree();
+        assertTrue(subject.isNyt(subject.getLeaf('a')));
+        subject.update('a');
+        assertFalse(subject.isNyt(subject.getLeaf('a')));
+        assertEquals('a', subject.getLeaf('a').getData());
+    }
+
+    public void testFrequentSymbolsGetShortCodes() {
+        // After many of one symbol and few of another, the frequent one should have the shorter path.
+        AdaptiveHuffmanTree subject = new AdaptiveHuffmanTree();
+        for (int i = 0; i < 3; i++) {
+            subject.update('b');
+            subject.update('c');
+        }
+        for (int i = 0; i < 100; i++) {
+            subject.update('a');
+        }
+        int[] path = new int[513];
+        assertEquals(1, AdaptiveHuffmanTree.getPath(subject.getLeaf('a'), path));
+        assertTrue(AdaptiveHuffmanTree.getPath(subject.getLeaf('b'), path) > 1);
+    }
+}
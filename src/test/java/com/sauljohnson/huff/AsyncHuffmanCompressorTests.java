@@ -0,0 +1,43 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link AsyncHuffmanCompressor} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class AsyncHuffmanCompressorTests extends TestCase {
+
+    public void testCompress() throws InterruptedException, ExecutionException {
+        // Compress and decompress on an executor of our own.
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AsyncHuffmanCompressor subject = new AsyncHuffmanCompressor(new HuffmanCompressor(), executor);
+            byte[] data = "the cat sat on the mat".getBytes();
+            HuffmanCompressionResult result = subject.compress(data).get();
+            assertTrue(Arrays.equals(data, subject.decompress(result).get()));
+            assertTrue(Arrays.equals(data, subject.decompressContainer(subject.compressToContainer(data).get())
+                    .get()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testDecompressFailure() throws InterruptedException {
+        // Failures should complete the future exceptionally rather than be thrown.
+        AsyncHuffmanCompressor subject = new AsyncHuffmanCompressor(new HuffmanCompressor());
+        try {
+            subject.decompressContainer(new byte[] {1, 2, 3}).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuntimeException);
+        }
+    }
+}
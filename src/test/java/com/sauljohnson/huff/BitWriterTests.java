@@ -0,0 +1,48 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.sauljohnson.backspin.BitSequence;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link BitWriter} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class BitWriterTests extends TestCase {
+
+    public void testWrite() {
+        // Write codes spanning several words.
+        BitWriter subject = new BitWriter(0);
+        subject.write(0x5, 3);
+        subject.write(0xFFFFFFFF, 32);
+        subject.write(BitSequence.fromBitString("01"));
+
+        // Bits should be packed most significant bit first and padded with zeroes.
+        assertEquals(37, subject.getLength());
+        byte[] data = subject.toArray();
+        assertEquals(5, data.length);
+        assertEquals((byte) 0xBF, data[0]);
+        assertEquals((byte) 0xFF, data[3]);
+        assertEquals((byte) 0xE8, data[4]);
+    }
+
+    public void testWriteToBuffer() {
+        // Write a word into a little-endian buffer after a byte already written.
+        ByteBuffer buffer = ByteBuffer.allocateDirect(6).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 0x7F);
+        BitWriter subject = new BitWriter(buffer);
+        subject.write(0x12345678, 32);
+        subject.write(1, 1);
+
+        // Bits should still be packed most significant bit first, after the existing byte.
+        assertEquals(6, subject.finish());
+        assertEquals((byte) 0x7F, buffer.get(0));
+        assertEquals((byte) 0x12, buffer.get(1));
+        assertEquals((byte) 0x78, buffer.get(4));
+        assertEquals((byte) 0x80, buffer.get(5));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link BlockHeader} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class BlockHeaderTests extends TestCase {
+
+    public void testReadOriginalLength() {
+        // A valid length should be read, moving past it.
+        ByteBuffer in = ByteBuffer.allocate(6).putInt(0, 1234);
+        assertEquals(1234, BlockHeader.readOriginalLength(in));
+        assertEquals(4, in.position());
+
+        // Negative and truncated lengths should be rejected.
+        ByteBuffer[] invalid = new ByteBuffer[] {ByteBuffer.allocate(4).putInt(0, -1), ByteBuffer.allocate(3)};
+        for (ByteBuffer bad : invalid) {
+            try {
+                BlockHeader.readOriginalLength(bad);
+                fail();
+            } catch (RuntimeException e) {
+                assertEquals("Invalid block header.", e.getMessage());
+            }
+        }
+    }
+
+    public void testReadBitLength() {
+        // A length the remaining data can hold should be read.
+        ByteBuffer in = ByteBuffer.allocate(6).putInt(0, 16);
+        assertEquals(16, BlockHeader.readBitLength(in));
+
+        // A length longer than the remaining data should be rejected.
+        try {
+            BlockHeader.readBitLength(ByteBuffer.allocate(6).putInt(0, 17));
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Invalid block header.", e.getMessage());
+        }
+    }
+
+    public void testCheckOriginalLength() {
+        // Each bit may stand for up to the given number of symbols, and no more.
+        BlockHeader.checkOriginalLength(80, 10, 8);
+        BlockHeader.checkOriginalLength(0, 0, 1);
+        try {
+            BlockHeader.checkOriginalLength(81, 10, 8);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Invalid block header.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sauljohnson.huff;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link BlockTask} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class BlockTaskTests extends TestCase {
+
+    public void testCompute() {
+        // Run a task over a range of blocks.
+        final AtomicIntegerArray visits = new AtomicIntegerArray(37);
+        ForkJoinPool.commonPool().invoke(new BlockTask(0, visits.length(), new BlockTask.BlockAction() {
+            @Override
+            public void process(int index) {
+                visits.incrementAndGet(index);
+            }
+        }));
+
+        // Every block should have been processed exactly once.
+        for (int i = 0; i < visits.length(); i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+}
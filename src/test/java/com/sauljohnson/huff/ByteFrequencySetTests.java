@@ -1,5 +1,9 @@
 package com.sauljohnson.huff;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import junit.framework.TestCase;
 
 /**
@@ -26,4 +30,101 @@ public class ByteFrequencySetTests extends TestCase {
         assertEquals(0.1, subject.getUnsignedByteFrequency(1));
         assertEquals(0.2, subject.getUnsignedByteFrequency(8));
     }
+
+    public void testGetCount() {
+        // Initialize byte frequency set.
+        ByteFrequencySet subject = new ByteFrequencySet(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 8});
+
+        // Counts should be exact.
+        assertEquals(1, subject.getCount(1));
+        assertEquals(2, subject.getCount(8));
+        assertEquals(0, subject.getCount(9));
+        assertEquals(10, subject.getTotal());
+    }
+
+    public void testUpdate() {
+        // Count a long run of the same byte in two parts.
+        byte[] data = new byte[1001];
+        data[1000] = 1;
+        ByteFrequencySet subject = new ByteFrequencySet();
+        subject.update(data, 0, 999);
+        subject.update(data, 999, 2);
+
+        // Counts should cover both parts.
+        assertEquals(1000, subject.getCount(0));
+        assertEquals(1, subject.getCount(1));
+        assertEquals(1001, subject.getTotal());
+    }
+
+    public void testMerge() {
+        // Initialize two byte frequency sets.
+        ByteFrequencySet subject = new ByteFrequencySet(new byte[] {1, 2});
+        subject.merge(new ByteFrequencySet(new byte[] {2, 3}));
+
+        // Counts should be summed.
+        assertEquals(1, subject.getCount(1));
+        assertEquals(2, subject.getCount(2));
+        assertEquals(4, subject.getTotal());
+        assertEquals(0.5, subject.getUnsignedByteFrequency(2));
+    }
+
+    public void testFromDataParallel() {
+        // Initialize data spanning several chunks.
+        byte[] data = new byte[3000000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 3);
+        }
+        ByteFrequencySet subject = ByteFrequencySet.fromDataParallel(data, ForkJoinPool.commonPool());
+
+        // Counts should match a sequential count.
+        ByteFrequencySet expected = new ByteFrequencySet(data);
+        for (int i = 0; i < 256; i++) {
+            assertEquals(expected.getCount(i), subject.getCount(i));
+        }
+        assertEquals(1000000, subject.getCount(2));
+    }
+
+    public void testFromSample() {
+        // Data of 'a' with a single 'z' in the middle of a gap between windows.
+        byte[] data = new byte[100000];
+        Arrays.fill(data, (byte) 'a');
+        data[5000] = 'z';
+        ByteFrequencySet subject = ByteFrequencySet.fromSample(data, 0, data.length, 1000, 10);
+
+        // Only the windows should be counted, on top of a count of one for every byte.
+        assertEquals(10000 + 256, subject.getTotal());
+        assertEquals(10001, subject.getCount('a'));
+        assertEquals(1, subject.getCount('z'));
+        assertEquals(1, subject.getCount(0));
+    }
+
+    public void testFromSampleCoveringAllData() {
+        // Windows covering all the data should count it exactly.
+        byte[] data = new byte[] {1, 2, 3, 3};
+        ByteFrequencySet subject = ByteFrequencySet.fromSample(data, 0, data.length, 2, 2);
+        assertEquals(4, subject.getTotal());
+        assertEquals(0, subject.getCount(0));
+        assertEquals(2, subject.getCount(3));
+    }
+
+    public void testFromRandomSample() {
+        // Random windows should count the right number of bytes.
+        byte[] data = new byte[50000];
+        ByteFrequencySet subject = ByteFrequencySet.fromRandomSample(data, 0, data.length, 100, 7, new Random(1));
+        assertEquals(700 + 256, subject.getTotal());
+        assertEquals(701, subject.getCount(0));
+    }
+
+    public void testGetDistinctCount() {
+        ByteFrequencySet subject = new ByteFrequencySet(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 8});
+        assertEquals(9, subject.getDistinctCount());
+        assertEquals(0, new ByteFrequencySet(new byte[] {}).getDistinctCount());
+    }
+
+    public void testGetEntropy() {
+        // Four equally likely bytes carry two bits each, one byte repeated carries none.
+        assertEquals(2.0, new ByteFrequencySet(new byte[] {0, 1, 2, 3, 0, 1, 2, 3}).getEntropy(), 1e-9);
+        assertEquals(0.0, new ByteFrequencySet(new byte[] {5, 5, 5}).getEntropy(), 1e-9);
+        assertEquals(0.0, new ByteFrequencySet(new byte[] {}).getEntropy(), 1e-9);
+    }
 }
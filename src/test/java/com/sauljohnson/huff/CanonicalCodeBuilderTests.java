@@ -0,0 +1,132 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link CanonicalCodeBuilder} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class CanonicalCodeBuilderTests extends TestCase {
+
+    public void testComputeCodeLengths() {
+        // Counts of 1, 1, 2, 4 and 8 give code lengths of 4, 4, 3, 2 and 1.
+        long[] counts = new long[256];
+        counts['a'] = 1;
+        counts['b'] = 1;
+        counts['c'] = 2;
+        counts['d'] = 4;
+        counts['e'] = 8;
+        int[] lengths = new int[256];
+        new CanonicalCodeBuilder().computeCodeLengths(counts, 32, lengths);
+        assertEquals(4, lengths['a']);
+        assertEquals(4, lengths['b']);
+        assertEquals(3, lengths['c']);
+        assertEquals(2, lengths['d']);
+        assertEquals(1, lengths['e']);
+        assertEquals(0, lengths['f']);
+    }
+
+    public void testComputeCodeLengthsMatchesTree() {
+        // Lengths should cost the same as those from a frequency tree.
+        byte[] data = "the quick brown fox jumps over the lazy dog, again and again".getBytes();
+        ByteFrequencySet frequencies = new ByteFrequencySet(data);
+        long[] counts = new long[256];
+        for (int i = 0; i < 256; i++) {
+            counts[i] = frequencies.getCount(i);
+        }
+        int[] lengths = new int[256];
+        new CanonicalCodeBuilder().computeCodeLengths(counts, 32, lengths);
+        long bits = 0;
+        for (int i = 0; i < 256; i++) {
+            bits += counts[i] * lengths[i];
+        }
+        PrefixCodeTable table = new PrefixCodeTable(FrequencyTree.fromFrequencySet(frequencies));
+        assertEquals(table.getEncodedLength(frequencies), bits);
+    }
+
+    public void testComputeCodeLengthsLargeAlphabet() {
+        // Symbols beyond the byte range should get codes just as bytes do.
+        long[] counts = new long[1000];
+        counts[300] = 1;
+        counts[301] = 1;
+        counts[700] = 2;
+        counts[999] = 4;
+        int[] lengths = new int[1000];
+        int[] codes = new int[1000];
+        CanonicalCodeBuilder subject = new CanonicalCodeBuilder(1000);
+        subject.computeCodeLengths(counts, 32, lengths);
+        assertEquals(3, lengths[300]);
+        assertEquals(3, lengths[301]);
+        assertEquals(2, lengths[700]);
+        assertEquals(1, lengths[999]);
+        assertEquals(0, lengths[0]);
+        subject.assignCodes(lengths, codes);
+        assertEquals(0, codes[999]);
+        assertEquals(2, codes[700]);
+        assertEquals(6, codes[300]);
+        assertEquals(7, codes[301]);
+    }
+
+    public void testComputeCodeLengthsSingleSymbol() {
+        // A lone symbol should be padded out with another to make a valid code.
+        long[] counts = new long[256];
+        counts[5] = 10;
+        int[] lengths = new int[256];
+        new CanonicalCodeBuilder().computeCodeLengths(counts, 32, lengths);
+        assertEquals(1, lengths[0]);
+        assertEquals(1, lengths[5]);
+    }
+
+    public void testComputeCodeLengthsLimited() {
+        // Fibonacci counts give very deep trees, which should be cut down to the limit.
+        long[] counts = new long[256];
+        long a = 1;
+        long b = 1;
+        for (int i = 0; i < 40; i++) {
+            counts[i] = a;
+            long c = a + b;
+            a = b;
+            b = c;
+        }
+        int[] lengths = new int[256];
+        new CanonicalCodeBuilder().computeCodeLengths(counts, 12, lengths);
+        double kraft = 0;
+        for (int i = 0; i < 40; i++) {
+            assertTrue(lengths[i] > 0 && lengths[i] <= 12);
+            kraft += Math.pow(2, -lengths[i]);
+        }
+        assertEquals(1.0, kraft, 1e-9);
+    }
+
+    public void testAssignCodes() {
+        // Codes should match those of a canonical prefix code table.
+        int[] lengths = new int[256];
+        lengths['a'] = 3;
+        lengths['b'] = 3;
+        lengths['c'] = 2;
+        lengths['d'] = 2;
+        lengths['e'] = 2;
+        int[] codes = new int[256];
+        new CanonicalCodeBuilder().assignCodes(lengths, codes);
+        PrefixCodeTable table = PrefixCodeTable.fromCodeLengths(Arrays.copyOf(lengths, 256));
+        assertTrue(Arrays.equals(table.getCodeWords(), codes));
+    }
+
+    public void testAssignCodesOversubscribed() {
+        // Three one-bit codes can't make a prefix code.
+        int[] lengths = new int[256];
+        lengths[0] = 1;
+        lengths[1] = 1;
+        lengths[2] = 1;
+        try {
+            new CanonicalCodeBuilder().assignCodes(lengths, new int[256]);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.sauljohnson.huff;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link CheckpointIndex} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class CheckpointIndexTests extends TestCase {
+
+    public void testFind() {
+        CheckpointIndex subject = new CheckpointIndex(100, new int[] {0, 230, 470});
+        assertEquals(3, subject.getCount());
+        assertEquals(0, subject.find(0));
+        assertEquals(0, subject.find(99));
+        assertEquals(1, subject.find(100));
+        assertEquals(2, subject.find(299));
+        assertEquals(200, subject.getOutputOffset(2));
+        assertEquals(470, subject.getBitOffset(2));
+    }
+
+    public void testCheckpointsRecorded() {
+        // A checkpoint should be recorded at the start of every interval, each at the bit offset of that byte's code.
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7 == 0 ? 'x' : 'a' + i % 3);
+        }
+        HuffmanCompressor compressor = new HuffmanCompressor();
+        compressor.setCheckpointInterval(64);
+        HuffmanCompressionResult result = compressor.compress(data);
+        CheckpointIndex subject = result.getCheckpoints();
+        assertEquals(16, subject.getCount());
+        assertEquals(64, subject.getInterval());
+        int[] codeLengths = result.getTable().getCodeLengths();
+        int bits = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (i % 64 == 0) {
+                assertEquals(bits, subject.getBitOffset(i / 64));
+            }
+            bits += codeLengths[data[i] & 0xFF];
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link ContextModel} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class ContextModelTests extends TestCase {
+
+    /**
+     * Generates data in which each byte depends strongly on the byte before it.
+     * @param length    the number of bytes to generate
+     * @return          the generated data
+     */
+    private static byte[] generateDependentData(int length) {
+        byte[] data = new byte[length];
+        Random random = new Random(31);
+        int previous = 0;
+        for (int i = 0; i < length; i++) {
+            previous = (previous * 7 + random.nextInt(3)) % 40;
+            data[i] = (byte) previous;
+        }
+        return data;
+    }
+
+    public void testBuild() {
+        // Dependent data should earn several tables, but never more than the limit.
+        byte[] data = generateDependentData(50000);
+        ContextModel subject = ContextModel.build(data, 8, 15);
+        assertEquals(8, subject.getTableCount());
+        assertEquals(1, ContextModel.build(data, 1, 15).getTableCount());
+
+        // Each context's table should code every byte that follows it.
+        int previous = 0;
+        for (byte b : data) {
+            assertTrue(subject.getTable(previous).getCodeLengths()[b & 0xFF] > 0);
+            previous = b & 0xFF;
+        }
+    }
+
+    public void testBuildSmallData() {
+        // Tables aren't worth storing for a handful of bytes.
+        assertEquals(1, ContextModel.build("abcabc".getBytes(), 256, 15).getTableCount());
+        assertEquals(1, ContextModel.build(new byte[0], 256, 15).getTableCount());
+    }
+
+    public void testWriteAndRead() throws IOException {
+        // A model should read back with the same tables for every context.
+        ContextModel subject = ContextModel.build(generateDependentData(20000), 16, 15);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.writeTo(new DataOutputStream(out));
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        ContextModel read = ContextModel.readFrom(in);
+        assertEquals(0, in.remaining());
+        assertEquals(subject.getTableCount(), read.getTableCount());
+        for (int context = 0; context < 256; context++) {
+            assertTrue(Arrays.equals(subject.getTable(context).getCodeLengths(),
+                    read.getTable(context).getCodeLengths()));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.sauljohnson.huff;
+
+import java.nio.ByteBuffer;
+
+import com.sauljohnson.backspin.BitSequence;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link DecodingTable} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class DecodingTableTests extends TestCase {
+
+    public void testDecode() {
+        // Initialize table with codes both shorter and longer than the root table.
+        int[] symbols = new int[] {7, 8, 9};
+        BitSequence[] codes = new BitSequence[] {
+                BitSequence.fromBitString("0"),
+                BitSequence.fromBitString("10"),
+                BitSequence.fromBitString("1100000000000000000001")
+        };
+        DecodingTable subject = new DecodingTable(new PrefixCodeTable(symbols, codes));
+
+        // The bits "0 10 1100000000000000000001 0" should decode to 7, 8, 9, 7.
+        byte[] data = new byte[] {(byte) 0x58, (byte) 0x00, (byte) 0x00, (byte) 0x80};
+        byte[] out = new byte[8];
+        int count = subject.decode(new BitReader(ByteBuffer.wrap(data), 0, 26), out, 0, out.length);
+        assertEquals(4, count);
+        assertEquals(7, out[0]);
+        assertEquals(8, out[1]);
+        assertEquals(9, out[2]);
+        assertEquals(7, out[3]);
+    }
+
+    public void testDecodeStopsAtLength() {
+        // Initialize table with known symbols and codes.
+        int[] symbols = new int[] {1, 2};
+        BitSequence[] codes = new BitSequence[] {BitSequence.fromBitString("0"), BitSequence.fromBitString("1")};
+        DecodingTable subject = new DecodingTable(new PrefixCodeTable(symbols, codes));
+
+        // Only the first three bits should be decoded.
+        byte[] out = new byte[8];
+        int count = subject.decode(new BitReader(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 0, 3), out, 0, 8);
+        assertEquals(3, count);
+    }
+}
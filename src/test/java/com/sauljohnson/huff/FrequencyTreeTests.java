@@ -22,4 +22,54 @@ public class FrequencyTreeTests extends TestCase {
         assertEquals(256, leaves.length);
         assertEquals("01", leaves[4].buildBitSequence().toBitString());
     }
-}
\ No newline at end of file
+
+    public void testFromFrequencySetSkipsUnusedBytes() {
+        // Create Huffman tree from frequency set.
+        ByteFrequencySet frequencies = new ByteFrequencySet(new byte[] {1, 1, 2, 3});
+        FrequencyTree subject = FrequencyTree.fromFrequencySet(frequencies);
+
+        // Bytes that never occur should have no code.
+        Node[] leaves = subject.getLeaves();
+        assertFalse(leaves[0].hasParent());
+        assertEquals(1, leaves[1].getDepth());
+        assertEquals(2, leaves[2].getDepth());
+        assertEquals(2, leaves[3].getDepth());
+
+        // Nodes should be weighted by exact counts.
+        assertEquals(2.0, leaves[1].getFrequency());
+        assertEquals(4.0, subject.getFrequency());
+    }
+
+    public void testFromFrequencySetSingleByte() {
+        // Create Huffman tree from frequency set holding a single distinct byte.
+        ByteFrequencySet frequencies = new ByteFrequencySet(new byte[] {9, 9, 9});
+        FrequencyTree subject = FrequencyTree.fromFrequencySet(frequencies);
+
+        // The byte should still get a one-bit code.
+        assertEquals(1, subject.getLeaves()[9].getDepth());
+    }
+
+    public void testFromFrequencySetWithMaxCodeLength() {
+        // Create data with Fibonacci-distributed byte counts, which produces a very deep Huffman tree.
+        byte[] data = new byte[17710];
+        int index = 0;
+        for (int i = 0, a = 1, b = 1; i < 20; i++, b = a + (a = b)) {
+            for (int j = 0; j < a; j++) {
+                data[index++] = (byte) i;
+            }
+        }
+        ByteFrequencySet frequencies = new ByteFrequencySet(data);
+
+        // Unrestricted tree should be deep, limited tree should not.
+        int unrestrictedDepth = 0;
+        for (Node leaf : FrequencyTree.fromFrequencySet(frequencies).getLeaves()) {
+            unrestrictedDepth = Math.max(unrestrictedDepth, leaf.getDepth());
+        }
+        assertEquals(19, unrestrictedDepth);
+        FrequencyTree subject = FrequencyTree.fromFrequencySet(frequencies, 8);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(subject.getLeaves()[i].getDepth() <= 8);
+            assertTrue(subject.getLeaves()[i].getDepth() > 0);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanCompressionProcessor} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanCompressionProcessorTests extends TestCase {
+
+    public void testProcess() throws Exception {
+        // Initialize compressor with small blocks.
+        HuffmanCompressor compressor = new HuffmanCompressor();
+        compressor.setBlockSize(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Publish uneven chunks through the processor, collecting the compressed blocks in order.
+            byte[] data = new byte[12345];
+            Random random = new Random(21);
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) ('a' + random.nextInt(1 + i / 2000));
+            }
+            HuffmanCompressionProcessor subject = new HuffmanCompressionProcessor(compressor, executor, 2);
+            final ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+            final CompletableFuture<Integer> done = new CompletableFuture<Integer>();
+            subject.subscribe(new Flow.Subscriber<HuffmanCompressionResult>() {
+                private Flow.Subscription subscription;
+                private int count;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(HuffmanCompressionResult item) {
+                    try {
+                        item.writeTo(blocks);
+                    } catch (IOException e) {
+                        done.completeExceptionally(e);
+                    }
+                    count++;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(count);
+                }
+            });
+            try (SubmissionPublisher<ByteBuffer> source = new SubmissionPublisher<ByteBuffer>(executor, 4)) {
+                source.subscribe(subject);
+                for (int offset = 0; offset < data.length; offset += 777) {
+                    source.submit(ByteBuffer.wrap(data, offset, Math.min(777, data.length - offset)));
+                }
+            }
+
+            // Every block should have been published, and read back as the original data.
+            assertEquals(13, (int) done.get(10, TimeUnit.SECONDS));
+            InputStream in = new HuffmanInputStream(new ByteArrayInputStream(blocks.toByteArray()));
+            for (byte b : data) {
+                assertEquals(b, (byte) in.read());
+            }
+            assertEquals(-1, in.read());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testProcessLargeChunk() throws Exception {
+        // Run every task by hand, so that the blocks sent off to be compressed can be counted.
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        HuffmanCompressor compressor = new HuffmanCompressor();
+        compressor.setBlockSize(100);
+        HuffmanCompressionProcessor subject = new HuffmanCompressionProcessor(compressor, executor, 2);
+        final ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        final CompletableFuture<Integer> done = new CompletableFuture<Integer>();
+        subject.subscribe(new Flow.Subscriber<HuffmanCompressionResult>() {
+            private int count;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(HuffmanCompressionResult item) {
+                try {
+                    item.writeTo(blocks);
+                } catch (IOException e) {
+                    done.completeExceptionally(e);
+                }
+                count++;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(count);
+            }
+        });
+        final int[] requests = new int[1];
+        subject.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requests[0]++;
+            }
+
+            @Override
+            public void cancel() { }
+        });
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+
+        // A single chunk spanning many blocks should only have as many blocks sent off as may be in flight.
+        byte[] data = new byte[6400];
+        Random random = new Random(22);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(1 + i / 1000));
+        }
+        subject.onNext(ByteBuffer.wrap(data));
+        assertEquals(2, tasks.size());
+        assertEquals(1, requests[0]);
+
+        // The rest of the chunk should follow as blocks are published, and the next chunk be asked for once it is used.
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(2, requests[0]);
+        subject.onComplete();
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(64, (int) done.get(10, TimeUnit.SECONDS));
+        InputStream in = new HuffmanInputStream(new ByteArrayInputStream(blocks.toByteArray()));
+        for (byte b : data) {
+            assertEquals(b, (byte) in.read());
+        }
+        assertEquals(-1, in.read());
+    }
+
+    public void testMaxInFlight() {
+        // Each subscriber should buffer no more results than may be in flight, rounded up to a power of two.
+        HuffmanCompressor compressor = new HuffmanCompressor();
+        assertEquals(2, new HuffmanCompressionProcessor(compressor, compressor.getPool(), 2).getMaxBufferCapacity());
+        assertEquals(4, new HuffmanCompressionProcessor(compressor, compressor.getPool(), 3).getMaxBufferCapacity());
+        try {
+            new HuffmanCompressionProcessor(compressor, compressor.getPool(), 0);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testProcessError() throws InterruptedException, TimeoutException {
+        // An upstream error should reach subscribers.
+        HuffmanCompressionProcessor subject = new HuffmanCompressionProcessor(new HuffmanCompressor());
+        final CompletableFuture<Void> done = new CompletableFuture<Void>();
+        subject.subscribe(new Flow.Subscriber<HuffmanCompressionResult>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(HuffmanCompressionResult item) { }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        SubmissionPublisher<ByteBuffer> source = new SubmissionPublisher<ByteBuffer>();
+        source.subscribe(subject);
+        source.closeExceptionally(new IllegalStateException("upstream failed"));
+        try {
+            done.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -1,5 +1,18 @@
 package com.sauljohnson.huff;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import junit.framework.TestCase;
 
 /**
@@ -20,7 +33,7 @@ public class HuffmanCompressorTests extends TestCase {
 
         // Check length of compressed data.
         assertEquals(4, result.getData().length);
-        assertEquals(28, result.getLength());
+        assertEquals(27, result.getLength());
     }
 
     public void testDecompress() {
@@ -37,4 +50,683 @@ public class HuffmanCompressorTests extends TestCase {
             assertEquals(data[i], decompressed[i]);
         }
     }
+
+    public void testDecompressSkewedData() {
+        // Initialize compressor.
+        HuffmanCompressor subject = new HuffmanCompressor();
+
+        // Compress data skewed enough to produce codes longer than a single table lookup.
+        byte[] data = new byte[100000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.numberOfLeadingZeros(random.nextInt() | 1);
+        }
+        HuffmanCompressionResult result = subject.compress(data);
+
+        // Decompressed data should be identical.
+        byte[] decompressed = subject.decompress(result.getData(), result.getTable(), result.getLength());
+        assertEquals(data.length, decompressed.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], decompressed[i]);
+        }
+    }
+
+    public void testDecompressWithMaxCodeLength() {
+        // Initialize compressor with limited code length.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setMaxCodeLength(11);
+
+        // Compress skewed data.
+        byte[] data = new byte[100000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.numberOfLeadingZeros(random.nextInt() | 1);
+        }
+        HuffmanCompressionResult result = subject.compress(data);
+
+        // No code should be longer than the limit and decompressed data should be identical.
+        for (int codeLength : result.getTable().getCodeLengths()) {
+            assertTrue(codeLength <= 11);
+        }
+        byte[] decompressed = subject.decompress(result.getData(), result.getTable(), result.getLength());
+        assertEquals(data.length, decompressed.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], decompressed[i]);
+        }
+    }
+
+    public void testCompressRandomDataIsStored() throws IOException {
+        // Random data should be stored rather than coded.
+        byte[] data = new byte[10000];
+        new Random(5).nextBytes(data);
+        HuffmanCompressor subject = new HuffmanCompressor();
+        HuffmanCompressionResult result = subject.compress(data);
+        assertEquals(CompressionMode.STORED, result.getMode());
+        assertTrue(Arrays.equals(data, subject.decompress(result)));
+
+        // The stored block should be only five bytes longer than the data, and read back the same.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.writeTo(out);
+        assertEquals(data.length + 5, out.size());
+        HuffmanCompressionResult read = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(CompressionMode.STORED, read.getMode());
+        assertTrue(Arrays.equals(data, subject.decompress(read)));
+    }
+
+    public void testStored() {
+        // Stored results should not hand out a table shared with every other.
+        HuffmanCompressionResult result = HuffmanCompressionResult.stored(new byte[0], 0);
+        assertEquals(0, result.getLength());
+        assertNotSame(result.getTable(), HuffmanCompressionResult.stored(new byte[0], 0).getTable());
+
+        // Data too long for its length in bits to be held should be refused rather than given a truncated length.
+        try {
+            HuffmanCompressionResult.stored(new byte[0], HuffmanCompressionResult.MAX_STORED_LENGTH + 1);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressSingleSymbol() throws IOException {
+        // One byte repeated should be reduced to that byte.
+        byte[] data = new byte[10000];
+        Arrays.fill(data, (byte) 'z');
+        HuffmanCompressor subject = new HuffmanCompressor();
+        HuffmanCompressionResult result = subject.compress(data);
+        assertEquals(CompressionMode.SINGLE_SYMBOL, result.getMode());
+        assertTrue(Arrays.equals(data, subject.decompress(result)));
+
+        // The block should be six bytes long, and read back the same.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.writeTo(out);
+        assertEquals(6, out.size());
+        HuffmanCompressionResult read = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(CompressionMode.SINGLE_SYMBOL, read.getMode());
+        assertTrue(Arrays.equals(data, subject.decompress(read)));
+    }
+
+    public void testDecompressShortcutsWithTable() {
+        // Stored and single-symbol results should still decompress from their data, table and length alone.
+        byte[] random = new byte[4096];
+        new Random(6).nextBytes(random);
+        HuffmanCompressor subject = new HuffmanCompressor();
+        for (byte[] data : new byte[][] {{5}, {7, 7, 7, 7}, new byte[1000], random}) {
+            HuffmanCompressionResult result = subject.compress(data);
+            assertTrue(result.getMode() != CompressionMode.HUFFMAN);
+            assertTrue(Arrays.equals(data, subject.decompress(result.getData(), result.getTable(),
+                    result.getLength())));
+        }
+    }
+
+    public void testCompressTextUsesHuffman() {
+        assertEquals(CompressionMode.HUFFMAN, new HuffmanCompressor().compress("the cat sat on the mat".getBytes())
+                .getMode());
+    }
+
+    public void testCompressParallel() {
+        // Initialize compressor with small blocks on its own pool.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(1000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        subject.setPool(pool);
+
+        // Compress data spanning many blocks.
+        byte[] data = new byte[25500];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i / 1000 + random.nextInt(8));
+        }
+        Arrays.fill(data, 3000, 4000, (byte) 7);
+        for (int i = 5000; i < 6000; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        byte[] compressed = subject.compressParallel(data);
+        pool.shutdown();
+
+        // Decompressed data should be identical.
+        byte[] decompressed = new HuffmanCompressor().decompressParallel(compressed);
+        assertEquals(data.length, decompressed.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], decompressed[i]);
+        }
+    }
+
+    public void testCompressParallelEmpty() {
+        // Empty data should survive a round trip.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        assertEquals(0, subject.decompressParallel(subject.compressParallel(new byte[0])).length);
+    }
+
+    public void testDecompressParallelCorruptedIndex() {
+        // An original length in the index that its block does not match should be rejected before allocating.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        byte[] compressed = subject.compressParallel("abracadabra".getBytes());
+        compressed[4] = 0x7f;
+        try {
+            subject.decompressParallel(compressed);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressWithSampling() {
+        // Build data with bytes that sparse windows will miss.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setSampling(256, 8);
+        byte[] data = new byte[200000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(4));
+        }
+        data[123457] = 0;
+        data[199999] = (byte) 0xFF;
+
+        // Data should survive a round trip, at a small cost over exact counts.
+        assertTrue(Arrays.equals(data, subject.decompress(subject.compress(data))));
+        double penalty = subject.getSamplingPenalty(data);
+        assertTrue(penalty >= 0);
+        assertTrue(penalty < 0.05);
+    }
+
+    public void testCompressWithTableCache() {
+        // Compressing data of the same shape twice should reuse the table.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setTableCache(new PrefixCodeTableCache(8, 0.1));
+        byte[] first = "abracadabra abracadabra".getBytes();
+        byte[] second = "abracadabra abracadabra".getBytes();
+        HuffmanCompressionResult firstResult = subject.compress(first);
+        HuffmanCompressionResult secondResult = subject.compress(second);
+        assertSame(firstResult.getTable(), secondResult.getTable());
+        assertEquals(1, subject.getTableCache().getHitCount());
+        assertTrue(Arrays.equals(second, subject.decompress(secondResult)));
+    }
+
+    public void testCompressWithDictionary() {
+        // Train a dictionary on enough samples to outweigh the floor counts.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(("GET /page" + i + ".html HTTP/1.1").getBytes());
+        }
+        PrefixCodeDictionary dictionary = PrefixCodeDictionary.train(samples);
+
+        // Messages like the samples should shrink, and messages with unseen bytes should still survive.
+        byte[] data = "GET /contact.html HTTP/1.1".getBytes();
+        byte[] compressed = subject.compress(data, dictionary);
+        assertTrue(compressed.length < data.length);
+        assertTrue(Arrays.equals(data, subject.decompress(compressed, dictionary)));
+        byte[] unseen = new byte[] {0, (byte) 0xFF, 'G', 'E', 'T'};
+        assertTrue(Arrays.equals(unseen, subject.decompress(subject.compress(unseen, dictionary), dictionary)));
+        assertEquals(0, subject.decompress(subject.compress(new byte[0], dictionary), dictionary).length);
+    }
+
+    public void testDecompressWithWrongDictionary() {
+        // Data compressed with one dictionary should be rejected by another.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        PrefixCodeDictionary first = PrefixCodeDictionary.train(Arrays.asList("aaaab".getBytes()));
+        PrefixCodeDictionary second = PrefixCodeDictionary.train(Arrays.asList("zzzzy".getBytes()));
+        try {
+            subject.decompress(subject.compress("ab".getBytes(), first), second);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testDecompressWithDictionaryCorrupted() {
+        // A length the data could not hold, or data cut off in its header, should be rejected as invalid.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        PrefixCodeDictionary dictionary = PrefixCodeDictionary.train(Arrays.asList("aaaab".getBytes()));
+        byte[] compressed = subject.compress("ab".getBytes(), dictionary);
+        byte[] huge = Arrays.copyOf(compressed, 9);
+        huge[4] = (byte) 0xFF;
+        huge[5] = (byte) 0xFF;
+        huge[6] = (byte) 0xFF;
+        huge[7] = (byte) 0xFF;
+        huge[8] = 0x07;
+        byte[][] invalid = new byte[][] {huge, Arrays.copyOf(compressed, 4), Arrays.copyOf(compressed, 2),
+                new byte[] {compressed[0], compressed[1], compressed[2], compressed[3], (byte) 0x80}};
+        for (byte[] bad : invalid) {
+            try {
+                subject.decompress(bad, dictionary);
+                fail();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Invalid"));
+            }
+        }
+    }
+
+    public void testCompressAdaptive() {
+        // Data of every length should survive a round trip without a table.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        Random random = new Random(42);
+        for (int length : new int[] {0, 1, 2, 1000}) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) ('a' + random.nextInt(6));
+            }
+            assertTrue(Arrays.equals(data, subject.decompressAdaptive(subject.compressAdaptive(data))));
+        }
+    }
+
+    public void testCompressContext() {
+        // Generate data in which each byte depends on the byte before it.
+        byte[] data = new byte[50000];
+        Random random = new Random(32);
+        int previous = 0;
+        for (int i = 0; i < data.length; i++) {
+            previous = (previous * 7 + random.nextInt(3)) % 40;
+            data[i] = (byte) previous;
+        }
+
+        // Context coding should beat plain coding by far, and survive a round trip.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        byte[] compressed = subject.compressContext(data);
+        assertTrue(compressed.length * 2 < (subject.compress(data).getLength() + 7) / 8);
+        assertTrue(Arrays.equals(data, subject.decompressContext(compressed)));
+
+        // So should empty data, text, and data coded with a single table.
+        assertEquals(0, subject.decompressContext(subject.compressContext(new byte[0])).length);
+        byte[] text = "the cat sat on the mat with the other cat".getBytes();
+        assertTrue(Arrays.equals(text, subject.decompressContext(subject.compressContext(text))));
+        subject.setMaxContextTables(1);
+        assertTrue(Arrays.equals(data, subject.decompressContext(subject.compressContext(data))));
+
+        // An original length longer than the coded data could hold should be rejected.
+        byte[] corrupted = subject.compressContext(text);
+        corrupted[0] = 0x7f;
+        try {
+            subject.decompressContext(corrupted);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressInts() {
+        // Skewed symbols from a large alphabet should code well below 16 bits each, and survive a round trip.
+        int[] data = new int[100000];
+        Random random = new Random(33);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (int) Math.min(65535, Math.abs(random.nextGaussian()) * 2000);
+        }
+        HuffmanCompressor subject = new HuffmanCompressor();
+        byte[] compressed = subject.compressInts(data);
+        assertTrue(compressed.length < data.length * 2);
+        assertTrue(Arrays.equals(data, subject.decompressInts(compressed)));
+
+        // So should empty data, a lone symbol, and every symbol at once under a tight code length limit.
+        assertEquals(0, subject.decompressInts(subject.compressInts(new int[0])).length);
+        int[] lone = new int[] {60000, 60000, 60000};
+        assertTrue(Arrays.equals(lone, subject.decompressInts(subject.compressInts(lone))));
+        int[] all = new int[IntFrequencySet.MAX_ALPHABET_SIZE];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = all.length - 1 - i;
+        }
+        subject.setMaxCodeLength(8);
+        assertTrue(Arrays.equals(all, subject.decompressInts(subject.compressInts(all))));
+
+        // An original length longer than the coded data could hold should be rejected.
+        byte[] corrupted = subject.compressInts(lone);
+        corrupted[0] = 0x7f;
+        try {
+            subject.decompressInts(corrupted);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressLz() {
+        // Generate log-like data full of repeated lines.
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random(35);
+        String[] levels = {"INFO", "WARN", "DEBUG"};
+        for (int i = 0; i < 2000; i++) {
+            builder.append("2026-10-18 12:").append(10 + random.nextInt(50)).append(' ')
+                    .append(levels[random.nextInt(3)]).append(" request ").append(random.nextInt(100))
+                    .append(" served from cache\n");
+        }
+        byte[] data = builder.toString().getBytes();
+
+        // Matches should beat plain coding by far at every level, and survive a round trip.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        long plainLength = (subject.compress(data).getLength() + 7) / 8;
+        for (int level : new int[] {1, 6, 9}) {
+            subject.setMatchLevel(level);
+            byte[] compressed = subject.compressLz(data);
+            assertTrue(compressed.length * 3 < plainLength);
+            assertTrue(Arrays.equals(data, subject.decompressLz(compressed)));
+        }
+
+        // So should empty data, data with no matches, and a small window.
+        assertEquals(0, subject.decompressLz(subject.compressLz(new byte[0])).length);
+        byte[] text = "abc".getBytes();
+        assertTrue(Arrays.equals(text, subject.decompressLz(subject.compressLz(text))));
+        subject.setWindowSize(256);
+        assertTrue(Arrays.equals(data, subject.decompressLz(subject.compressLz(data))));
+
+        // An original length longer than the longest matches could produce should be rejected.
+        byte[] corrupted = subject.compressLz(text);
+        corrupted[0] = 0x7f;
+        try {
+            subject.decompressLz(corrupted);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testDecompressRange() {
+        // Generate skewed data so that it is Huffman coded.
+        byte[] data = new byte[100000];
+        Random random = new Random(36);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Math.min(255, Math.abs(random.nextGaussian()) * 20);
+        }
+
+        // Ranges of every kind should come back the same with and without checkpoints.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        HuffmanCompressionResult plain = subject.compress(data);
+        assertNull(plain.getCheckpoints());
+        subject.setCheckpointInterval(4096);
+        HuffmanCompressionResult indexed = subject.compress(data);
+        assertEquals(25, indexed.getCheckpoints().getCount());
+        assertTrue(Arrays.equals(plain.getData(), indexed.getData()));
+        int[][] ranges = {{0, 0}, {0, 1}, {4095, 4097}, {8192, 8200}, {50000, 70000}, {99999, 100000},
+                {0, 100000}};
+        for (int[] range : ranges) {
+            byte[] expected = Arrays.copyOfRange(data, range[0], range[1]);
+            assertTrue(Arrays.equals(expected, subject.decompressRange(plain, range[0], range[1])));
+            assertTrue(Arrays.equals(expected, subject.decompressRange(indexed, range[0], range[1])));
+        }
+
+        // Stored and single-symbol results should give ranges too, and ranges outside the data should be refused.
+        byte[] noise = new byte[1000];
+        new Random(37).nextBytes(noise);
+        assertTrue(Arrays.equals(Arrays.copyOfRange(noise, 10, 20),
+                subject.decompressRange(subject.compress(noise), 10, 20)));
+        assertTrue(Arrays.equals(new byte[5], subject.decompressRange(subject.compress(new byte[100]), 50, 55)));
+        try {
+            subject.decompressRange(indexed, 99999, 100001);
+            fail("Expected a range past the end of the data to be refused.");
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressInterleaved() {
+        // Data of every length should survive a round trip, including lengths that don't split evenly.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        Random random = new Random(42);
+        for (int length : new int[] {0, 1, 2, 3, 5, 7, 10001}) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) Integer.numberOfLeadingZeros(random.nextInt() | 1);
+            }
+            byte[] decompressed = subject.decompressInterleaved(subject.compressInterleaved(data));
+            assertEquals(data.length, decompressed.length);
+            for (int i = 0; i < data.length; i++) {
+                assertEquals(data[i], decompressed[i]);
+            }
+        }
+    }
+
+    public void testDecompressInterleavedTruncated() {
+        // Dropping the last byte should be rejected.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        byte[] compressed = subject.compressInterleaved("interleave these bytes please".getBytes());
+        try {
+            subject.decompressInterleaved(Arrays.copyOf(compressed, compressed.length - 1));
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+
+        // So should an original length longer than the streams could hold.
+        compressed[0] = 0x7f;
+        try {
+            subject.decompressInterleaved(compressed);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testCompressToContainer() {
+        // Initialize compressor with small blocks.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(1000);
+
+        // Data spanning several blocks, and empty data, should survive a round trip.
+        byte[] data = new byte[5500];
+        Random random = new Random(11);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(6));
+        }
+        byte[] container = subject.compressToContainer(data);
+        assertEquals(HuffmanCompressor.CONTAINER_MAGIC, ByteBuffer.wrap(container).getInt());
+        assertTrue(Arrays.equals(data, subject.decompressContainer(container)));
+        assertEquals(0, subject.decompressContainer(subject.compressToContainer(new byte[0])).length);
+    }
+
+    public void testDecompressContainerCorrupted() {
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(1000);
+        byte[] data = new byte[3000];
+        Random random = new Random(12);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(6));
+        }
+        byte[] container = subject.compressToContainer(data);
+
+        // A flipped bit in a block, a wrong version or a truncated container should all be rejected.
+        byte[] flipped = container.clone();
+        flipped[flipped.length - 10] ^= 0x10;
+        byte[] wrongVersion = container.clone();
+        wrongVersion[4] = 2;
+        byte[][] invalid = new byte[][] {flipped, wrongVersion, Arrays.copyOf(container, container.length - 1),
+                Arrays.copyOf(container, 3)};
+        for (byte[] bad : invalid) {
+            try {
+                subject.decompressContainer(bad);
+                fail();
+            } catch (RuntimeException e) {
+                // Expected.
+            }
+        }
+
+        // A corrupted original length should be caught by the checksum before the output is allocated.
+        byte[] huge = container.clone();
+        ByteBuffer.wrap(huge).putInt(17, 0x70000000);
+        try {
+            subject.decompressContainer(huge);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Checksum mismatch in block 0."));
+        }
+    }
+
+    public void testCompressSegmented() throws IOException {
+        // Initialize compressor with small segments.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(1000);
+
+        // Data spanning several segments should survive a round trip through streams.
+        byte[] data = new byte[4500];
+        Random random = new Random(13);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(1 + i / 500));
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        long written = subject.compressSegmented(new ByteArrayInputStream(data), compressed);
+        assertEquals(compressed.size(), written);
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        assertEquals(data.length, subject.decompressSegmented(new ByteArrayInputStream(compressed.toByteArray()),
+                decompressed));
+        assertTrue(Arrays.equals(data, decompressed.toByteArray()));
+
+        // So should empty data.
+        compressed.reset();
+        subject.compressSegmented(new ByteArrayInputStream(new byte[0]), compressed);
+        assertEquals(0, subject.decompressSegmented(new ByteArrayInputStream(compressed.toByteArray()),
+                new ByteArrayOutputStream()));
+    }
+
+    public void testDecompressSegmentedCorrupted() throws IOException {
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(1000);
+        byte[] data = new byte[2500];
+        Random random = new Random(14);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(6));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.compressSegmented(new ByteArrayInputStream(data), out);
+        byte[] container = out.toByteArray();
+
+        // Drop the first segment, keeping the header.
+        int firstLength = ByteBuffer.wrap(container, 5, 4).getInt();
+        ByteArrayOutputStream dropped = new ByteArrayOutputStream();
+        dropped.write(container, 0, 5);
+        dropped.write(container, 5 + 8 + firstLength, container.length - 5 - 8 - firstLength);
+
+        // A flipped bit, a truncated container or a lost segment should all be rejected.
+        byte[] flipped = container.clone();
+        flipped[20] ^= 0x01;
+        byte[][] invalid = new byte[][] {flipped, Arrays.copyOf(container, container.length - 1),
+                dropped.toByteArray()};
+        for (byte[] bad : invalid) {
+            try {
+                subject.decompressSegmented(new ByteArrayInputStream(bad), new ByteArrayOutputStream());
+                fail();
+            } catch (IOException e) {
+                // Expected.
+            }
+        }
+    }
+
+    public void testListener() throws IOException {
+        // Record the metrics of every block.
+        final List<CompressionMetrics> compressed = new ArrayList<CompressionMetrics>();
+        final List<CompressionMetrics> decompressed = new ArrayList<CompressionMetrics>();
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setListener(new CompressionListener() {
+            @Override
+            public void compressed(CompressionMetrics metrics) {
+                compressed.add(metrics);
+            }
+
+            @Override
+            public void decompressed(CompressionMetrics metrics) {
+                decompressed.add(metrics);
+            }
+        });
+
+        // Compress and decompress a block of text.
+        byte[] data = "the quick brown fox jumps over the lazy dog".getBytes();
+        subject.decompress(subject.compress(data));
+        assertEquals(1, compressed.size());
+        assertEquals(1, decompressed.size());
+
+        // Compression metrics should describe the block.
+        CompressionMetrics metrics = compressed.get(0);
+        assertEquals(CompressionMode.HUFFMAN, metrics.getMode());
+        assertEquals(data.length, metrics.getBytesIn());
+        assertTrue(metrics.getBytesOut() < data.length);
+        assertEquals(new ByteFrequencySet(data).getEntropy(), metrics.getEntropy(), 1e-9);
+        assertTrue(metrics.getAverageCodeLength() >= metrics.getEntropy());
+        assertTrue(metrics.getMaxCodeDepth() > 0);
+        assertTrue(metrics.getTreeNanos() > 0);
+        assertEquals(0, metrics.getDecodeNanos());
+
+        // Decompression metrics should mirror them.
+        metrics = decompressed.get(0);
+        assertEquals(data.length, metrics.getBytesOut());
+        assertTrue(Double.isNaN(metrics.getEntropy()));
+        assertTrue(metrics.getDecodeNanos() > 0);
+        assertEquals(0, metrics.getEncodeNanos());
+
+        // Decompressing from a table, or a range, should be reported too.
+        HuffmanCompressionResult result = subject.compress(data);
+        decompressed.clear();
+        subject.decompress(result.getData(), result.getTable(), result.getLength());
+        subject.decompress(result.getData(), result.getTable(), result.getLength(), new byte[data.length], 0,
+                data.length);
+        subject.decompressRange(result, 4, 9);
+        assertEquals(3, decompressed.size());
+        assertEquals(CompressionMode.HUFFMAN, decompressed.get(0).getMode());
+        assertEquals(data.length, decompressed.get(1).getBytesOut());
+        assertEquals(5, decompressed.get(2).getBytesOut());
+
+        // Files should be reported a block at a time.
+        subject.setBlockSize(16);
+        compressed.clear();
+        decompressed.clear();
+        Path source = Files.createTempFile("huff", ".txt");
+        Path target = Files.createTempFile("huff", ".huff");
+        try {
+            Files.write(source, data);
+            long compressedSize = subject.compress(source, target);
+            subject.decompress(target, source);
+            assertEquals(3, compressed.size());
+            assertEquals(3, decompressed.size());
+            long bytesOut = 0;
+            for (CompressionMetrics block : compressed) {
+                bytesOut += block.getBytesOut();
+            }
+            assertEquals(compressedSize, bytesOut);
+            assertEquals(data.length - 32, decompressed.get(2).getBytesOut());
+        } finally {
+            Files.delete(source);
+            Files.delete(target);
+        }
+    }
+
+    public void testCompressFile() throws IOException {
+        // Initialize compressor with small blocks.
+        HuffmanCompressor subject = new HuffmanCompressor();
+        subject.setBlockSize(4096);
+
+        // Write data spanning several blocks to a file.
+        byte[] data = new byte[30000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(1 + i / 1000));
+        }
+
+        // Include a block of one byte repeated and a block of random bytes.
+        Arrays.fill(data, 0, 4096, (byte) 'q');
+        for (int i = 8192; i < 12288; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        Path source = Files.createTempFile("huff", ".txt");
+        Path compressed = Files.createTempFile("huff", ".huff");
+        Path decompressed = Files.createTempFile("huff", ".txt");
+        try {
+            Files.write(source, data);
+
+            // Compress and decompress the file.
+            long compressedSize = subject.compress(source, compressed);
+            assertEquals(Files.size(compressed), compressedSize);
+            assertEquals(data.length, subject.decompress(compressed, decompressed));
+
+            // Decompressed file should be identical, and readable as a stream too.
+            byte[] result = Files.readAllBytes(decompressed);
+            assertEquals(data.length, result.length);
+            try (InputStream in = new HuffmanInputStream(Files.newInputStream(compressed))) {
+                for (int i = 0; i < data.length; i++) {
+                    assertEquals(data[i], result[i]);
+                    assertEquals(data[i], (byte) in.read());
+                }
+                assertEquals(-1, in.read());
+            }
+        } finally {
+            Files.delete(source);
+            Files.delete(compressed);
+            Files.delete(decompressed);
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanDecoder} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanDecoderTests extends TestCase {
+
+    public void testDecode() {
+        // Encode several messages back to back into a direct buffer.
+        HuffmanEncoder encoder = new HuffmanEncoder();
+        String[] messages = new String[] {"the cat sat on the mat", "the cat sat on the mat", "", "zzzz", "hello"};
+        ByteBuffer encoded = ByteBuffer.allocateDirect(4096);
+        for (String message : messages) {
+            encoder.encode(ByteBuffer.wrap(message.getBytes()), encoded);
+        }
+        encoded.flip();
+
+        // Decode them one at a time with the same decoder.
+        HuffmanDecoder subject = new HuffmanDecoder();
+        for (String message : messages) {
+            ByteBuffer decoded = ByteBuffer.allocate(HuffmanDecoder.getDecodedLength(encoded, encoded.position()));
+            assertEquals(message.length(), subject.decode(encoded, decoded));
+            assertEquals(message, new String(decoded.array()));
+        }
+        assertEquals(0, encoded.remaining());
+    }
+
+    public void testDecodeCompressionResult() throws IOException {
+        // A block written by a compression result should decode too.
+        byte[] data = new byte[5000];
+        Random random = new Random(3);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextGaussian() * 8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HuffmanCompressor().compress(data).writeTo(out);
+        byte[] block = out.toByteArray();
+        byte[] decoded = new byte[data.length];
+        int count = new HuffmanDecoder().decode(ByteBuffer.wrap(block), 0, block.length, ByteBuffer.wrap(decoded), 0);
+        assertEquals(data.length, count);
+        assertTrue(Arrays.equals(data, decoded));
+    }
+
+    public void testDecodeStoredAndSingleSymbol() {
+        // Random data and one byte repeated should be encoded without a table, then decode back.
+        byte[] random = new byte[1000];
+        new Random(8).nextBytes(random);
+        byte[] repeated = new byte[1000];
+        Arrays.fill(repeated, (byte) 9);
+        HuffmanEncoder encoder = new HuffmanEncoder();
+        ByteBuffer encoded = ByteBuffer.allocate(4096);
+        assertEquals(1005, encoder.encode(ByteBuffer.wrap(random), encoded));
+        assertEquals(6, encoder.encode(ByteBuffer.wrap(repeated), encoded));
+        encoded.flip();
+        HuffmanDecoder subject = new HuffmanDecoder();
+        ByteBuffer decoded = ByteBuffer.allocate(2000);
+        assertEquals(1000, subject.decode(encoded, decoded));
+        assertEquals(1000, subject.decode(encoded, decoded));
+        assertEquals(0, encoded.remaining());
+        assertTrue(Arrays.equals(random, Arrays.copyOfRange(decoded.array(), 0, 1000)));
+        assertTrue(Arrays.equals(repeated, Arrays.copyOfRange(decoded.array(), 1000, 2000)));
+    }
+
+    public void testDecodeLongCodes() {
+        // Fibonacci counts give codes longer than the root table.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int a = 1;
+        int b = 1;
+        for (int symbol = 0; symbol < 20; symbol++) {
+            for (int i = 0; i < a; i++) {
+                out.write(symbol);
+            }
+            int c = a + b;
+            a = b;
+            b = c;
+        }
+        byte[] data = out.toByteArray();
+        ByteBuffer encoded = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+        new HuffmanEncoder().encode(ByteBuffer.wrap(data), encoded);
+        encoded.flip();
+        ByteBuffer decoded = ByteBuffer.allocate(data.length);
+        new HuffmanDecoder().decode(encoded, decoded);
+        assertTrue(Arrays.equals(data, decoded.array()));
+    }
+
+    public void testDecodeTruncated() {
+        // Cutting the block short should be rejected.
+        byte[] data = "truncate me please".getBytes();
+        ByteBuffer encoded = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+        int written = new HuffmanEncoder().encode(ByteBuffer.wrap(data), encoded);
+        try {
+            new HuffmanDecoder().decode(encoded, 0, written - 1, ByteBuffer.allocate(data.length), 0);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+
+    public void testDecodeOverflow() {
+        // A buffer too small for the decoded data should be rejected.
+        byte[] data = "no room at the inn".getBytes();
+        ByteBuffer encoded = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+        int written = new HuffmanEncoder().encode(ByteBuffer.wrap(data), encoded);
+        try {
+            new HuffmanDecoder().decode(encoded, 0, written, ByteBuffer.allocate(4), 0);
+            fail();
+        } catch (BufferOverflowException e) {
+            // Expected.
+        }
+    }
+}
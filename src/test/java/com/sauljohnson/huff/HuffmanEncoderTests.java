@@ -0,0 +1,86 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanEncoder} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanEncoderTests extends TestCase {
+
+    public void testEncode() throws IOException {
+        // Encode into a heap buffer.
+        byte[] data = "she sells sea shells on the sea shore".getBytes();
+        ByteBuffer dst = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+        int written = new HuffmanEncoder().encode(ByteBuffer.wrap(data), dst);
+        assertEquals(written, dst.position());
+
+        // The block should read back as a compression result.
+        HuffmanCompressionResult result = HuffmanCompressionResult.readFrom(
+                new ByteArrayInputStream(dst.array(), 0, written));
+        assertTrue(Arrays.equals(data, new HuffmanCompressor().decompress(result)));
+    }
+
+    public void testEncodeDirectLittleEndian() throws IOException {
+        // Encode part of a direct buffer into a little-endian direct buffer at an offset.
+        byte[] data = "abracadabra, abracadabra".getBytes();
+        ByteBuffer src = ByteBuffer.allocateDirect(data.length + 10);
+        src.position(5);
+        src.put(data);
+        ByteBuffer dst = ByteBuffer.allocateDirect(HuffmanEncoder.getMaxEncodedLength(data.length) + 3)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int written = new HuffmanEncoder().encode(src, 5, data.length, dst, 3);
+
+        // Copy out and read back.
+        byte[] block = new byte[written];
+        for (int i = 0; i < written; i++) {
+            block[i] = dst.get(3 + i);
+        }
+        HuffmanCompressionResult result = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(block));
+        assertTrue(Arrays.equals(data, new HuffmanCompressor().decompress(result)));
+    }
+
+    public void testEncodeReused() throws IOException {
+        // One encoder should give the same blocks as fresh ones.
+        HuffmanEncoder subject = new HuffmanEncoder();
+        String[] messages = new String[] {"aaaaaaab", "", "hello world", "x"};
+        for (String message : messages) {
+            byte[] data = message.getBytes();
+            ByteBuffer reused = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+            ByteBuffer fresh = ByteBuffer.allocate(HuffmanEncoder.getMaxEncodedLength(data.length));
+            subject.encode(ByteBuffer.wrap(data), reused);
+            new HuffmanEncoder().encode(ByteBuffer.wrap(data), fresh);
+            assertEquals(fresh.position(), reused.position());
+            assertTrue(Arrays.equals(fresh.array(), reused.array()));
+        }
+    }
+
+    public void testEncodeOverflow() {
+        // A buffer too small for the block should be rejected.
+        byte[] data = "not enough room".getBytes();
+        try {
+            new HuffmanEncoder().encode(ByteBuffer.wrap(data), ByteBuffer.allocate(8));
+            fail();
+        } catch (BufferOverflowException e) {
+            // Expected.
+        }
+    }
+
+    public void testSetMaxCodeLengthRejectsShortLimits() {
+        try {
+            new HuffmanEncoder().setMaxCodeLength(4);
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+}
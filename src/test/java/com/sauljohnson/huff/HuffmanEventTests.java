@@ -0,0 +1,53 @@
+package com.sauljohnson.huff;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanEvent} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanEventTests extends TestCase {
+
+    public void testEventsRecorded() throws IOException {
+        // Compress and decompress a block while recording Huff events.
+        byte[] data = "the quick brown fox jumps over the lazy dog".getBytes();
+        HuffmanCompressor subject = new HuffmanCompressor();
+        Path file = Files.createTempFile("huff", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("com.sauljohnson.huff.Compress");
+                recording.enable("com.sauljohnson.huff.Decompress");
+                recording.start();
+                subject.decompress(subject.compress(data));
+                recording.stop();
+                recording.dump(file);
+            }
+
+            // One event of each kind should have been committed, holding the block's metrics.
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(2, events.size());
+            for (RecordedEvent event : events) {
+                assertEquals("HUFFMAN", event.getString("mode"));
+                if (event.getEventType().getName().equals("com.sauljohnson.huff.Compress")) {
+                    assertEquals(data.length, event.getLong("bytesIn"));
+                    assertTrue(event.getDouble("entropy") > 0);
+                } else {
+                    assertEquals(data.length, event.getLong("bytesOut"));
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
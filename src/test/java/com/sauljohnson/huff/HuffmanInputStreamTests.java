@@ -0,0 +1,94 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanInputStream} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanInputStreamTests extends TestCase {
+
+    public void testRead() throws IOException {
+        // Compress data spanning several blocks.
+        byte[] data = new byte[10000];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(random.nextBoolean() ? 4 : 26));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HuffmanOutputStream compressor = new HuffmanOutputStream(out, 4096);
+        compressor.write(data);
+        compressor.close();
+
+        // Read back through a small buffer, which should give identical data.
+        HuffmanInputStream subject = new HuffmanInputStream(new ByteArrayInputStream(out.toByteArray()));
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        byte[] buffer = new byte[777];
+        int count;
+        while ((count = subject.read(buffer, 0, buffer.length)) > 0) {
+            decompressed.write(buffer, 0, count);
+        }
+        assertEquals(-1, subject.read());
+        byte[] result = decompressed.toByteArray();
+        assertEquals(data.length, result.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], result[i]);
+        }
+    }
+
+    public void testReadEmpty() throws IOException {
+        // An empty stream should read as empty.
+        HuffmanInputStream subject = new HuffmanInputStream(new ByteArrayInputStream(new byte[0]));
+        assertEquals(-1, subject.read());
+    }
+
+    public void testReadTruncated() {
+        // A block cut short should fail to read.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            HuffmanOutputStream compressor = new HuffmanOutputStream(out);
+            compressor.write("truncated".getBytes());
+            compressor.close();
+        } catch (IOException e) {
+            fail();
+        }
+        byte[] truncated = new byte[out.size() - 1];
+        System.arraycopy(out.toByteArray(), 0, truncated, 0, truncated.length);
+        try {
+            new HuffmanInputStream(new ByteArrayInputStream(truncated)).read();
+            fail();
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+
+    public void testReadOversizedBlock() throws IOException {
+        // A block longer than the largest block size accepted should be rejected.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HuffmanOutputStream compressor = new HuffmanOutputStream(out, 4096);
+        compressor.write(new byte[4096]);
+        compressor.close();
+        try {
+            new HuffmanInputStream(new ByteArrayInputStream(out.toByteArray()), 1000).read();
+            fail();
+        } catch (IOException e) {
+            // Expected.
+        }
+
+        // So should a stored block claiming far more data than the stream holds.
+        byte[] corrupted = new byte[] {0x0F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, (byte) 0x80, 1, 2, 3};
+        try {
+            new HuffmanInputStream(new ByteArrayInputStream(corrupted)).read();
+            fail();
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link HuffmanOutputStream} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class HuffmanOutputStreamTests extends TestCase {
+
+    public void testWrite() throws IOException {
+        // Write enough data to fill two blocks and part of a third.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HuffmanOutputStream subject = new HuffmanOutputStream(out, 1000);
+        byte[] data = "abracadabra".getBytes();
+        for (int i = 0; i < 250; i++) {
+            subject.write(data);
+        }
+        subject.close();
+
+        // Three blocks should have been written, the first two holding a full block each.
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(1000, HuffmanCompressionResult.readFrom(in).getOriginalLength());
+        assertEquals(1000, HuffmanCompressionResult.readFrom(in).getOriginalLength());
+        assertEquals(750, HuffmanCompressionResult.readFrom(in).getOriginalLength());
+        assertEquals(0, in.available());
+    }
+
+    public void testFlush() throws IOException {
+        // Write a single byte and flush.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HuffmanOutputStream subject = new HuffmanOutputStream(out);
+        subject.write('x');
+        subject.flush();
+
+        // The partial block should have been written.
+        HuffmanCompressionResult block = HuffmanCompressionResult.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(1, block.getOriginalLength());
+    }
+}
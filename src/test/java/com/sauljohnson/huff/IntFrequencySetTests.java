@@ -0,0 +1,64 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link IntFrequencySet} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class IntFrequencySetTests extends TestCase {
+
+    public void testFromDataDense() {
+        // Plenty of symbols from a small alphabet are counted into an array.
+        IntFrequencySet subject = IntFrequencySet.fromData(new int[] {3, 1, 3, 0, 3, 1, 0, 0, 3, 3});
+        assertEquals(3, subject.getDistinctCount());
+        assertTrue(Arrays.equals(new int[] {0, 1, 3}, subject.getSymbols()));
+        assertEquals(3, subject.getCount(0));
+        assertEquals(2, subject.getCount(1));
+        assertEquals(0, subject.getCount(2));
+        assertEquals(5, subject.getCount(3));
+        assertEquals(10, subject.getTotal());
+    }
+
+    public void testFromDataSparse() {
+        // A few symbols scattered across the alphabet are counted by sorting.
+        IntFrequencySet subject = IntFrequencySet.fromData(new int[] {65535, 7, 40000, 7, 65535, 7});
+        assertTrue(Arrays.equals(new int[] {7, 40000, 65535}, subject.getSymbols()));
+        assertEquals(3, subject.getCount(7));
+        assertEquals(1, subject.getCount(40000));
+        assertEquals(2, subject.getCount(65535));
+        assertEquals(6, subject.getTotal());
+    }
+
+    public void testFromDataEmpty() {
+        IntFrequencySet subject = IntFrequencySet.fromData(new int[0]);
+        assertEquals(0, subject.getDistinctCount());
+        assertEquals(0, subject.getTotal());
+    }
+
+    public void testFromDataOutOfRange() {
+        for (int symbol : new int[] {-1, IntFrequencySet.MAX_ALPHABET_SIZE}) {
+            try {
+                IntFrequencySet.fromData(new int[] {0, symbol});
+                fail("Expected symbol " + symbol + " to be rejected.");
+            } catch (RuntimeException e) {
+                // Expected.
+            }
+        }
+    }
+
+    public void testFromCounts() {
+        IntFrequencySet subject = IntFrequencySet.fromCounts(new int[] {2, 300}, new long[] {5, 1L << 40});
+        assertEquals((1L << 40) + 5, subject.getTotal());
+        try {
+            IntFrequencySet.fromCounts(new int[] {300, 2}, new long[] {1, 1});
+            fail("Expected unsorted symbols to be rejected.");
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+}
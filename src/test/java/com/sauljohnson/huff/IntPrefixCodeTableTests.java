@@ -0,0 +1,84 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link IntPrefixCodeTable} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class IntPrefixCodeTableTests extends TestCase {
+
+    public void testBuild() {
+        // Counts of 1, 1, 2 and 4 give code lengths of 3, 3, 2 and 1.
+        IntFrequencySet frequencies = IntFrequencySet.fromCounts(new int[] {10, 500, 7000, 60000},
+                new long[] {1, 1, 2, 4});
+        IntPrefixCodeTable subject = IntPrefixCodeTable.build(frequencies, 32);
+        assertTrue(Arrays.equals(new int[] {10, 500, 7000, 60000}, subject.getSymbols()));
+        assertTrue(Arrays.equals(new int[] {3, 3, 2, 1}, subject.getCodeLengths()));
+        assertTrue(Arrays.equals(new int[] {6, 7, 2, 0}, subject.getCodeWords()));
+        assertEquals(2, subject.getCodeLength(7000));
+        assertEquals(0, subject.getCodeLength(7001));
+    }
+
+    public void testBuildSingleSymbol() {
+        IntPrefixCodeTable subject = IntPrefixCodeTable.build(IntFrequencySet.fromData(new int[] {9, 9, 9}), 32);
+        assertTrue(Arrays.equals(new int[] {1}, subject.getCodeLengths()));
+    }
+
+    public void testBuildLengthLimited() {
+        // Fibonacci counts make a tree as deep as there are symbols, so the limit must be enforced.
+        int[] symbols = new int[40];
+        long[] counts = new long[40];
+        long a = 1;
+        long b = 1;
+        for (int i = 0; i < 40; i++) {
+            symbols[i] = i * 1000;
+            counts[i] = a;
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        IntPrefixCodeTable subject = IntPrefixCodeTable.build(IntFrequencySet.fromCounts(symbols, counts), 12);
+        assertEquals(12, subject.getMaxCodeLength());
+    }
+
+    public void testBuildFullAlphabet() {
+        // Every symbol in the alphabet should get a code.
+        int[] data = new int[IntFrequencySet.MAX_ALPHABET_SIZE * 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (i * 7919) % IntFrequencySet.MAX_ALPHABET_SIZE;
+        }
+        IntPrefixCodeTable subject = IntPrefixCodeTable.build(IntFrequencySet.fromData(data), 32);
+        assertEquals(IntFrequencySet.MAX_ALPHABET_SIZE, subject.getSymbols().length);
+        assertEquals(16, subject.getMaxCodeLength());
+    }
+
+    public void testWriteAndRead() throws IOException {
+        // Both narrow and wide code lengths should read back unchanged.
+        for (int maxLength : new int[] {15, 32}) {
+            int[] symbols = new int[30];
+            long[] counts = new long[30];
+            for (int i = 0; i < 30; i++) {
+                symbols[i] = i * i * 70;
+                counts[i] = 1L << i;
+            }
+            IntPrefixCodeTable subject = IntPrefixCodeTable.build(IntFrequencySet.fromCounts(symbols, counts),
+                    maxLength);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            subject.writeTo(new DataOutputStream(out));
+            ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+            IntPrefixCodeTable read = IntPrefixCodeTable.readFrom(in);
+            assertEquals(0, in.remaining());
+            assertTrue(Arrays.equals(subject.getSymbols(), read.getSymbols()));
+            assertTrue(Arrays.equals(subject.getCodeLengths(), read.getCodeLengths()));
+        }
+    }
+}
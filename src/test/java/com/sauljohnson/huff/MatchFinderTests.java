@@ -0,0 +1,101 @@
+package com.sauljohnson.huff;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link MatchFinder} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class MatchFinderTests extends TestCase {
+
+    /**
+     * Rebuilds data from the tokens it was parsed into.
+     * @param tokens    the tokens
+     * @param length    the length of the original data
+     * @return          the rebuilt data
+     */
+    private static byte[] expand(int[] tokens, int length) {
+        byte[] out = new byte[length];
+        int position = 0;
+        for (int token : tokens) {
+            int symbol = MatchFinder.getSymbol(token);
+            if (symbol < 256) {
+                out[position++] = (byte) symbol;
+            } else {
+                int distance = MatchFinder.getDistance(token);
+                for (int i = 0; i < symbol - 256 + MatchFinder.MIN_MATCH; i++, position++) {
+                    out[position] = out[position - distance];
+                }
+            }
+        }
+        assertEquals(length, position);
+        return out;
+    }
+
+    public void testParse() {
+        // A repeated phrase should become a single match.
+        byte[] data = "abcdefgh-abcdefgh".getBytes();
+        int[] tokens = new MatchFinder(1 << 15, 6).parse(data);
+        assertEquals(10, tokens.length);
+        assertEquals(256 + 8 - MatchFinder.MIN_MATCH, MatchFinder.getSymbol(tokens[9]));
+        assertEquals(9, MatchFinder.getDistance(tokens[9]));
+    }
+
+    public void testParseOverlapping() {
+        // A run should be coded as a literal followed by a match that overlaps itself.
+        int[] tokens = new MatchFinder(1 << 15, 1).parse(new byte[100]);
+        assertEquals(0, tokens[0]);
+        assertEquals(1, MatchFinder.getDistance(tokens[1]));
+        assertTrue(tokens.length <= 3);
+    }
+
+    public void testParseRoundTrip() {
+        // Tokens at every level and window should rebuild the data, with no match reaching outside the window.
+        Random random = new Random(34);
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i > 1000 && random.nextInt(4) > 0 ? data[i - 1 - random.nextInt(1000)]
+                    : (byte) random.nextInt(16);
+        }
+        for (int level = MatchFinder.MIN_LEVEL; level <= MatchFinder.MAX_LEVEL; level++) {
+            for (int windowSize : new int[] {MatchFinder.MIN_WINDOW_SIZE, 1 << 15}) {
+                int[] tokens = new MatchFinder(windowSize, level).parse(data);
+                for (int token : tokens) {
+                    assertTrue(MatchFinder.getDistance(token) <= windowSize);
+                }
+                assertTrue(Arrays.equals(data, expand(tokens, data.length)));
+            }
+        }
+    }
+
+    public void testDistanceCodes() {
+        // Every distance should come back from its code and extra bits.
+        for (int distance = 1; distance <= MatchFinder.MAX_WINDOW_SIZE; distance += distance < 5000 ? 1 : 997) {
+            int code = MatchFinder.getDistanceCode(distance);
+            assertTrue(code < MatchFinder.DISTANCE_CODE_COUNT);
+            int extra = distance - MatchFinder.getDistanceBase(code);
+            assertTrue(extra >= 0 && extra < 1 << MatchFinder.getExtraBits(code));
+        }
+        assertEquals(MatchFinder.DISTANCE_CODE_COUNT - 1, MatchFinder.getDistanceCode(MatchFinder.MAX_WINDOW_SIZE));
+    }
+
+    public void testInvalidSettings() {
+        try {
+            new MatchFinder(1000, 6);
+            fail("Expected a window size that isn't a power of two to be rejected.");
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+        try {
+            new MatchFinder(1 << 15, 10);
+            fail("Expected an effort level above 9 to be rejected.");
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+}
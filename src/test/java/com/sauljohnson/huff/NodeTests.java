@@ -53,6 +53,18 @@ public class NodeTests extends TestCase {
         assertEquals(64, subject.getData());
     }
 
+    public void testGetDepth() {
+        // Initialize data node under two parent nodes.
+        Node dataSubject = new Node(0, 0);
+        Node parentSubject = new Node(0, dataSubject, new Node(0, 0));
+        Node rootSubject = new Node(0, parentSubject, new Node(0, 0));
+
+        // Depth should count ancestors.
+        assertEquals(2, dataSubject.getDepth());
+        assertEquals(1, parentSubject.getDepth());
+        assertEquals(0, rootSubject.getDepth());
+    }
+
     public void testBuildBitSequence() {
         // Initialize data node and parent node.
         Node zeroSubject = new Node(0, 16);
@@ -0,0 +1,36 @@
+package com.sauljohnson.huff;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link PackageMerge} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class PackageMergeTests extends TestCase {
+
+    public void testComputeCodeLengths() {
+        // Weights of 1, 1, 2, 4 and 8 give Huffman code lengths of 4, 4, 3, 2 and 1.
+        double[] weights = new double[] {1, 1, 2, 4, 8, 0};
+
+        // Limiting codes to 3 bits should give lengths of 3, 3, 3, 3 and 1.
+        int[] subject = PackageMerge.computeCodeLengths(weights, 3);
+        assertEquals(3, subject[0]);
+        assertEquals(3, subject[1]);
+        assertEquals(3, subject[2]);
+        assertEquals(3, subject[3]);
+        assertEquals(1, subject[4]);
+        assertEquals(0, subject[5]);
+    }
+
+    public void testComputeCodeLengthsUnlimited() {
+        // A generous limit should give plain Huffman code lengths.
+        int[] subject = PackageMerge.computeCodeLengths(new double[] {1, 1, 2, 4, 8}, 16);
+        assertEquals(4, subject[0]);
+        assertEquals(4, subject[1]);
+        assertEquals(3, subject[2]);
+        assertEquals(2, subject[3]);
+        assertEquals(1, subject[4]);
+    }
+}
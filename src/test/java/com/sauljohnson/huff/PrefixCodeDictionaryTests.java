@@ -0,0 +1,62 @@
+package com.sauljohnson.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link PrefixCodeDictionary} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class PrefixCodeDictionaryTests extends TestCase {
+
+    /** Sample messages to train on. */
+    private static final List<byte[]> SAMPLES = Arrays.asList(
+            "{\"user\":\"alice\",\"action\":\"login\"}".getBytes(),
+            "{\"user\":\"bob\",\"action\":\"logout\"}".getBytes(),
+            "{\"user\":\"carol\",\"action\":\"login\"}".getBytes());
+
+    public void testTrainGivesEveryByteACode() {
+        // Bytes missing from the samples should still have codes, within the length limit.
+        PrefixCodeDictionary subject = PrefixCodeDictionary.train(SAMPLES);
+        for (int codeLength : subject.getTable().getCodeLengths()) {
+            assertTrue(codeLength > 0);
+            assertTrue(codeLength <= PrefixCodeDictionary.DEFAULT_MAX_CODE_LENGTH);
+        }
+
+        // Bytes common in the samples should have shorter codes than missing ones.
+        int[] codeLengths = subject.getTable().getCodeLengths();
+        assertTrue(codeLengths['"'] < codeLengths[0]);
+    }
+
+    public void testIdIsStable() throws IOException {
+        // Training twice on the same samples should give the same ID.
+        PrefixCodeDictionary subject = PrefixCodeDictionary.train(SAMPLES);
+        assertEquals(subject.getId(), PrefixCodeDictionary.train(SAMPLES).getId());
+
+        // Reading a written dictionary back should keep the ID.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.writeTo(out);
+        PrefixCodeDictionary read = PrefixCodeDictionary.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(subject.getId(), read.getId());
+
+        // Different samples should give a different ID.
+        assertFalse(subject.getId() == PrefixCodeDictionary.train(Arrays.asList(new byte[] {1, 1, 1, 2})).getId());
+    }
+
+    public void testRejectsIncompleteTable() {
+        // A table that leaves bytes without codes can't be a dictionary.
+        try {
+            new PrefixCodeDictionary(PrefixCodeTable.fromCodeLengths(new int[] {1, 1}));
+            fail();
+        } catch (RuntimeException e) {
+            // Expected.
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sauljohnson.huff;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the {@link PrefixCodeTableCache} class.
+ *
+ * @version 1.0 18 October 2026
+ * @author  Saul Johnson
+ */
+public class PrefixCodeTableCacheTests extends TestCase {
+
+    /**
+     * Builds a table for a set of frequencies.
+     * @param frequencies   the set of frequencies
+     * @return              a table for the set of frequencies
+     */
+    private static PrefixCodeTable buildTable(ByteFrequencySet frequencies) {
+        return new PrefixCodeTable(FrequencyTree.fromFrequencySet(frequencies));
+    }
+
+    public void testLookup() {
+        // A stored table should be found again for data of the same shape.
+        PrefixCodeTableCache subject = new PrefixCodeTableCache(4, 0.05);
+        ByteFrequencySet first = new ByteFrequencySet("the rain in spain falls mainly on the plain".getBytes());
+        assertNull(subject.lookup(first));
+        subject.store(first, buildTable(first));
+        ByteFrequencySet second = new ByteFrequencySet("the rain in spain falls mainly on the plain".getBytes());
+        assertNotNull(subject.lookup(second));
+        assertEquals(1, subject.getHitCount());
+        assertEquals(1, subject.getMissCount());
+        assertEquals(0.5, subject.getHitRate());
+    }
+
+    public void testLookupMissingCode() {
+        // A table lacking a code for a byte in the data should not be used.
+        PrefixCodeTableCache subject = new PrefixCodeTableCache(4, 1.0);
+        ByteFrequencySet first = new ByteFrequencySet("aaaabbbbccccdddd".getBytes());
+        subject.store(first, buildTable(first));
+        assertNull(subject.lookup(new ByteFrequencySet("aaaabbbbccccdddx".getBytes())));
+    }
+
+    public void testLookupOutsideTolerance() {
+        // With no tolerance, a table should only be used if it is as cheap as the least possible cost.
+        PrefixCodeTableCache subject = new PrefixCodeTableCache(4, 0);
+        ByteFrequencySet frequencies = new ByteFrequencySet("aaabbc".getBytes());
+        subject.store(frequencies, buildTable(frequencies));
+        assertNull(subject.lookup(frequencies));
+
+        // Uniform data over four bytes costs exactly its entropy.
+        frequencies = new ByteFrequencySet("abcdabcd".getBytes());
+        subject.store(frequencies, buildTable(frequencies));
+        assertNotNull(subject.lookup(frequencies));
+    }
+
+    public void testEviction() {
+        // Storing more tables than the capacity should evict the least recently used.
+        PrefixCodeTableCache subject = new PrefixCodeTableCache(2, 0.5);
+        ByteFrequencySet a = new ByteFrequencySet("aaaaaaab".getBytes());
+        ByteFrequencySet b = new ByteFrequencySet("abcdefgh".getBytes());
+        ByteFrequencySet c = new ByteFrequencySet("xxyyzzww".getBytes());
+        subject.store(a, buildTable(a));
+        subject.store(b, buildTable(b));
+        assertNotNull(subject.lookup(a));
+        subject.store(c, buildTable(c));
+        assertEquals(2, subject.getSize());
+        assertEquals(1, subject.getEvictionCount());
+        assertNotNull(subject.lookup(a));
+        assertNull(subject.lookup(b));
+    }
+}
@@ -1,5 +1,9 @@
 package com.sauljohnson.huff;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
 import com.sauljohnson.backspin.BitSequence;
 import junit.framework.TestCase;
 
@@ -58,4 +62,95 @@ public class PrefixCodeTableTests extends TestCase {
         // The code '01' should exist.
         assertTrue(subject.hasCode(BitSequence.fromBitString("01")));
     }
+
+    public void testGetCodeWords() {
+        // Initialize table with known symbols and codes.
+        int[] symbols = new int[] {1, 200};
+        BitSequence[] codes = new BitSequence[] {BitSequence.fromBitString("01"), BitSequence.fromBitString("110")};
+        PrefixCodeTable subject = new PrefixCodeTable(symbols, codes);
+
+        // Code words should be indexed by symbol.
+        assertEquals(256, subject.getCodeWords().length);
+        assertEquals(1, subject.getCodeWords()[1]);
+        assertEquals(6, subject.getCodeWords()[200]);
+    }
+
+    public void testGetCodeLengths() {
+        // Initialize table with known symbols and codes.
+        int[] symbols = new int[] {1, 200};
+        BitSequence[] codes = new BitSequence[] {BitSequence.fromBitString("01"), BitSequence.fromBitString("110")};
+        PrefixCodeTable subject = new PrefixCodeTable(symbols, codes);
+
+        // Code lengths should be indexed by symbol, with zero for symbols without a code.
+        assertEquals(2, subject.getCodeLengths()[1]);
+        assertEquals(3, subject.getCodeLengths()[200]);
+        assertEquals(0, subject.getCodeLengths()[2]);
+
+        // Changing the array returned should leave the table as it was.
+        subject.getCodeLengths()[1] = 7;
+        subject.getCodeWords()[1] = 7;
+        assertEquals(2, subject.getCodeLengths()[1]);
+        assertEquals(1, subject.getCodeWords()[1]);
+    }
+
+    public void testFromCodeLengths() {
+        // Initialize table from code lengths alone.
+        int[] codeLengths = new int[256];
+        codeLengths['a'] = 2;
+        codeLengths['b'] = 1;
+        codeLengths['c'] = 3;
+        codeLengths['d'] = 3;
+        PrefixCodeTable subject = PrefixCodeTable.fromCodeLengths(codeLengths);
+
+        // Codes should be assigned canonically, by length and then symbol.
+        assertEquals("0", subject.translateSymbol('b').toBitString());
+        assertEquals("10", subject.translateSymbol('a').toBitString());
+        assertEquals("110", subject.translateSymbol('c').toBitString());
+        assertEquals("111", subject.translateSymbol('d').toBitString());
+        assertTrue(subject.isCanonical());
+    }
+
+    public void testIsCanonical() {
+        // Initialize table with codes that are not in canonical order.
+        int[] symbols = new int[] {1, 2};
+        BitSequence[] codes = new BitSequence[] {BitSequence.fromBitString("1"), BitSequence.fromBitString("0")};
+        PrefixCodeTable subject = new PrefixCodeTable(symbols, codes);
+
+        // Table should not be canonical.
+        assertFalse(subject.isCanonical());
+
+        // The same lengths in canonical order should be.
+        codes = new BitSequence[] {BitSequence.fromBitString("0"), BitSequence.fromBitString("1")};
+        assertTrue(new PrefixCodeTable(symbols, codes).isCanonical());
+    }
+
+    public void testWriteToReadFrom() throws IOException {
+        // Initialize table from text.
+        byte[] data = "the quick brown fox jumps over the lazy dog".getBytes();
+        PrefixCodeTable subject = new PrefixCodeTable(FrequencyTree.fromFrequencySet(new ByteFrequencySet(data)));
+
+        // Write table out and read it back.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subject.writeTo(out);
+        PrefixCodeTable read = PrefixCodeTable.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        // Every code should survive the round trip.
+        for (int i = 0; i < 256; i++) {
+            assertEquals(subject.getCodeLengths()[i], read.getCodeLengths()[i]);
+            assertEquals(subject.getCodeWords()[i], read.getCodeWords()[i]);
+        }
+    }
+
+    public void testReadFromOversubscribed() {
+        // Three one-bit codes can't form a prefix code, so reading them should fail as I/O.
+        byte[] header = new byte[1 + 256 / 2];
+        header[1] = 0x11;
+        header[2] = 0x10;
+        try {
+            PrefixCodeTable.readFrom(new ByteArrayInputStream(header));
+            fail("Expected oversubscribed code lengths to be rejected.");
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
 }